@@ -0,0 +1,14 @@
+package com.example.taskservice.api;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchCreateTaskRequest {
+    // Items are validated one by one in the controller so that a single bad item is
+    // reported in the response instead of rejecting the whole batch.
+    @NotEmpty(message = "At least one task is required")
+    private List<CreateTaskRequest> tasks;
+}
@@ -0,0 +1,33 @@
+package com.example.taskservice.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class BatchCreateTaskResponse {
+    private int accepted;
+    private int rejected;
+    private List<ItemResult> results;
+
+    @Data
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemResult {
+        private int index;
+        private UUID id;
+        private String error;
+
+        public static ItemResult created(int index, UUID id) {
+            return new ItemResult(index, id, null);
+        }
+
+        public static ItemResult rejected(int index, String error) {
+            return new ItemResult(index, null, error);
+        }
+    }
+}
@@ -1,10 +1,69 @@
 package com.example.taskservice.api;
 
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.domain.model.TaskSubmission;
+import com.example.taskservice.infrastructure.idempotency.IdempotencyKeys;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import lombok.Data;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
 
 @Data
 public class CreateTaskRequest {
     @NotBlank(message = "Payload is required")
     private String payload;
+
+    // Defaults to DEFAULT; also a metric tag and a worker concurrency key, so kept short and plain
+    @Pattern(regexp = "[A-Za-z0-9_.-]{1,64}", message = "Type must be 1-64 letters, digits, '_', '.' or '-'")
+    private String type;
+
+    // Defaults to NORMAL
+    private TaskPriority priority;
+
+    // Run no earlier than this instant (ISO-8601 with offset); in the past means now
+    private OffsetDateTime runAt;
+
+    // Run after this delay from submission, e.g. "10m"; alternative to runAt
+    private String delay;
+
+    @JsonIgnore
+    @AssertTrue(message = "Only one of runAt and delay may be set")
+    public boolean isSingleSchedule() {
+        return runAt == null || delay == null;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Delay must be a positive duration such as 30s or 10m")
+    public boolean isDelayValid() {
+        if (delay == null) {
+            return true;
+        }
+        try {
+            return !DurationStyle.detectAndParse(delay).isNegative();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public TaskSubmission toSubmission() {
+        LocalDateTime start = null;
+        if (runAt != null) {
+            start = runAt.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } else if (delay != null) {
+            start = LocalDateTime.now().plus(DurationStyle.detectAndParse(delay));
+        }
+        return TaskSubmission.of(type, priority, payload, start);
+    }
+
+    // Of the request as sent, so retries of a delayed task match although their run times differ
+    public byte[] fingerprint() {
+        TaskSubmission defaults = TaskSubmission.of(type, priority, payload);
+        return IdempotencyKeys.fingerprint(defaults.type(), defaults.priority(), payload, runAt, delay);
+    }
 }
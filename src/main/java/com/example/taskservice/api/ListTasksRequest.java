@@ -0,0 +1,51 @@
+package com.example.taskservice.api;
+
+import com.example.taskservice.domain.model.TaskQuery;
+import com.example.taskservice.domain.model.TaskStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+/**
+ * Query parameters of {@code GET /api/tasks}. The creation window defaults to the
+ * {@code default-window} before {@code to} (or now), and may not span more than
+ * {@code max-window}: an unbounded range would have to visit every partition.
+ */
+@Data
+public class ListTasksRequest {
+
+    private TaskStatus status;
+
+    private String type;
+
+    // Created at or after this instant (ISO-8601 with offset)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private OffsetDateTime from;
+
+    // Created before this instant; defaults to now
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private OffsetDateTime to;
+
+    // JSON the payload must contain, e.g. {"customerId": 42}
+    private String payload;
+
+    public TaskQuery toQuery(Duration defaultWindow, Duration maxWindow) {
+        LocalDateTime end = to != null ? local(to) : LocalDateTime.now();
+        LocalDateTime start = from != null ? local(from) : end.minus(defaultWindow);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (Duration.between(start, end).compareTo(maxWindow) > 0) {
+            throw new IllegalArgumentException("The time range may span at most " + maxWindow.toDays() + " days");
+        }
+        return new TaskQuery(start, end, status, type, payload);
+    }
+
+    private static LocalDateTime local(OffsetDateTime time) {
+        return time.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.taskservice.api;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskSubmission;
+import com.example.taskservice.domain.service.TaskService;
+import com.example.taskservice.infrastructure.datasource.ReadConsistency;
+import com.example.taskservice.infrastructure.ratelimit.BatchRateLimiter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class TaskBatchController {
+
+    private final TaskService taskService;
+    private final BatchRateLimiter batchRateLimiter;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ReadConsistency readConsistency;
+
+    @Value("${app.tasks.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    @PostMapping("/api/tasks:batch")
+    public ResponseEntity<BatchCreateTaskResponse> createTasks(@Valid @RequestBody BatchCreateTaskRequest request,
+                                                               HttpServletRequest httpRequest) {
+        List<CreateTaskRequest> items = request.getTasks();
+        log.info("Received request to create {} tasks", items.size());
+
+        if (items.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size " + items.size() + " exceeds the maximum of " + maxBatchSize);
+        }
+
+        // Every submitted item costs a token, exactly as if it had been sent on its own
+        batchRateLimiter.consume(httpRequest, items.size());
+
+        List<BatchCreateTaskResponse.ItemResult> results = new ArrayList<>(items.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(items.size());
+        List<TaskSubmission> submissions = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            String error = validate(items.get(i));
+            if (error != null) {
+                results.add(BatchCreateTaskResponse.ItemResult.rejected(i, error));
+            } else {
+                acceptedIndexes.add(i);
+                submissions.add(items.get(i).toSubmission());
+            }
+        }
+
+        if (!submissions.isEmpty()) {
+            List<Task> tasks = taskService.createTasks(submissions);
+            Iterator<Integer> indexes = acceptedIndexes.iterator();
+            for (Task task : tasks) {
+                results.add(BatchCreateTaskResponse.ItemResult.created(indexes.next(), task.getId()));
+            }
+        }
+
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        int rejected = items.size() - submissions.size();
+        BatchCreateTaskResponse response = new BatchCreateTaskResponse(submissions.size(), rejected, results);
+        return ResponseEntity.status(rejected == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS)
+                .headers(headers -> {
+                    if (!submissions.isEmpty()) {
+                        readConsistency.addToken(headers);
+                    }
+                })
+                .body(response);
+    }
+
+    private String validate(CreateTaskRequest item) {
+        if (item == null) {
+            return "task: must not be null";
+        }
+
+        Set<ConstraintViolation<CreateTaskRequest>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .collect(Collectors.joining(", "));
+        }
+
+        // The column is JSONB: one malformed payload would abort the whole batch insert,
+        // so it is rejected up front instead.
+        try {
+            objectMapper.readTree(item.getPayload());
+        } catch (JsonProcessingException e) {
+            return "payload: must be valid JSON";
+        }
+        return null;
+    }
+}
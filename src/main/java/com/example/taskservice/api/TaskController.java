@@ -1,15 +1,40 @@
 package com.example.taskservice.api;
 
 import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskCreation;
+import com.example.taskservice.domain.model.TaskCursor;
+import com.example.taskservice.domain.model.TaskQuery;
+import com.example.taskservice.domain.model.TaskStatus;
+import com.example.taskservice.domain.service.TaskExportService;
 import com.example.taskservice.domain.service.TaskService;
+import com.example.taskservice.domain.service.TaskStatusWaitService;
+import com.example.taskservice.infrastructure.datasource.ReadConsistency;
+import com.example.taskservice.infrastructure.export.ExportFormat;
+import com.example.taskservice.infrastructure.idempotency.IdempotencyKeys;
+import com.example.taskservice.infrastructure.ratelimit.ClientKeyResolver;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @RestController
@@ -17,13 +42,112 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TaskController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskStatusWaitService taskStatusWaitService;
+    private final ReadConsistency readConsistency;
+    private final ClientKeyResolver clientKeyResolver;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.tasks.listing.default-window:24h}")
+    private Duration defaultWindow;
+
+    @Value("${app.tasks.listing.max-window:31d}")
+    private Duration maxWindow;
+
+    @Value("${app.tasks.listing.max-limit:1000}")
+    private int maxLimit;
 
+    @Value("${app.tasks.export.max-window:366d}")
+    private Duration maxExportWindow;
+
+    /**
+     * Creates a task. With an {@code Idempotency-Key} header, retries of the same request
+     * return the task the first one created, with 200 and {@code Idempotent-Replayed: true}.
+     * Keys are scoped to the client.
+     */
     @PostMapping
-    public ResponseEntity<Task> createTask(@Valid @RequestBody CreateTaskRequest request) {
+    public ResponseEntity<Task> createTask(@Valid @RequestBody CreateTaskRequest request,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                           HttpServletRequest httpRequest) {
         log.info("Received request to create task");
-        Task task = taskService.createTask(request.getPayload());
-        return new ResponseEntity<>(task, HttpStatus.CREATED);
+        if (idempotencyKey == null) {
+            Task task = taskService.createTask(request.toSubmission());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .headers(headers -> readConsistency.addToken(headers))
+                    .body(task);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyKeys.MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(IDEMPOTENCY_KEY + " must be 1 to " + IdempotencyKeys.MAX_KEY_LENGTH + " characters");
+        }
+        TaskCreation creation = taskService.createTask(request.toSubmission(),
+                clientKeyResolver.resolve(httpRequest) + "|" + idempotencyKey, request.fingerprint());
+        return ResponseEntity.status(creation.replayed() ? HttpStatus.OK : HttpStatus.CREATED)
+                .headers(headers -> {
+                    readConsistency.addToken(headers);
+                    if (creation.replayed()) {
+                        headers.set(IDEMPOTENT_REPLAYED, "true");
+                    }
+                })
+                .body(creation.task());
+    }
+
+    /**
+     * Tasks created in a time window, newest first, optionally filtered by status, type and
+     * payload containment. Pages are continued with the returned {@code nextPageToken}.
+     */
+    @GetMapping
+    public TaskPageResponse listTasks(ListTasksRequest request,
+                                      @RequestParam(defaultValue = "50") int limit,
+                                      @RequestParam(required = false) String pageToken) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+        if (request.getPayload() != null) {
+            requireJsonDocument(request.getPayload());
+        }
+        TaskCursor cursor = pageToken != null ? TaskCursor.decode(pageToken) : null;
+        return TaskPageResponse.of(taskService.listTasks(request.toQuery(defaultWindow, maxWindow), cursor, limit));
+    }
+
+    /**
+     * Every task matching the listing filters as NDJSON or CSV, streamed as it is read.
+     * Compressed with gzip when the client accepts it.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(ListTasksRequest request,
+                                                             @RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                             String acceptEncoding) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        if (request.getPayload() != null) {
+            requireJsonDocument(request.getPayload());
+        }
+        TaskQuery query = request.toQuery(defaultWindow, maxExportWindow);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        log.info("Received request to export tasks from {} to {} as {}", query.from(), query.to(), exportFormat);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 65536);
+                taskExportService.export(query, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                taskExportService.export(query, exportFormat, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.contentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(exportFormat.fileName()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @GetMapping("/{id}")
@@ -32,4 +156,33 @@ public class TaskController {
         Task task = taskService.getTask(id);
         return ResponseEntity.ok(task);
     }
+
+    /**
+     * Long poll: answers once the task reaches {@code waitFor} (or a terminal status), or
+     * with its current state when {@code timeout} (e.g. 30s) runs out.
+     */
+    @GetMapping(value = "/{id}", params = "waitFor")
+    public DeferredResult<Task> awaitTask(@PathVariable UUID id,
+                                          @RequestParam TaskStatus waitFor,
+                                          @RequestParam(defaultValue = "30s") String timeout) {
+        log.info("Received request to wait for task {} to reach {}", id, waitFor);
+        return taskStatusWaitService.awaitStatus(id, waitFor, DurationStyle.detectAndParse(timeout));
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskStatus(@RequestParam List<UUID> ids) {
+        log.info("Received request to stream status of {} tasks", ids.size());
+        return taskStatusWaitService.streamStatus(ids);
+    }
+
+    private void requireJsonDocument(String json) {
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            if (node == null || !node.isContainerNode()) {
+                throw new IllegalArgumentException("payload must be a JSON object or array");
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("payload must be valid JSON");
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package com.example.taskservice.api;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskPage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskPageResponse {
+    private List<Task> tasks;
+    // Pass as pageToken for the next page; absent on the last page
+    private String nextPageToken;
+
+    public static TaskPageResponse of(TaskPage page) {
+        return new TaskPageResponse(page.tasks(), page.next() != null ? page.next().encode() : null);
+    }
+}
@@ -1,10 +1,10 @@
 package com.example.taskservice.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.Type;
-import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -23,12 +23,11 @@ import java.util.UUID;
 @IdClass(Task.TaskId.class)
 public class Task {
 
+    // Time-ordered, see TaskIds; created_at is derived from it when the task is built
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @Id
-    @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -36,17 +35,46 @@ public class Task {
     @Column(nullable = false)
     private TaskStatus status;
 
+    @Column(nullable = false, updatable = false)
+    private String taskType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private TaskPriority priority;
+
+    // The whole payload once loaded; see payloadRef for what the column holds
     @Type(JsonBinaryType.class)
-    @Column(columnDefinition = "jsonb", nullable = false)
+    @Column(columnDefinition = "jsonb", nullable = false, updatable = false)
     private String payload;
 
+    // SHA-256 of a payload kept in task_payloads; the payload column then only holds its
+    // indexed paths until TaskPayloadStore resolves it
+    @JsonIgnore
+    @Column(updatable = false)
+    private byte[] payloadRef;
+
     @Column(nullable = false)
     private int retryCount = 0;
 
+    // Set for delayed tasks; they stay SCHEDULED until then
+    @Column(updatable = false)
+    private LocalDateTime runAt;
+
     @LastModifiedDate
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    @JsonIgnore
+    public boolean isClaimChecked() {
+        return payloadRef != null;
+    }
+
+    // What the task's events carry: a claim-checked payload stays out of Kafka, and the
+    // worker reads it along with the task
+    public String eventPayload() {
+        return isClaimChecked() ? null : payload;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,8 @@
+package com.example.taskservice.domain.model;
+
+/**
+ * The outcome of a submission with an Idempotency-Key: the task, and whether it was created
+ * by an earlier submission with the same key rather than by this one.
+ */
+public record TaskCreation(Task task, boolean replayed) {
+}
@@ -0,0 +1,49 @@
+package com.example.taskservice.domain.model;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a task listing: the {@code (created_at, id)} of the last task returned. The
+ * next page starts strictly after it, so a page costs the same at any depth, unlike an
+ * OFFSET that reads and discards every row before it. Clients get it as an opaque token.
+ */
+public record TaskCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final byte VERSION = 1;
+    private static final int LENGTH = 1 + Long.BYTES + 2 * Long.BYTES;
+
+    public static TaskCursor after(Task task) {
+        return new TaskCursor(task.getCreatedAt(), task.getId());
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH)
+                .put(VERSION)
+                .putLong(ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), createdAt))
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static TaskCursor decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+        if (bytes.length != LENGTH || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, LENGTH - 1);
+        long micros = buffer.getLong();
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+        return new TaskCursor(createdAt, new UUID(buffer.getLong(), buffer.getLong()));
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.taskservice.domain.model;
+
+import java.util.List;
+
+/**
+ * A page of a task listing; {@code next} is null on the last page.
+ */
+public record TaskPage(List<Task> tasks, TaskCursor next) {
+}
@@ -0,0 +1,10 @@
+package com.example.taskservice.domain.model;
+
+/**
+ * Scheduling lane of a task. Each priority is published to its own topic, and the worker
+ * holds back lower lanes while a higher one is backlogged. Declared highest first; the
+ * ordinal is the outbox claim order.
+ */
+public enum TaskPriority {
+    HIGH, NORMAL, LOW
+}
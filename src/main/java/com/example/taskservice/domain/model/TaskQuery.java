@@ -0,0 +1,19 @@
+package com.example.taskservice.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters for listing tasks. The {@code [from, to)} creation window is always bounded, so
+ * Postgres only visits the partitions it overlaps. {@code status}, {@code type} and
+ * {@code payloadContains} (a JSON document matched with {@code @>}) are optional.
+ */
+public record TaskQuery(LocalDateTime from,
+                        LocalDateTime to,
+                        TaskStatus status,
+                        String type,
+                        String payloadContains) {
+
+    public TaskQuery withWindow(LocalDateTime from, LocalDateTime to) {
+        return new TaskQuery(from, to, status, type, payloadContains);
+    }
+}
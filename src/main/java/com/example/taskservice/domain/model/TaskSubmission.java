@@ -0,0 +1,27 @@
+package com.example.taskservice.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A task as submitted by a client, before it has an id. {@code runAt} is null for tasks
+ * that should run right away.
+ */
+public record TaskSubmission(String type, TaskPriority priority, String payload, LocalDateTime runAt) {
+
+    public static final String DEFAULT_TYPE = "DEFAULT";
+
+    public static TaskSubmission of(String type, TaskPriority priority, String payload) {
+        return of(type, priority, payload, null);
+    }
+
+    public static TaskSubmission of(String type, TaskPriority priority, String payload, LocalDateTime runAt) {
+        return new TaskSubmission(type != null ? type : DEFAULT_TYPE,
+                priority != null ? priority : TaskPriority.NORMAL,
+                payload,
+                runAt);
+    }
+
+    public boolean isScheduledAfter(LocalDateTime now) {
+        return runAt != null && runAt.isAfter(now);
+    }
+}
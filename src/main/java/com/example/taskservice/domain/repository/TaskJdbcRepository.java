@@ -0,0 +1,51 @@
+package com.example.taskservice.domain.repository;
+
+import com.example.taskservice.domain.model.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Plain JDBC inserts for new tasks. Ids and created_at are assigned up front (see
+ * {@link com.example.taskservice.domain.model.TaskIds}), so {@code save()} would merge and
+ * SELECT before inserting. Batches are rewritten into multi-row INSERTs by the driver's
+ * reWriteBatchedInserts option, which cuts bulk submissions to a handful of round trips.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tasks (id, status, task_type, priority, payload, payload_ref, retry_count, run_at, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?::jsonb, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.tasks.batch.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    /**
+     * Inserts {@code tasks}, writing {@code indexedPayloads} instead of the payload of the
+     * claim-checked ones (see {@link com.example.taskservice.infrastructure.payload.TaskPayloadStore}).
+     */
+    public void insertAll(List<Task> tasks, Map<UUID, String> indexedPayloads) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, tasks, jdbcBatchSize, (ps, task) -> {
+            ps.setObject(1, task.getId());
+            ps.setString(2, task.getStatus().name());
+            ps.setString(3, task.getTaskType());
+            ps.setString(4, task.getPriority().name());
+            ps.setString(5, indexedPayloads.getOrDefault(task.getId(), task.getPayload()));
+            ps.setBytes(6, task.getPayloadRef());
+            ps.setInt(7, task.getRetryCount());
+            ps.setTimestamp(8, task.getRunAt() != null ? Timestamp.valueOf(task.getRunAt()) : null);
+            ps.setTimestamp(9, Timestamp.valueOf(task.getCreatedAt()));
+            ps.setTimestamp(10, Timestamp.valueOf(task.getUpdatedAt()));
+        });
+    }
+}
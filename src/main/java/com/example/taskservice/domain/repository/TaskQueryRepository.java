@@ -0,0 +1,131 @@
+package com.example.taskservice.domain.repository;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskCursor;
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.domain.model.TaskQuery;
+import com.example.taskservice.domain.model.TaskStatus;
+import com.example.taskservice.infrastructure.payload.CompressedPayload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Listing queries over the partitioned {@code tasks} table, newest first, in keyset order on
+ * {@code (created_at, id)}. The creation window is always bound as a range, so the planner
+ * prunes partitions outside it at execution time, and the row comparison after a cursor is
+ * answered from the {@code (created_at, id)} indexes without reading skipped rows.
+ * <p>
+ * Rows are fetched from the server in chunks of {@code fetch-size} and handed to the caller
+ * one at a time, so a scan never holds the whole result. Postgres only uses a cursor inside a
+ * transaction; callers run these in a read-only one, which also routes them to a replica.
+ */
+@Repository
+public class TaskQueryRepository {
+
+    // Claim-checked payloads are joined in from the payload store by primary key
+    private static final String COLUMNS =
+            "t.id, t.status, t.task_type, t.priority, t.payload, t.retry_count, t.run_at, t.created_at, t.updated_at, " +
+            "p.size AS stored_size, p.data AS stored_data";
+
+    private static final RowMapper<Task> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp runAt = rs.getTimestamp("run_at");
+        return Task.builder()
+                .id(rs.getObject("id", UUID.class))
+                .status(TaskStatus.valueOf(rs.getString("status")))
+                .taskType(rs.getString("task_type"))
+                .priority(TaskPriority.valueOf(rs.getString("priority")))
+                .payload(payload(rs))
+                .retryCount(rs.getInt("retry_count"))
+                .runAt(runAt != null ? runAt.toLocalDateTime() : null)
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                .build();
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskQueryRepository(DataSource dataSource, @Value("${app.tasks.listing.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Passes up to {@code limit} matching tasks after {@code cursor} (null for the first
+     * page) to {@code sink}, newest first. A limit of 0 or less means no limit.
+     */
+    public void scan(TaskQuery query, TaskCursor cursor, int limit, Consumer<Task> sink) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = select(query, args);
+        if (cursor != null) {
+            sql.append(" AND (t.created_at, t.id) < (?, ?)");
+            args.add(Timestamp.valueOf(cursor.createdAt()));
+            args.add(cursor.id());
+        }
+        sql.append(" ORDER BY t.created_at DESC, t.id DESC");
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+            args.add(limit);
+        }
+        query(sql, args, sink);
+    }
+
+    /**
+     * Passes every matching task to {@code sink} in no particular order. Without a sort the
+     * planner is free to read a large window sequentially instead of walking an index.
+     */
+    public void scanUnordered(TaskQuery query, Consumer<Task> sink) {
+        List<Object> args = new ArrayList<>();
+        query(select(query, args), args, sink);
+    }
+
+    public List<Task> findPage(TaskQuery query, TaskCursor cursor, int limit) {
+        List<Task> tasks = new ArrayList<>(limit);
+        scan(query, cursor, limit, tasks::add);
+        return tasks;
+    }
+
+    private static StringBuilder select(TaskQuery query, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS)
+                .append(" FROM tasks t LEFT JOIN task_payloads p ON p.hash = t.payload_ref")
+                .append(" WHERE t.created_at >= ? AND t.created_at < ?");
+        args.add(Timestamp.valueOf(query.from()));
+        args.add(Timestamp.valueOf(query.to()));
+
+        if (query.status() != null) {
+            sql.append(" AND t.status = ?");
+            args.add(query.status().name());
+        }
+        if (query.type() != null) {
+            sql.append(" AND t.task_type = ?");
+            args.add(query.type());
+        }
+        if (query.payloadContains() != null) {
+            // Served by the GIN index on payload; claim-checked tasks only match on their indexed paths
+            sql.append(" AND t.payload @> ?::jsonb");
+            args.add(query.payloadContains());
+        }
+        return sql;
+    }
+
+    private static String payload(ResultSet rs) throws SQLException {
+        byte[] stored = rs.getBytes("stored_data");
+        return stored != null ? CompressedPayload.inflate(stored, rs.getInt("stored_size")) : rs.getString("payload");
+    }
+
+    private void query(StringBuilder sql, List<Object> args, Consumer<Task> sink) {
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> sink.accept(ROW_MAPPER.mapRow(rs, rs.getRow())),
+                args.toArray());
+    }
+}
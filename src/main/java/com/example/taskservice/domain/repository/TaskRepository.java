@@ -1,13 +1,30 @@
 package com.example.taskservice.domain.repository;
 
 import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskIds;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Task.TaskId> {
     Optional<Task> findById(UUID id);
+
+    Optional<Task> findByIdAndCreatedAtBetween(UUID id, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Looks a task up by id alone while still letting Postgres prune partitions: the
+     * created_at range is derived from the time-ordered id. Legacy random ids carry no
+     * timestamp and fall back to {@link #findById(UUID)}, which probes every partition.
+     */
+    default Optional<Task> findByIdPruned(UUID id) {
+        return TaskIds.createdAtOf(id)
+                .map(createdAt -> findByIdAndCreatedAtBetween(id,
+                        createdAt.minus(TaskIds.CREATED_AT_SLACK),
+                        createdAt.plus(TaskIds.CREATED_AT_SLACK)))
+                .orElseGet(() -> findById(id));
+    }
 }
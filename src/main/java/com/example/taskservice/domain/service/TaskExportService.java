@@ -0,0 +1,255 @@
+package com.example.taskservice.domain.service;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskQuery;
+import com.example.taskservice.domain.repository.TaskQueryRepository;
+import com.example.taskservice.infrastructure.export.ExportFormat;
+import com.example.taskservice.infrastructure.partition.PartitionCatalog;
+import com.example.taskservice.infrastructure.partition.TaskPartition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams every task matching a query into an output stream in constant memory. The window
+ * is cut into slices at partition boundaries (and at most {@code max-slice} long); readers
+ * take slices newest first, each in its own read-only transaction on a replica, and fetch
+ * rows through a server-side cursor {@code fetch-size} at a time. Rows are encoded into
+ * chunks that pass through a small bounded queue to the response, so a slow client slows
+ * the readers down instead of letting rows pile up on the heap.
+ * <p>
+ * Short slices also keep each replica transaction short, which matters for exports that
+ * would otherwise hold a snapshot long enough to be cancelled by WAL replay.
+ * <p>
+ * When the client goes away the next write fails; the export is then cancelled and every
+ * reader aborts its query at the next row. Rows come in no particular order.
+ */
+@Slf4j
+@Service
+public class TaskExportService {
+
+    private static final byte[] END = new byte[0];
+    private static final long POLL_MS = 100;
+
+    private final TaskQueryRepository taskQueryRepository;
+    private final PartitionCatalog partitionCatalog;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService readers;
+    private final MeterRegistry meterRegistry;
+
+    // Readers per export; a window covering fewer slices uses fewer
+    @Value("${app.tasks.export.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.tasks.export.max-slice:1d}")
+    private Duration maxSlice;
+
+    // Characters encoded before a chunk is handed to the response
+    @Value("${app.tasks.export.chunk-size:65536}")
+    private int chunkSize;
+
+    // Chunks that may wait for the client; bounds memory per export with chunk-size
+    @Value("${app.tasks.export.buffer-chunks:16}")
+    private int bufferChunks;
+
+    public TaskExportService(TaskQueryRepository taskQueryRepository,
+                             PartitionCatalog partitionCatalog,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.tasks.export.reader-threads:8}") int readerThreads) {
+        this.taskQueryRepository = taskQueryRepository;
+        this.partitionCatalog = partitionCatalog;
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Shared by all exports: caps the replica connections they hold at once
+        this.readers = Executors.newFixedThreadPool(readerThreads, Thread.ofPlatform().name("task-export-", 0).factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readers.shutdownNow();
+    }
+
+    /**
+     * Writes the header and every matching task to {@code out} and returns the number of
+     * tasks written. Throws the write's {@link IOException} if the client disconnects.
+     */
+    public long export(TaskQuery query, ExportFormat format, OutputStream out) throws IOException {
+        Queue<TaskQuery> slices = new ConcurrentLinkedQueue<>(slices(query));
+        int readerCount = Math.max(1, Math.min(parallelism, slices.size()));
+        Export export = new Export(format, bufferChunks);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+
+        try {
+            StringWriter header = new StringWriter();
+            format.writeHeader(header);
+            out.write(header.toString().getBytes(StandardCharsets.UTF_8));
+
+            for (int i = 0; i < readerCount; i++) {
+                readers.execute(() -> read(export, slices));
+            }
+            int finished = 0;
+            while (finished < readerCount) {
+                byte[] chunk = export.chunks.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (export.failure != null) {
+                    throw new IllegalStateException("Task export failed", export.failure);
+                }
+                if (chunk == END) {
+                    finished++;
+                } else if (chunk != null) {
+                    out.write(chunk);
+                }
+            }
+            out.flush();
+            outcome = "completed";
+            return export.rows.get();
+        } catch (IOException e) {
+            outcome = "cancelled";
+            log.info("Task export cancelled after {} rows: {}", export.rows.get(), e.getMessage());
+            throw e;
+        } catch (InterruptedException e) {
+            outcome = "cancelled";
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Task export interrupted");
+        } finally {
+            export.cancelled = true;
+            sample.stop(meterRegistry.timer("tasks.export", "format", format.name().toLowerCase(), "outcome", outcome));
+            Counter.builder("tasks.export.rows")
+                    .tag("format", format.name().toLowerCase())
+                    .register(meterRegistry)
+                    .increment(export.rows.get());
+        }
+    }
+
+    /**
+     * The query window cut at partition bounds and at {@code max-slice}, newest first. Gaps
+     * not covered by a bounded partition (rows in the default partition) are slices too.
+     */
+    List<TaskQuery> slices(TaskQuery query) {
+        NavigableSet<LocalDateTime> bounds = new TreeSet<>();
+        bounds.add(query.from());
+        bounds.add(query.to());
+        for (TaskPartition partition : partitionCatalog.findAll()) {
+            if (partition.overlaps(query.from(), query.to())) {
+                bounds.add(partition.getFrom());
+                bounds.add(partition.getTo());
+            }
+        }
+        NavigableSet<LocalDateTime> inWindow = bounds.subSet(query.from(), true, query.to(), true);
+
+        List<TaskQuery> slices = new ArrayList<>();
+        LocalDateTime end = query.to();
+        for (LocalDateTime start : inWindow.descendingSet().tailSet(query.to(), false)) {
+            for (LocalDateTime sliceEnd = end; sliceEnd.isAfter(start); ) {
+                LocalDateTime sliceStart = sliceEnd.minus(maxSlice).isAfter(start) ? sliceEnd.minus(maxSlice) : start;
+                slices.add(query.withWindow(sliceStart, sliceEnd));
+                sliceEnd = sliceStart;
+            }
+            end = start;
+        }
+        return slices;
+    }
+
+    private void read(Export export, Queue<TaskQuery> slices) {
+        StringWriter chunk = new StringWriter(chunkSize + 4096);
+        try {
+            TaskQuery slice;
+            while (!export.cancelled && (slice = slices.poll()) != null) {
+                TaskQuery window = slice;
+                readOnlyTransaction.executeWithoutResult(status -> taskQueryRepository.scanUnordered(window, task -> {
+                    write(export, chunk, task);
+                }));
+            }
+            if (chunk.getBuffer().length() > 0) {
+                export.put(chunk.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (CancellationException e) {
+            // The response is gone; the aborted query already released its cursor
+        } catch (RuntimeException e) {
+            log.error("Task export reader failed", e);
+            export.failure = e;
+        } finally {
+            export.finish();
+        }
+    }
+
+    private void write(Export export, StringWriter chunk, Task task) {
+        if (export.cancelled) {
+            throw new CancellationException();
+        }
+        try {
+            export.format.writeRow(task, chunk);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        export.rows.incrementAndGet();
+        if (chunk.getBuffer().length() >= chunkSize) {
+            export.put(chunk.toString().getBytes(StandardCharsets.UTF_8));
+            chunk.getBuffer().setLength(0);
+        }
+    }
+
+    private static final class Export {
+        final ExportFormat format;
+        final BlockingQueue<byte[]> chunks;
+        final AtomicLong rows = new AtomicLong();
+        volatile boolean cancelled;
+        volatile RuntimeException failure;
+
+        Export(ExportFormat format, int capacity) {
+            this.format = format;
+            this.chunks = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void put(byte[] chunk) {
+            try {
+                while (!chunks.offer(chunk, POLL_MS, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) {
+                        throw new CancellationException();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            }
+        }
+
+        void finish() {
+            try {
+                put(END);
+            } catch (CancellationException e) {
+                // Nobody is waiting for it
+            }
+        }
+    }
+}
@@ -1,16 +1,42 @@
 package com.example.taskservice.domain.service;
 
 import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskCreation;
+import com.example.taskservice.domain.model.TaskCursor;
+import com.example.taskservice.domain.model.TaskIds;
+import com.example.taskservice.domain.model.TaskPage;
+import com.example.taskservice.domain.model.TaskQuery;
 import com.example.taskservice.domain.model.TaskStatus;
+import com.example.taskservice.domain.model.TaskSubmission;
+import com.example.taskservice.domain.repository.TaskJdbcRepository;
+import com.example.taskservice.domain.repository.TaskQueryRepository;
 import com.example.taskservice.domain.repository.TaskRepository;
-import com.example.taskservice.infrastructure.messaging.TaskEvent;
-import com.example.taskservice.infrastructure.messaging.TaskProducer;
+import com.example.taskservice.infrastructure.archive.TaskArchive;
+import com.example.taskservice.infrastructure.cache.TaskCache;
+import com.example.taskservice.infrastructure.idempotency.IdempotencyKeys;
+import com.example.taskservice.infrastructure.metrics.TaskMetrics;
+import com.example.taskservice.infrastructure.outbox.OutboxEvent;
+import com.example.taskservice.infrastructure.outbox.OutboxRepository;
+import com.example.taskservice.infrastructure.payload.TaskPayloadStore;
+import com.example.taskservice.infrastructure.schedule.ScheduledTask;
+import com.example.taskservice.infrastructure.schedule.ScheduledTaskRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -18,29 +44,183 @@ import java.util.UUID;
 public class TaskService {
 
     private final TaskRepository taskRepository;
-    private final TaskProducer taskProducer;
+    private final TaskJdbcRepository taskJdbcRepository;
+    private final TaskQueryRepository taskQueryRepository;
+    private final OutboxRepository outboxRepository;
+    private final ScheduledTaskRepository scheduledTaskRepository;
+    private final TaskPayloadStore taskPayloadStore;
+    private final IdempotencyKeys idempotencyKeys;
+    private final TaskCache taskCache;
+    private final TaskArchive taskArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskMetrics taskMetrics;
+
+    @Value("${app.tasks.batch.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
 
     @Transactional
-    public Task createTask(String payload) {
-        log.info("Creating new task");
-        Task task = Task.builder()
-                .status(TaskStatus.PENDING)
-                .payload(payload)
-                .retryCount(0)
-                .build();
+    public Task createTask(TaskSubmission submission) {
+        log.info("Creating new {} task of type {}", submission.priority(), submission.type());
+        Task task = newTask(submission);
+
+        insert(List.of(task));
+        log.info("Task created with ID: {}", task.getId());
 
-        Task savedTask = taskRepository.save(task);
-        log.info("Task created with ID: {}", savedTask.getId());
+        enqueue(List.of(task));
+        return task;
+    }
 
-        // Publish to Kafka (Outbox pattern is better for strict consistency, but for this exercise we call it here)
-        taskProducer.sendTaskEvent(new TaskEvent(savedTask.getId(), "DEFAULT", payload));
+    /**
+     * Creates the task once per {@code idempotencyKey}: a repeat of the request within the
+     * window returns the task the first one created, and a request with another
+     * {@code requestHash} under the same key is rejected. The key is claimed in this transaction, so concurrent repeats
+     * wait for the first to commit and then replay it.
+     */
+    @Transactional
+    public TaskCreation createTask(TaskSubmission submission, String idempotencyKey, byte[] requestHash) {
+        Optional<UUID> original = idempotencyKeys.findOriginal(idempotencyKey, requestHash);
+        if (original.isEmpty()) {
+            log.info("Creating new {} task of type {}", submission.priority(), submission.type());
+            Task task = newTask(submission);
+            original = idempotencyKeys.claim(idempotencyKey, requestHash, task);
+            if (original.isEmpty()) {
+                insert(List.of(task));
+                log.info("Task created with ID: {}", task.getId());
 
-        return savedTask;
+                enqueue(List.of(task));
+                return new TaskCreation(task, false);
+            }
+        }
+        log.info("Replaying task {} for a repeated Idempotency-Key", original.get());
+        return new TaskCreation(getFreshTask(original.get()), true);
     }
 
-    @Transactional(readOnly = true)
+    @Transactional
+    public List<Task> createTasks(List<TaskSubmission> submissions) {
+        log.info("Creating {} tasks in batch", submissions.size());
+        List<Task> tasks = submissions.stream()
+                .map(this::newTask)
+                .toList();
+
+        insert(tasks);
+        enqueue(tasks);
+        return tasks;
+    }
+
+    /**
+     * Not transactional on purpose: a cache hit must not check out a connection. On a miss
+     * the repository runs its own read-only transaction, which may go to a replica; a task
+     * the replica does not have yet is looked up again on the primary before giving up.
+     * Tasks of archived partitions are read from the archive file covering their id, which
+     * is known without I/O and checked first; the archive is checked again if the database
+     * has nothing, in case the partition was archived since.
+     */
     public Task getTask(UUID id) {
-        return taskRepository.findById(id)
+        return taskCache.get(id).orElseGet(() -> {
+            Task task = taskArchive.find(id)
+                    .or(() -> taskRepository.findByIdPruned(id))
+                    .or(() -> findOnPrimary(id))
+                    .or(() -> taskArchive.findRefreshed(id))
+                    .orElseThrow(() -> new RuntimeException("Task not found with ID: " + id));
+            taskCache.put(taskPayloadStore.resolve(task));
+            return task;
+        });
+    }
+
+    /**
+     * Reads the task from the primary, bypassing the cache and replica lag. For callers that
+     * were just told the status changed and must not answer with the old one. Archived
+     * tasks cannot change any more and are read from the archive.
+     */
+    public Task getFreshTask(UUID id) {
+        Task task = findOnPrimary(id)
+                .or(() -> taskArchive.findRefreshed(id))
                 .orElseThrow(() -> new RuntimeException("Task not found with ID: " + id));
+        taskCache.put(taskPayloadStore.resolve(task));
+        return task;
+    }
+
+    /**
+     * One page of the tasks matching {@code query}, newest first, starting after
+     * {@code cursor}. Read-only, so it is served by a replica within the lag bound.
+     */
+    @Transactional(readOnly = true)
+    public TaskPage listTasks(TaskQuery query, TaskCursor cursor, int limit) {
+        // One row past the page tells whether there is a next one, without a count
+        List<Task> tasks = taskQueryRepository.findPage(query, cursor, limit + 1);
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, null);
+        }
+        List<Task> page = tasks.subList(0, limit);
+        return new TaskPage(page, TaskCursor.after(page.get(limit - 1)));
+    }
+
+    private Optional<Task> findOnPrimary(UUID id) {
+        // A read-write transaction is always routed to the primary
+        return transactionTemplate.execute(status -> taskRepository.findByIdPruned(id));
+    }
+
+    // Large payloads go to the payload store first; the rows then only reference them
+    private void insert(List<Task> tasks) {
+        taskJdbcRepository.insertAll(tasks, taskPayloadStore.offload(tasks));
+    }
+
+    /**
+     * Recorded in the same transaction as the tasks: due tasks get an outbox event, which
+     * OutboxRelay publishes to Kafka after commit; delayed ones wait in scheduled_tasks until
+     * ScheduledTaskDispatcher moves them to the outbox.
+     */
+    private void enqueue(List<Task> tasks) {
+        String correlationId = MDC.get("correlationId");
+        Map<Boolean, List<Task>> byScheduled = tasks.stream()
+                .collect(Collectors.partitioningBy(task -> task.getStatus() == TaskStatus.SCHEDULED));
+
+        List<Task> due = byScheduled.get(false);
+        if (!due.isEmpty()) {
+            outboxRepository.saveAll(due.stream()
+                    .map(task -> OutboxEvent.of(task.getId(), task.getTaskType(), task.getPriority(), task.eventPayload(), correlationId))
+                    .toList(), jdbcBatchSize);
+        }
+        List<Task> scheduled = byScheduled.get(true);
+        if (!scheduled.isEmpty()) {
+            scheduledTaskRepository.saveAll(scheduled.stream()
+                    .map(task -> ScheduledTask.of(task, correlationId))
+                    .toList(), jdbcBatchSize);
+        }
+        recordCommitLatency(tasks);
+    }
+
+    // Submission to commit; a task's created_at is its submission time
+    private void recordCommitLatency(List<Task> tasks) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                LocalDateTime now = LocalDateTime.now();
+                for (Task task : tasks) {
+                    taskMetrics.recordStage(TaskMetrics.STAGE_COMMIT, task.getTaskType(), task.getPriority(),
+                            Duration.between(task.getCreatedAt(), now).toMillis());
+                }
+            }
+        });
+    }
+
+    private Task newTask(TaskSubmission submission) {
+        // created_at comes from the id itself so a lookup by id can always find its partition
+        UUID id = TaskIds.newId();
+        LocalDateTime createdAt = TaskIds.createdAtOf(id).orElseThrow();
+        return Task.builder()
+                .id(id)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .status(submission.isScheduledAfter(createdAt) ? TaskStatus.SCHEDULED : TaskStatus.PENDING)
+                .runAt(submission.runAt())
+                .taskType(submission.type())
+                .priority(submission.priority())
+                .payload(submission.payload())
+                .retryCount(0)
+                .build();
     }
 }
@@ -0,0 +1,161 @@
+package com.example.taskservice.domain.service;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskStatus;
+import com.example.taskservice.infrastructure.notification.TaskStatusChange;
+import com.example.taskservice.infrastructure.notification.TaskStatusNotifications;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets clients wait for status changes instead of polling. Both the long poll and the SSE
+ * stream park the request asynchronously and subscribe to {@link TaskStatusNotifications},
+ * so no thread is held while waiting. Subscriptions are registered before the current status
+ * is read, so a change landing in between is not missed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskStatusWaitService {
+
+    private final TaskService taskService;
+    private final TaskStatusNotifications notifications;
+
+    @Value("${app.tasks.wait.max-timeout:60s}")
+    private Duration maxTimeout;
+
+    @Value("${app.tasks.wait.max-listeners:50000}")
+    private int maxListeners;
+
+    @Value("${app.tasks.events.timeout:5m}")
+    private Duration streamTimeout;
+
+    @Value("${app.tasks.events.max-ids:1000}")
+    private int maxStreamIds;
+
+    /**
+     * Completes with the task as soon as it reaches {@code waitFor} or a terminal status, or
+     * with its current state once {@code timeout} runs out. Beyond the listener limit this
+     * degrades to a plain lookup.
+     */
+    public DeferredResult<Task> awaitStatus(UUID id, TaskStatus waitFor, Duration timeout) {
+        // A DeferredResult without a positive timeout would wait forever
+        if (timeout.isZero() || timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+        Duration effective = timeout.compareTo(maxTimeout) > 0 ? maxTimeout : timeout;
+        DeferredResult<Task> result = new DeferredResult<>(effective.toMillis());
+
+        if (notifications.listenerCount() >= maxListeners) {
+            result.setResult(taskService.getTask(id));
+            return result;
+        }
+
+        TaskStatusNotifications.Subscription subscription = notifications.subscribe(id, change -> {
+            if (change.status() == waitFor || change.isTerminal()) {
+                complete(result, id);
+            }
+        });
+        result.onCompletion(subscription::close);
+        result.onTimeout(() -> complete(result, id));
+
+        Task current;
+        try {
+            current = taskService.getTask(id);
+        } catch (RuntimeException e) {
+            subscription.close();
+            throw e;
+        }
+        if (current.getStatus() == waitFor || isTerminal(current.getStatus())) {
+            result.setResult(current);
+        }
+        return result;
+    }
+
+    /**
+     * Streams a {@code status} event with the current status of each task, then one per
+     * change, and completes once every task has reached a terminal status. Unknown ids are
+     * reported once with a {@code not-found} event.
+     */
+    public SseEmitter streamStatus(Collection<UUID> ids) {
+        Set<UUID> watched = new LinkedHashSet<>(ids);
+        if (watched.isEmpty() || watched.size() > maxStreamIds) {
+            throw new IllegalArgumentException("Between 1 and " + maxStreamIds + " task ids are required");
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Set<UUID> open = ConcurrentHashMap.newKeySet();
+        open.addAll(watched);
+
+        List<TaskStatusNotifications.Subscription> subscriptions = new ArrayList<>(watched.size());
+        for (UUID id : watched) {
+            subscriptions.add(notifications.subscribe(id, change -> send(emitter, open, change)));
+        }
+        Runnable unsubscribe = () -> subscriptions.forEach(TaskStatusNotifications.Subscription::close);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe.run());
+
+        for (UUID id : watched) {
+            try {
+                // From the primary: a replica may still show a status whose change was
+                // published before the subscription, and the stream would wait for nothing
+                Task task = taskService.getFreshTask(id);
+                send(emitter, open, new TaskStatusChange(id, task.getStatus()));
+            } catch (RuntimeException e) {
+                open.remove(id);
+                sendEvent(emitter, "not-found", id);
+            }
+        }
+        if (open.isEmpty()) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private void complete(DeferredResult<Task> result, UUID id) {
+        if (result.hasResult()) {
+            return;
+        }
+        try {
+            result.setResult(taskService.getFreshTask(id));
+        } catch (RuntimeException e) {
+            result.setErrorResult(e);
+        }
+    }
+
+    private void send(SseEmitter emitter, Set<UUID> open, TaskStatusChange change) {
+        sendEvent(emitter, "status", change);
+        if (change.isTerminal() && open.remove(change.taskId()) && open.isEmpty()) {
+            emitter.complete();
+        }
+    }
+
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the stream already completed; onError/onCompletion clean up
+            log.debug("Dropping status event for a closed stream: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isTerminal(TaskStatus status) {
+        return status == TaskStatus.SUCCESS || status == TaskStatus.FAILED;
+    }
+}
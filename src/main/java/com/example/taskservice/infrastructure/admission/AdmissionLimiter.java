@@ -0,0 +1,143 @@
+package com.example.taskservice.infrastructure.admission;
+
+import com.example.taskservice.infrastructure.messaging.TaskProducer;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps concurrent task submissions on this instance with an AIMD limit, so an overloaded
+ * downstream sheds requests early with a 503 instead of letting every request queue until
+ * it times out. A completed submission grows the limit by {@code 1/limit}, about one slot per
+ * limit's worth of completions, but only while the limit is actually in use. Congestion cuts
+ * it by {@code backoff-ratio}, at most once per {@code decrease-interval} so that a single
+ * slow moment is not punished once per request. Congestion means a submission failed or ran
+ * past {@code latency-threshold}, or one of the sampled signals is over its threshold: the
+ * producer buffer, broker send latency, or time spent waiting for a primary connection.
+ */
+@Slf4j
+@Component
+public class AdmissionLimiter {
+
+    private final AdmissionProperties properties;
+    private final TaskProducer taskProducer;
+    private final DataSource primaryDataSource;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter shedCounter;
+    private final Counter decreaseCounter;
+
+    private volatile double limit;
+    private volatile boolean congested;
+    private long lastDecreaseNanos;
+    private long lastAcquireCount;
+    private double lastAcquireNanos;
+
+    public AdmissionLimiter(AdmissionProperties properties,
+                            TaskProducer taskProducer,
+                            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.taskProducer = taskProducer;
+        this.primaryDataSource = primaryDataSource;
+        this.meterRegistry = meterRegistry;
+        this.limit = properties.getInitialLimit();
+        this.shedCounter = meterRegistry.counter("admission.shed");
+        this.decreaseCounter = meterRegistry.counter("admission.limit.decreases");
+
+        Gauge.builder("admission.limit", this, limiter -> limiter.limit)
+                .description("Concurrent submissions currently admitted on this instance")
+                .register(meterRegistry);
+        Gauge.builder("admission.in_flight", inFlight, AtomicInteger::get)
+                .description("Submissions being handled right now")
+                .register(meterRegistry);
+        Gauge.builder("admission.congested", this, limiter -> limiter.congested ? 1 : 0)
+                .description("1 while a downstream signal is over its threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns false when the submission should be shed. Every true must be followed by
+     * exactly one {@link #release}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                shedCounter.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        boolean drop = failed || congested || latencyNanos > properties.getLatencyThreshold().toNanos();
+
+        synchronized (this) {
+            if (drop) {
+                long now = System.nanoTime();
+                if (now - lastDecreaseNanos >= properties.getDecreaseInterval().toNanos()) {
+                    lastDecreaseNanos = now;
+                    limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+                    decreaseCounter.increment();
+                    log.debug("Admission limit decreased to {}", (int) limit);
+                }
+            } else if (current * 2 >= limit) {
+                // An application-limited instance learns nothing about capacity from a success
+                limit = Math.min(properties.getMaxLimit(), limit + 1 / limit);
+            }
+        }
+    }
+
+    public long retryAfterSeconds() {
+        return properties.getRetryAfterSeconds();
+    }
+
+    @Scheduled(fixedDelayString = "${app.admission.signals.refresh-ms:500}")
+    public void sampleSignals() {
+        AdmissionProperties.Signals signals = properties.getSignals();
+        try {
+            boolean overloaded = taskProducer.bufferUsage() > signals.getProducerBuffer()
+                    || taskProducer.sendLatencyMs() > signals.getSendLatency().toMillis()
+                    || poolWaitNanos() > signals.getPoolWait().toNanos();
+            if (overloaded != congested) {
+                log.info("Submission path {}", overloaded ? "congested, shedding load" : "no longer congested");
+            }
+            congested = overloaded;
+        } catch (Exception e) {
+            log.warn("Could not sample admission signals: {}", e.getMessage());
+        }
+    }
+
+    // Mean connection wait on the primary pool since the previous sample
+    private double poolWaitNanos() {
+        if (!(primaryDataSource instanceof HikariDataSource hikari) || hikari.getPoolName() == null) {
+            return 0;
+        }
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", hikari.getPoolName()).timer();
+        if (acquire == null) {
+            return 0;
+        }
+        long count = acquire.count();
+        double total = acquire.totalTime(TimeUnit.NANOSECONDS);
+        double mean = count > lastAcquireCount ? (total - lastAcquireNanos) / (count - lastAcquireCount) : 0;
+        lastAcquireCount = count;
+        lastAcquireNanos = total;
+        return mean;
+    }
+}
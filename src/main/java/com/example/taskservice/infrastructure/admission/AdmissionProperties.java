@@ -0,0 +1,43 @@
+package com.example.taskservice.infrastructure.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    // POST paths that count as submissions
+    private List<String> paths = new ArrayList<>(List.of("/api/tasks", "/api/tasks:batch"));
+
+    // Concurrent submissions allowed on this instance
+    private int initialLimit = 100;
+    private int minLimit = 5;
+    private int maxLimit = 1000;
+
+    // Multiplicative decrease on congestion, at most once per decrease-interval
+    private double backoffRatio = 0.9;
+    private Duration decreaseInterval = Duration.ofMillis(200);
+
+    // A submission slower than this counts as congestion by itself
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    private long retryAfterSeconds = 1;
+
+    private Signals signals = new Signals();
+
+    @Data
+    public static class Signals {
+        private long refreshMs = 500;
+        // Congested while any of these is exceeded
+        private double producerBuffer = 0.8;
+        private Duration sendLatency = Duration.ofMillis(200);
+        private Duration poolWait = Duration.ofMillis(50);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.taskservice.infrastructure.archive;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.domain.model.TaskStatus;
+import com.example.taskservice.infrastructure.partition.TaskPartition;
+import com.example.taskservice.infrastructure.payload.CompressedPayload;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Writes a closed {@code tasks} partition to one {@link TaskArchiveFile} so the partition can
+ * be dropped. Only partitions whose tasks have all finished are archived; a partition still
+ * holding an active task is left for a later run, by which time the reaper has settled it.
+ * <p>
+ * The file is written under a temporary name, synced and then renamed into place, so readers
+ * never see a partial one. If the partition outlives its file (the drop failed), the next run
+ * writes a second file with the same rows; lookups return whichever they read first.
+ */
+@Slf4j
+@Component
+public class PartitionArchiver {
+
+    private static final String ACTIVE_SQL =
+            "SELECT EXISTS (SELECT 1 FROM %s WHERE status NOT IN ('SUCCESS', 'FAILED'))";
+
+    // Claim-checked payloads are archived whole, so the payload store can let go of them
+    private static final String ROWS_SQL =
+            "SELECT t.id, t.created_at, t.status, t.task_type, t.priority, t.payload::text AS payload, " +
+            "t.retry_count, t.run_at, t.updated_at, p.size AS stored_size, p.data AS stored_data " +
+            "FROM %s t LEFT JOIN task_payloads p ON p.hash = t.payload_ref ORDER BY t.id";
+
+    private final TaskArchive taskArchive;
+    private final Counter archivedRows;
+
+    @Value("${app.archive.row-group-size:8192}")
+    private int rowGroupSize;
+
+    @Value("${app.archive.compression-level:6}")
+    private int compressionLevel;
+
+    @Value("${app.archive.fetch-size:1000}")
+    private int fetchSize;
+
+    public PartitionArchiver(TaskArchive taskArchive, MeterRegistry meterRegistry) {
+        this.taskArchive = taskArchive;
+        this.archivedRows = meterRegistry.counter("tasks.archived");
+    }
+
+    /**
+     * Archives {@code partition} over {@code connection}, which must be in auto-commit mode.
+     * Returns false if the partition still has active tasks and must be kept for now.
+     */
+    public boolean archive(Connection connection, TaskPartition partition) throws SQLException, IOException {
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        if (Boolean.TRUE.equals(jdbc.queryForObject(String.format(ACTIVE_SQL, partition.getName()), Boolean.class))) {
+            log.warn("Partition {} still has active tasks; not archiving it yet", partition.getName());
+            return false;
+        }
+
+        Path directory = Files.createDirectories(taskArchive.directory());
+        Path temporary = directory.resolve(partition.getName() + TaskArchiveFile.EXTENSION + ".tmp");
+        long rows;
+        try {
+            rows = write(connection, jdbc, partition, temporary);
+            if (rows > 0) {
+                Path target = targetFor(directory, partition.getName());
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+                log.info("Archived {} tasks of partition {} to {} ({} bytes)", rows, partition.getName(), target, Files.size(target));
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        archivedRows.increment(rows);
+        // Lookups must find the rows in the file before the partition goes away
+        taskArchive.refresh();
+        return true;
+    }
+
+    private long write(Connection connection, JdbcTemplate jdbc, TaskPartition partition, Path file)
+            throws SQLException, IOException {
+        // Postgres only streams rows through a cursor inside a transaction
+        connection.setAutoCommit(false);
+        jdbc.setFetchSize(fetchSize);
+        try (TaskArchiveFile.Writer writer = new TaskArchiveFile.Writer(file, partition.getFrom(), partition.getTo(),
+                rowGroupSize, compressionLevel)) {
+            jdbc.query(String.format(ROWS_SQL, partition.getName()), (RowCallbackHandler) rs -> {
+                Timestamp runAt = rs.getTimestamp("run_at");
+                byte[] stored = rs.getBytes("stored_data");
+                Task task = Task.builder()
+                        .id(rs.getObject("id", UUID.class))
+                        .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                        .status(TaskStatus.valueOf(rs.getString("status")))
+                        .taskType(rs.getString("task_type"))
+                        .priority(TaskPriority.valueOf(rs.getString("priority")))
+                        .payload(stored != null ? CompressedPayload.inflate(stored, rs.getInt("stored_size")) : rs.getString("payload"))
+                        .retryCount(rs.getInt("retry_count"))
+                        .runAt(runAt != null ? runAt.toLocalDateTime() : null)
+                        .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                        .build();
+                try {
+                    writer.add(task);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            connection.commit();
+            if (writer.rowCount() > 0) {
+                writer.finish();
+            }
+            return writer.rowCount();
+        } catch (UncheckedIOException e) {
+            connection.rollback();
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // A period whose partition was archived before can come back when stranded rows are moved
+    // out of tasks_default; its second file must not replace the first
+    private static Path targetFor(Path directory, String partitionName) {
+        Path target = directory.resolve(partitionName + TaskArchiveFile.EXTENSION);
+        for (int n = 2; Files.exists(target); n++) {
+            target = directory.resolve(partitionName + "." + n + TaskArchiveFile.EXTENSION);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.taskservice.infrastructure.archive;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskIds;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tasks of partitions the {@code PartitionArchiver} has moved to files under
+ * {@code app.archive.path}. The footers of all files are kept in memory, so deciding that an
+ * id is not archived costs no I/O; the time in a v7 id and the id range of each file narrow
+ * a lookup down to one file and one row group in it.
+ * <p>
+ * Files written by another instance are picked up on the next refresh, or right away by
+ * {@link #findRefreshed} when the directory has changed since.
+ */
+@Slf4j
+@Component
+public class TaskArchive {
+
+    private record ArchivedFile(Path path, FileTime modified, TaskArchiveFile.Footer footer) {
+    }
+
+    private final Path directory;
+    private final Timer hits;
+    private final Timer misses;
+    private volatile List<ArchivedFile> files = List.of();
+    private volatile FileTime directoryModified;
+
+    public TaskArchive(@Value("${app.archive.path:./task-archive}") Path directory,
+                       MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.hits = lookupTimer(meterRegistry, "hit");
+        this.misses = lookupTimer(meterRegistry, "miss");
+        Gauge.builder("tasks.archive.files", this, archive -> archive.files.size())
+                .description("Archive files known to this instance")
+                .register(meterRegistry);
+        refresh();
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    /**
+     * The archived task with {@code id}, if the files known to this instance hold it.
+     */
+    public Optional<Task> find(UUID id) {
+        Optional<LocalDateTime> createdAt = TaskIds.createdAtOf(id);
+        for (ArchivedFile file : files) {
+            if (!file.footer().mayContain(id) || createdAt.isPresent() && !covers(file.footer(), createdAt.get())) {
+                continue;
+            }
+            long started = System.nanoTime();
+            Optional<Task> task;
+            try {
+                task = TaskArchiveFile.find(file.path(), file.footer(), id);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read " + file.path(), e);
+            }
+            (task.isPresent() ? hits : misses).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (task.isPresent()) {
+                return task;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Like {@link #find}, after picking up files added since the last refresh. For callers
+     * that found nothing in the database, where the partition may have just been archived.
+     */
+    public Optional<Task> findRefreshed(UUID id) {
+        if (directoryChanged()) {
+            refresh();
+        }
+        return find(id);
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        FileTime modified = lastModified(directory);
+        if (modified == null) {
+            files = List.of();
+            directoryModified = null;
+            return;
+        }
+        Map<Path, ArchivedFile> known = new HashMap<>();
+        files.forEach(file -> known.put(file.path(), file));
+
+        List<Path> paths;
+        try (Stream<Path> listing = Files.list(directory)) {
+            paths = listing.filter(p -> p.getFileName().toString().endsWith(TaskArchiveFile.EXTENSION)).sorted().toList();
+        } catch (IOException e) {
+            log.error("Failed to list the task archive in {}", directory, e);
+            return;
+        }
+        List<ArchivedFile> current = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            ArchivedFile file = known.get(path);
+            try {
+                FileTime fileModified = Files.getLastModifiedTime(path);
+                if (file == null || !file.modified().equals(fileModified)) {
+                    file = new ArchivedFile(path, fileModified, TaskArchiveFile.readFooter(path));
+                }
+                current.add(file);
+            } catch (IOException e) {
+                // One unreadable file must not hide the others
+                log.error("Skipping unreadable archive file {}", path, e);
+            }
+        }
+        files = List.copyOf(current);
+        directoryModified = modified;
+    }
+
+    // Rows are partitioned on created_at, which may be a little off the time in the id
+    private static boolean covers(TaskArchiveFile.Footer footer, LocalDateTime createdAt) {
+        return !createdAt.isBefore(footer.partitionFrom().minus(TaskIds.CREATED_AT_SLACK))
+                && createdAt.isBefore(footer.partitionTo().plus(TaskIds.CREATED_AT_SLACK));
+    }
+
+    private boolean directoryChanged() {
+        FileTime modified = lastModified(directory);
+        return modified != null && !modified.equals(directoryModified);
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("tasks.archive.lookups")
+                .description("Reads of archive files for a task id")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
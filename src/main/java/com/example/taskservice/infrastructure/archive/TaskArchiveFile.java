@@ -0,0 +1,373 @@
+package com.example.taskservice.infrastructure.archive;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.domain.model.TaskStatus;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The cold-tier file format: one file per archived partition, rows sorted by id and cut into
+ * row groups. Each row group stores every column as its own deflated block, so a lookup
+ * inflates the id column of a single group and then reads one row from the other columns.
+ * <p>
+ * Layout: magic, the column blocks of every row group in order, the footer, the footer's
+ * length and the magic again. The footer holds the partition range, the created_at range of
+ * the file and the row count and id range of each row group; a reader only seeks to it.
+ * Ids are compared as unsigned bytes, which is the order Postgres sorts uuids in.
+ */
+final class TaskArchiveFile {
+
+    static final String EXTENSION = ".tca";
+
+    static final Comparator<UUID> ID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private static final int MAGIC = 0x54434131; // "TCA1"
+    private static final int TRAILER_BYTES = Integer.BYTES * 2;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    // A row group is also closed at this many payload characters, so one stays small enough
+    // to inflate for a single lookup however large the payloads are
+    private static final long MAX_GROUP_PAYLOAD_CHARS = 32L * 1024 * 1024;
+
+    private enum Column {
+        ID, CREATED_AT, STATUS, TASK_TYPE, PRIORITY, PAYLOAD, RETRY_COUNT, RUN_AT, UPDATED_AT
+    }
+
+    private TaskArchiveFile() {
+    }
+
+    record RowGroup(int rows, UUID minId, UUID maxId, long[] offsets, int[] lengths) {
+    }
+
+    record Footer(LocalDateTime partitionFrom, LocalDateTime partitionTo, long rowCount,
+                  LocalDateTime minCreatedAt, LocalDateTime maxCreatedAt, List<RowGroup> rowGroups) {
+
+        boolean mayContain(UUID id) {
+            return !rowGroups.isEmpty()
+                    && ID_ORDER.compare(id, rowGroups.get(0).minId()) >= 0
+                    && ID_ORDER.compare(id, rowGroups.get(rowGroups.size() - 1).maxId()) <= 0;
+        }
+
+        Optional<RowGroup> rowGroupOf(UUID id) {
+            int low = 0;
+            int high = rowGroups.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                RowGroup group = rowGroups.get(mid);
+                if (ID_ORDER.compare(id, group.minId()) < 0) {
+                    high = mid - 1;
+                } else if (ID_ORDER.compare(id, group.maxId()) > 0) {
+                    low = mid + 1;
+                } else {
+                    return Optional.of(group);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes one archive file. Rows must be added in id order; nothing is readable until
+     * {@link #finish()} has written the footer and synced the file.
+     */
+    static final class Writer implements Closeable {
+
+        private final FileOutputStream file;
+        private final OutputStream out;
+        private final LocalDateTime partitionFrom;
+        private final LocalDateTime partitionTo;
+        private final int rowGroupSize;
+        private final int compressionLevel;
+        private final List<Task> group = new ArrayList<>();
+        private final List<RowGroup> rowGroups = new ArrayList<>();
+        private long groupPayloadChars;
+        private long position;
+        private long rowCount;
+        private LocalDateTime minCreatedAt;
+        private LocalDateTime maxCreatedAt;
+        private UUID lastId;
+
+        Writer(Path path, LocalDateTime partitionFrom, LocalDateTime partitionTo,
+               int rowGroupSize, int compressionLevel) throws IOException {
+            this.file = new FileOutputStream(path.toFile());
+            this.out = new BufferedOutputStream(file, 65536);
+            this.partitionFrom = partitionFrom;
+            this.partitionTo = partitionTo;
+            this.rowGroupSize = rowGroupSize;
+            this.compressionLevel = compressionLevel;
+            writeInt(MAGIC);
+        }
+
+        void add(Task task) throws IOException {
+            if (lastId != null && ID_ORDER.compare(task.getId(), lastId) <= 0) {
+                throw new IllegalArgumentException("Task " + task.getId() + " is out of id order");
+            }
+            lastId = task.getId();
+            rowCount++;
+            if (minCreatedAt == null || task.getCreatedAt().isBefore(minCreatedAt)) {
+                minCreatedAt = task.getCreatedAt();
+            }
+            if (maxCreatedAt == null || task.getCreatedAt().isAfter(maxCreatedAt)) {
+                maxCreatedAt = task.getCreatedAt();
+            }
+            group.add(task);
+            groupPayloadChars += task.getPayload().length();
+            if (group.size() >= rowGroupSize || groupPayloadChars >= MAX_GROUP_PAYLOAD_CHARS) {
+                flushGroup();
+            }
+        }
+
+        long rowCount() {
+            return rowCount;
+        }
+
+        void finish() throws IOException {
+            if (rowCount == 0) {
+                throw new IllegalStateException("An archive file needs at least one row");
+            }
+            flushGroup();
+            ByteArrayOutputStream footer = new ByteArrayOutputStream();
+            try (DataOutputStream data = new DataOutputStream(footer)) {
+                data.writeLong(micros(partitionFrom));
+                data.writeLong(micros(partitionTo));
+                data.writeLong(rowCount);
+                data.writeLong(micros(minCreatedAt));
+                data.writeLong(micros(maxCreatedAt));
+                data.writeInt(Column.values().length);
+                data.writeInt(rowGroups.size());
+                for (RowGroup rowGroup : rowGroups) {
+                    data.writeInt(rowGroup.rows());
+                    writeId(data, rowGroup.minId());
+                    writeId(data, rowGroup.maxId());
+                    for (int c = 0; c < Column.values().length; c++) {
+                        data.writeLong(rowGroup.offsets()[c]);
+                        data.writeInt(rowGroup.lengths()[c]);
+                    }
+                }
+            }
+            out.write(footer.toByteArray());
+            writeInt(footer.size());
+            writeInt(MAGIC);
+            out.flush();
+            file.getChannel().force(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private void flushGroup() throws IOException {
+            if (group.isEmpty()) {
+                return;
+            }
+            long[] offsets = new long[Column.values().length];
+            int[] lengths = new int[Column.values().length];
+            for (Column column : Column.values()) {
+                byte[] block = encode(column);
+                offsets[column.ordinal()] = position;
+                lengths[column.ordinal()] = block.length;
+                out.write(block);
+                position += block.length;
+            }
+            rowGroups.add(new RowGroup(group.size(), group.get(0).getId(), group.get(group.size() - 1).getId(),
+                    offsets, lengths));
+            group.clear();
+            groupPayloadChars = 0;
+        }
+
+        private byte[] encode(Column column) throws IOException {
+            ByteArrayOutputStream block = new ByteArrayOutputStream();
+            Deflater deflater = new Deflater(compressionLevel);
+            try (DataOutputStream data = new DataOutputStream(new DeflaterOutputStream(block, deflater, 8192))) {
+                for (Task task : group) {
+                    switch (column) {
+                        case ID -> writeId(data, task.getId());
+                        case CREATED_AT -> data.writeLong(micros(task.getCreatedAt()));
+                        case STATUS -> writeString(data, task.getStatus().name());
+                        case TASK_TYPE -> writeString(data, task.getTaskType());
+                        case PRIORITY -> writeString(data, task.getPriority().name());
+                        case PAYLOAD -> writeString(data, task.getPayload());
+                        case RETRY_COUNT -> data.writeInt(task.getRetryCount());
+                        case RUN_AT -> data.writeLong(task.getRunAt() != null ? micros(task.getRunAt()) : NULL_TIME);
+                        case UPDATED_AT -> data.writeLong(micros(task.getUpdatedAt()));
+                    }
+                }
+            } finally {
+                deflater.end();
+            }
+            return block.toByteArray();
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.write(ByteBuffer.allocate(Integer.BYTES).putInt(value).array());
+            position += Integer.BYTES;
+        }
+    }
+
+    static Footer readFooter(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Integer.BYTES + TRAILER_BYTES) {
+                throw new IOException(path + " is not a task archive");
+            }
+            ByteBuffer trailer = read(channel, size - TRAILER_BYTES, TRAILER_BYTES);
+            int footerLength = trailer.getInt();
+            if (trailer.getInt() != MAGIC || footerLength < 0 || footerLength > size - Integer.BYTES - TRAILER_BYTES) {
+                throw new IOException(path + " is not a task archive");
+            }
+            ByteBuffer footer = read(channel, size - TRAILER_BYTES - footerLength, footerLength);
+            DataInputStream data = new DataInputStream(new ByteArrayInputStream(footer.array()));
+
+            LocalDateTime partitionFrom = time(data.readLong());
+            LocalDateTime partitionTo = time(data.readLong());
+            long rowCount = data.readLong();
+            LocalDateTime minCreatedAt = time(data.readLong());
+            LocalDateTime maxCreatedAt = time(data.readLong());
+            int columns = data.readInt();
+            if (columns != Column.values().length) {
+                throw new IOException(path + " has " + columns + " columns, expected " + Column.values().length);
+            }
+            int groups = data.readInt();
+            List<RowGroup> rowGroups = new ArrayList<>(groups);
+            for (int g = 0; g < groups; g++) {
+                int rows = data.readInt();
+                UUID minId = readId(data);
+                UUID maxId = readId(data);
+                long[] offsets = new long[columns];
+                int[] lengths = new int[columns];
+                for (int c = 0; c < columns; c++) {
+                    offsets[c] = data.readLong();
+                    lengths[c] = data.readInt();
+                }
+                rowGroups.add(new RowGroup(rows, minId, maxId, offsets, lengths));
+            }
+            return new Footer(partitionFrom, partitionTo, rowCount, minCreatedAt, maxCreatedAt, List.copyOf(rowGroups));
+        }
+    }
+
+    /**
+     * Reads the task with {@code id}, inflating only the row group its id falls in.
+     */
+    static Optional<Task> find(Path path, Footer footer, UUID id) throws IOException {
+        Optional<RowGroup> candidate = footer.rowGroupOf(id);
+        if (candidate.isEmpty()) {
+            return Optional.empty();
+        }
+        RowGroup group = candidate.get();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            DataInputStream ids = column(channel, group, Column.ID);
+            int row = -1;
+            for (int i = 0; i < group.rows(); i++) {
+                if (readId(ids).equals(id)) {
+                    row = i;
+                    break;
+                }
+            }
+            if (row < 0) {
+                return Optional.empty();
+            }
+
+            long runAt = readLong(column(channel, group, Column.RUN_AT), row);
+            return Optional.of(Task.builder()
+                    .id(id)
+                    .createdAt(time(readLong(column(channel, group, Column.CREATED_AT), row)))
+                    .status(TaskStatus.valueOf(readString(column(channel, group, Column.STATUS), row)))
+                    .taskType(readString(column(channel, group, Column.TASK_TYPE), row))
+                    .priority(TaskPriority.valueOf(readString(column(channel, group, Column.PRIORITY), row)))
+                    .payload(readString(column(channel, group, Column.PAYLOAD), row))
+                    .retryCount(readInt(column(channel, group, Column.RETRY_COUNT), row))
+                    .runAt(runAt != NULL_TIME ? time(runAt) : null)
+                    .updatedAt(time(readLong(column(channel, group, Column.UPDATED_AT), row)))
+                    .build());
+        }
+    }
+
+    private static DataInputStream column(FileChannel channel, RowGroup group, Column column) throws IOException {
+        ByteBuffer block = read(channel, group.offsets()[column.ordinal()], group.lengths()[column.ordinal()]);
+        return new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(block.array())));
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Task archive is truncated");
+            }
+        }
+        return buffer.flip();
+    }
+
+    // Values before the wanted row are skipped, not decoded
+
+    private static long readLong(DataInputStream data, int row) throws IOException {
+        data.skipNBytes((long) row * Long.BYTES);
+        return data.readLong();
+    }
+
+    private static int readInt(DataInputStream data, int row) throws IOException {
+        data.skipNBytes((long) row * Integer.BYTES);
+        return data.readInt();
+    }
+
+    private static String readString(DataInputStream data, int row) throws IOException {
+        for (int i = 0; i < row; i++) {
+            data.skipNBytes(data.readInt());
+        }
+        byte[] utf8 = new byte[data.readInt()];
+        data.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(utf8.length);
+        data.write(utf8);
+    }
+
+    private static UUID readId(DataInputStream data) throws IOException {
+        return new UUID(data.readLong(), data.readLong());
+    }
+
+    private static void writeId(DataOutputStream data, UUID id) throws IOException {
+        data.writeLong(id.getMostSignificantBits());
+        data.writeLong(id.getLeastSignificantBits());
+    }
+
+    // Postgres timestamps have microsecond precision and no zone; neither is lost here
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime time(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
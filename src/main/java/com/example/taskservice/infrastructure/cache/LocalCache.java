@@ -0,0 +1,104 @@
+package com.example.taskservice.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Small bounded LRU map with per-entry expiry. Split into independently locked segments so
+ * concurrent request threads rarely contend; each segment evicts its own least recently
+ * used entry once it holds {@code maxSize / segments} entries.
+ */
+final class LocalCache<K, V> {
+
+    enum RemovalCause {
+        SIZE, EXPIRED, INVALIDATED
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+
+    private final Segment<K, V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    LocalCache(int maxSize, int segmentCount, Consumer<RemovalCause> removalListener) {
+        int perSegment = Math.max(1, maxSize / segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(perSegment, removalListener);
+        }
+    }
+
+    V get(K key) {
+        return segmentFor(key).get(key);
+    }
+
+    void put(K key, V value, Duration ttl) {
+        segmentFor(key).put(key, new Entry<>(value, System.nanoTime() + ttl.toNanos()));
+    }
+
+    void invalidate(K key) {
+        segmentFor(key).invalidate(key);
+    }
+
+    long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+
+    private static final class Segment<K, V> {
+
+        private final Consumer<RemovalCause> removalListener;
+        private final LinkedHashMap<K, Entry<V>> entries;
+
+        Segment(int maxSize, Consumer<RemovalCause> removalListener) {
+            this.removalListener = removalListener;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    if (size() > maxSize) {
+                        removalListener.accept(RemovalCause.SIZE);
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized V get(K key) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtNanos() - System.nanoTime() <= 0) {
+                entries.remove(key);
+                removalListener.accept(RemovalCause.EXPIRED);
+                return null;
+            }
+            return entry.value();
+        }
+
+        synchronized void put(K key, Entry<V> entry) {
+            entries.put(key, entry);
+        }
+
+        synchronized void invalidate(K key) {
+            if (entries.remove(key) != null) {
+                removalListener.accept(RemovalCause.INVALIDATED);
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.taskservice.infrastructure.cache;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-through cache for task lookups by id: a bounded in-process tier in front of a shared
+ * Redis tier. The worker deletes the Redis entry after every status change and announces
+ * it on the status topic, and {@link com.example.taskservice.infrastructure.notification.TaskStatusNotifications} then evicts the local tier on
+ * every instance. TTLs only bound staleness if an invalidation is lost, so terminal states,
+ * which rarely change again, are kept much longer than in-progress ones.
+ *
+ * <p>Misses are loaded from the replica, which may still show a status the worker has
+ * already replaced. A FAILED task may also still be retried. So a row only counts as
+ * settled once it has been unchanged for {@code settle-time}.
+ *
+ * <p>Redis is never a hard dependency: when it fails, lookups fall through to the database
+ * and writes keep only the local tier, counted in {@code task.cache.errors}.
+ */
+@Slf4j
+@Component
+public class TaskCache {
+
+    public static final String KEY_PREFIX = "task-cache:";
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final LocalCache<UUID, Task> local;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter redisErrors;
+
+    @Value("${app.tasks.cache.local.ttl:2s}")
+    private Duration localTtl;
+
+    @Value("${app.tasks.cache.local.terminal-ttl:1m}")
+    private Duration localTerminalTtl;
+
+    @Value("${app.tasks.cache.redis.ttl:5s}")
+    private Duration redisTtl;
+
+    @Value("${app.tasks.cache.redis.terminal-ttl:10m}")
+    private Duration redisTerminalTtl;
+
+    @Value("${app.tasks.cache.settle-time:30s}")
+    private Duration settleTime;
+
+    public TaskCache(RedissonClient redissonClient,
+                     ObjectMapper objectMapper,
+                     MeterRegistry meterRegistry,
+                     @Value("${app.tasks.cache.local.max-size:10000}") int localMaxSize) {
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+
+        Map<LocalCache.RemovalCause, Counter> evictions = new EnumMap<>(LocalCache.RemovalCause.class);
+        for (LocalCache.RemovalCause cause : LocalCache.RemovalCause.values()) {
+            evictions.put(cause, meterRegistry.counter("task.cache.evictions", "tier", "local", "cause", cause.name().toLowerCase()));
+        }
+        this.local = new LocalCache<>(localMaxSize, 16, cause -> evictions.get(cause).increment());
+
+        this.localHits = meterRegistry.counter("task.cache.requests", "tier", "local", "result", "hit");
+        this.localMisses = meterRegistry.counter("task.cache.requests", "tier", "local", "result", "miss");
+        this.redisHits = meterRegistry.counter("task.cache.requests", "tier", "redis", "result", "hit");
+        this.redisMisses = meterRegistry.counter("task.cache.requests", "tier", "redis", "result", "miss");
+        this.redisErrors = meterRegistry.counter("task.cache.errors", "tier", "redis");
+        Gauge.builder("task.cache.size", local, LocalCache::size)
+                .tag("tier", "local")
+                .register(meterRegistry);
+    }
+
+    public Optional<Task> get(UUID id) {
+        Task task = local.get(id);
+        if (task != null) {
+            localHits.increment();
+            return Optional.of(task);
+        }
+        localMisses.increment();
+
+        String json;
+        try {
+            json = bucket(id).get();
+        } catch (RedisException e) {
+            redisErrors.increment();
+            log.warn("Task cache unavailable, reading task {} from the database: {}", id, e.getMessage());
+            return Optional.empty();
+        }
+        if (json == null) {
+            redisMisses.increment();
+            return Optional.empty();
+        }
+        redisHits.increment();
+        try {
+            task = objectMapper.readValue(json, Task.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping unreadable cache entry for task {}", id, e);
+            return Optional.empty();
+        }
+        local.put(id, task, isSettled(task) ? localTerminalTtl : localTtl);
+        return Optional.of(task);
+    }
+
+    public void put(Task task) {
+        boolean settled = isSettled(task);
+        local.put(task.getId(), task, settled ? localTerminalTtl : localTtl);
+        try {
+            bucket(task.getId()).set(objectMapper.writeValueAsString(task), settled ? redisTerminalTtl : redisTtl);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not cache task {}", task.getId(), e);
+        } catch (RedisException e) {
+            redisErrors.increment();
+            log.warn("Task cache unavailable, not caching task {} in Redis: {}", task.getId(), e.getMessage());
+        }
+    }
+
+    public void evictLocal(UUID id) {
+        local.invalidate(id);
+    }
+
+    private RBucket<String> bucket(UUID id) {
+        return redissonClient.getBucket(KEY_PREFIX + id, StringCodec.INSTANCE);
+    }
+
+    private boolean isSettled(Task task) {
+        boolean terminal = task.getStatus() == TaskStatus.SUCCESS || task.getStatus() == TaskStatus.FAILED;
+        return terminal && task.getUpdatedAt() != null
+                && task.getUpdatedAt().isBefore(LocalDateTime.now().minus(settleTime));
+    }
+}
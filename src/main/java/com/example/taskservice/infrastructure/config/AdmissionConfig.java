@@ -0,0 +1,33 @@
+package com.example.taskservice.infrastructure.config;
+
+import com.example.taskservice.infrastructure.admission.AdmissionFilter;
+import com.example.taskservice.infrastructure.admission.AdmissionLimiter;
+import com.example.taskservice.infrastructure.admission.AdmissionProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig {
+
+    /**
+     * Right behind the rate limit filter: requests over a client's limit are turned away
+     * before they take an admission slot.
+     */
+    @Bean
+    @ConditionalOnProperty(value = "app.admission.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(AdmissionProperties properties,
+                                                                   AdmissionLimiter admissionLimiter,
+                                                                   ObjectMapper objectMapper) {
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionFilter(properties, admissionLimiter, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
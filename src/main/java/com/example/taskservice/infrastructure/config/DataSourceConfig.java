@@ -1,30 +1,41 @@
 package com.example.taskservice.infrastructure.config;
 
+import com.example.taskservice.infrastructure.datasource.LagAwareRoutingDataSource;
+import com.example.taskservice.infrastructure.datasource.ReplicaLagMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
-import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
+@EnableConfigurationProperties(DataSourceConfig.ReplicaProperties.class)
 public class DataSourceConfig {
 
-    public enum DataSourceType {
-        PRIMARY, REPLICA
-    }
+    @Data
+    @ConfigurationProperties(prefix = "spring.datasource")
+    public static class ReplicaProperties {
+        private List<Replica> replicas = new ArrayList<>();
 
-    public static class TransactionRoutingDataSource extends AbstractRoutingDataSource {
-        @Override
-        protected Object determineCurrentLookupKey() {
-            return TransactionSynchronizationManager.isCurrentTransactionReadOnly() 
-                ? DataSourceType.REPLICA 
-                : DataSourceType.PRIMARY;
+        @Data
+        public static class Replica {
+            private String url;
+            private String username;
+            private String password;
+            private String driverClassName;
         }
     }
 
@@ -35,23 +46,42 @@ public class DataSourceConfig {
     }
 
     @Bean
-    @ConfigurationProperties(prefix = "spring.datasource.replica")
-    public DataSource replicaDataSource() {
-        return DataSourceBuilder.create().build();
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaProperties properties, MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaProperties.Replica replica = properties.getReplicas().get(i);
+            replicas.put("replica-" + i, DataSourceBuilder.create()
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .driverClassName(replica.getDriverClassName())
+                    .build());
+        }
+        return new ReplicaLagMonitor(primaryDataSource(), replicas, meterRegistry);
     }
 
+    /**
+     * The lazy proxy defers fetching a physical connection to the first statement. The
+     * transaction manager acquires its connection before it publishes the read-only flag,
+     * so without the proxy every transaction would be routed as a write.
+     */
     @Bean
     @Primary
-    public DataSource dataSource() {
-        TransactionRoutingDataSource routingDataSource = new TransactionRoutingDataSource();
-        
-        Map<Object, Object> dataSourceMap = new HashMap<>();
-        dataSourceMap.put(DataSourceType.PRIMARY, primaryDataSource());
-        dataSourceMap.put(DataSourceType.REPLICA, replicaDataSource());
-        
+    public DataSource dataSource(ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.datasource.replica-lag.max-lag:2s}") Duration maxLag,
+                                 @Value("${app.datasource.replica-lag.max-bytes:16777216}") long maxLagBytes,
+                                 @Value("${app.datasource.replica-lag.max-sample-age:5s}") Duration maxSampleAge) {
+        LagAwareRoutingDataSource routingDataSource =
+                new LagAwareRoutingDataSource(replicaLagMonitor, meterRegistry, maxLag, maxLagBytes, maxSampleAge);
+
+        Map<Object, Object> dataSourceMap = new HashMap<>(replicaLagMonitor.replicas());
+        dataSourceMap.put(LagAwareRoutingDataSource.PRIMARY, primaryDataSource());
+
         routingDataSource.setTargetDataSources(dataSourceMap);
         routingDataSource.setDefaultTargetDataSource(primaryDataSource());
-        
-        return routingDataSource;
+        routingDataSource.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
     }
 }
@@ -1,24 +1,36 @@
 package com.example.taskservice.infrastructure.config;
 
-import org.redisson.api.RedissonClient;
-import org.redisson.spring.cache.RedissonSpringCacheManager;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.EnableCaching;
+import com.example.taskservice.infrastructure.ratelimit.ClientKeyResolver;
+import com.example.taskservice.infrastructure.ratelimit.LeasedRateLimiter;
+import com.example.taskservice.infrastructure.ratelimit.RateLimitFilter;
+import com.example.taskservice.infrastructure.ratelimit.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-
-import java.util.HashMap;
-import java.util.Map;
+import org.springframework.core.Ordered;
 
 @Configuration
-@EnableCaching
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class RateLimiterConfig {
 
+    /**
+     * Runs ahead of every other filter so a rejected request costs no further work.
+     */
     @Bean
-    public CacheManager cacheManager(RedissonClient redissonClient) {
-        Map<String, org.redisson.spring.cache.CacheConfig> config = new HashMap<>();
-        // Create "rate-limit-buckets" cache configuration
-        config.put("rate-limit-buckets", new org.redisson.spring.cache.CacheConfig());
-        return new RedissonSpringCacheManager(redissonClient, config);
+    @ConditionalOnProperty(value = "app.rate-limiting.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   LeasedRateLimiter rateLimiter,
+                                                                   ClientKeyResolver clientKeyResolver,
+                                                                   ObjectMapper objectMapper,
+                                                                   MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(properties, rateLimiter, clientKeyResolver, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
     }
 }
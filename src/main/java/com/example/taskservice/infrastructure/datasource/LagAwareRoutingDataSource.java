@@ -0,0 +1,71 @@
+package com.example.taskservice.infrastructure.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica only while it is known to be fresh enough:
+ * reachable, sampled recently, within the lag bounds, and past the caller's consistency
+ * token if one was supplied. Eligible replicas take turns; when none qualifies the read
+ * goes to the primary. Every decision is counted under {@code datasource.routing}.
+ */
+public class LagAwareRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicas;
+    private final ReplicaLagMonitor monitor;
+    private final MeterRegistry meterRegistry;
+    private final Duration maxLag;
+    private final long maxLagBytes;
+    private final Duration maxSampleAge;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public LagAwareRoutingDataSource(ReplicaLagMonitor monitor, MeterRegistry meterRegistry,
+                                     Duration maxLag, long maxLagBytes, Duration maxSampleAge) {
+        this.replicas = List.copyOf(monitor.replicas().keySet());
+        this.monitor = monitor;
+        this.meterRegistry = meterRegistry;
+        this.maxLag = maxLag;
+        this.maxLagBytes = maxLagBytes;
+        this.maxSampleAge = maxSampleAge;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return route(PRIMARY, "write");
+        }
+
+        Long requiredLsn = ReadConsistency.requiredLsn();
+        Instant staleBefore = Instant.now().minus(maxSampleAge);
+        boolean behindToken = false;
+
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            String replica = replicas.get((start + i) % replicas.size());
+            ReplicaState state = monitor.state(replica);
+            if (!state.available() || state.sampledAt().isBefore(staleBefore)
+                    || state.lag().compareTo(maxLag) > 0 || state.lagBytes() > maxLagBytes) {
+                continue;
+            }
+            if (requiredLsn != null && state.replayLsn() < requiredLsn) {
+                behindToken = true;
+                continue;
+            }
+            return route(replica, "read");
+        }
+        return route(PRIMARY, behindToken ? "read-your-writes" : "replicas-lagging");
+    }
+
+    private String route(String target, String reason) {
+        meterRegistry.counter("datasource.routing", "target", target, "reason", reason).increment();
+        return target;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.taskservice.infrastructure.datasource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Read-your-writes across requests without server-side session state. After a write the
+ * client receives the primary's current WAL position as a consistency token; when it sends
+ * the token back, read-only transactions in that request only use replicas that have
+ * replayed at least that far.
+ */
+@Component
+public class ReadConsistency {
+
+    public static final String TOKEN_HEADER = "X-Consistency-Token";
+
+    private static final ThreadLocal<Long> REQUIRED_LSN = new ThreadLocal<>();
+
+    private final JdbcTemplate primary;
+
+    @Value("${app.datasource.read-your-writes.enabled:true}")
+    private boolean enabled;
+
+    public ReadConsistency(@Qualifier("primaryDataSource") DataSource primaryDataSource) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+    }
+
+    /**
+     * Token to hand to the client after a committed write, or null when disabled. Must be
+     * called after the transaction has committed so the position covers the commit record.
+     */
+    public String currentToken() {
+        return enabled ? primary.queryForObject("SELECT pg_current_wal_lsn()::text", String.class) : null;
+    }
+
+    /**
+     * Adds the current token to a response that follows a committed write.
+     */
+    public void addToken(HttpHeaders headers) {
+        String token = currentToken();
+        if (token != null) {
+            headers.set(TOKEN_HEADER, token);
+        }
+    }
+
+    static Long requiredLsn() {
+        return REQUIRED_LSN.get();
+    }
+
+    public static void require(String token) {
+        long lsn;
+        try {
+            lsn = ReplicaState.parseLsn(token);
+        } catch (RuntimeException e) {
+            // Can't tell how far the client has written, so no replica is known to be safe
+            lsn = Long.MAX_VALUE;
+        }
+        REQUIRED_LSN.set(lsn);
+    }
+
+    public static void clear() {
+        REQUIRED_LSN.remove();
+    }
+}
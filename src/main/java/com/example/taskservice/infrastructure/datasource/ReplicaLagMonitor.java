@@ -0,0 +1,113 @@
+package com.example.taskservice.infrastructure.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Samples every replica's replay position and lag in the background so routing decisions
+ * never have to ask a replica first. A replica that cannot be queried, or that is not
+ * actually a standby, is reported unavailable and gets no reads.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String REPLICA_SQL =
+            "SELECT pg_is_in_recovery() AS in_recovery, " +
+            "pg_last_wal_replay_lsn()::text AS replay_lsn, " +
+            // Replay timestamps stop moving when the primary is idle, so a replica that has
+            // replayed everything it received counts as current
+            "CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END AS lag_seconds";
+
+    private final JdbcTemplate primary;
+    private final Map<String, DataSource> replicas;
+    private final Map<String, JdbcTemplate> replicaTemplates = new LinkedHashMap<>();
+    private final Map<String, ReplicaState> states = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(DataSource primary, Map<String, DataSource> replicas, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.primary.setQueryTimeout(2);
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+
+        replicas.forEach((name, dataSource) -> {
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            template.setQueryTimeout(2);
+            replicaTemplates.put(name, template);
+
+            Gauge.builder("datasource.replica.lag.seconds", () -> state(name).lag().toMillis() / 1000.0)
+                    .tag("replica", name)
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.lag.bytes", () -> state(name).lagBytes())
+                    .tag("replica", name)
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.available", () -> state(name).available() ? 1 : 0)
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    public Map<String, DataSource> replicas() {
+        return replicas;
+    }
+
+    public ReplicaState state(String replica) {
+        return states.getOrDefault(replica, ReplicaState.unavailable());
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica-lag.poll-interval-ms:1000}")
+    public void sample() {
+        Long primaryLsn = null;
+        try {
+            primaryLsn = ReplicaState.parseLsn(primary.queryForObject("SELECT pg_current_wal_lsn()::text", String.class));
+        } catch (Exception e) {
+            log.warn("Could not read the primary WAL position: {}", e.getMessage());
+        }
+
+        for (Map.Entry<String, JdbcTemplate> replica : replicaTemplates.entrySet()) {
+            states.put(replica.getKey(), sample(replica.getKey(), replica.getValue(), primaryLsn));
+        }
+    }
+
+    private ReplicaState sample(String name, JdbcTemplate replica, Long primaryLsn) {
+        try {
+            Map<String, Object> row = replica.queryForMap(REPLICA_SQL);
+            if (!Boolean.TRUE.equals(row.get("in_recovery")) || row.get("replay_lsn") == null) {
+                if (state(name).available() || !states.containsKey(name)) {
+                    log.warn("Replica {} is not a streaming standby; routing its reads to the primary", name);
+                }
+                return ReplicaState.unavailable();
+            }
+
+            long replayLsn = ReplicaState.parseLsn((String) row.get("replay_lsn"));
+            Duration lag = Duration.ofMillis(Math.round(((Number) row.get("lag_seconds")).doubleValue() * 1000));
+            long lagBytes = primaryLsn != null ? Math.max(0, primaryLsn - replayLsn) : 0;
+            return new ReplicaState(replayLsn, lag, lagBytes, true, Instant.now());
+        } catch (Exception e) {
+            if (state(name).available()) {
+                log.warn("Replica {} is unreachable: {}", name, e.getMessage());
+            }
+            return ReplicaState.unavailable();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.taskservice.infrastructure.datasource;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Last observed replication state of one replica.
+ *
+ * @param replayLsn   WAL position the replica has replayed up to, as a 64-bit LSN
+ * @param lag         time behind the primary; zero when it has replayed all it received
+ * @param lagBytes    WAL bytes behind the primary's current position
+ * @param available   false when the replica could not be queried or is not a standby
+ * @param sampledAt   when this state was taken
+ */
+public record ReplicaState(long replayLsn, Duration lag, long lagBytes, boolean available, Instant sampledAt) {
+
+    public static ReplicaState unavailable() {
+        return new ReplicaState(0, Duration.ZERO, 0, false, Instant.now());
+    }
+
+    /**
+     * Parses the textual {@code pg_lsn} form ({@code 16/B374D848}) into a comparable number.
+     */
+    public static long parseLsn(String lsn) {
+        int slash = lsn.indexOf('/');
+        return (Long.parseLong(lsn.substring(0, slash), 16) << 32) | Long.parseLong(lsn.substring(slash + 1), 16);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.taskservice.infrastructure.exception;
+
+/**
+ * An Idempotency-Key sent again with a different request than the one that first used it.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
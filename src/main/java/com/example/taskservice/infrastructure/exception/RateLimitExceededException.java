@@ -0,0 +1,20 @@
+package com.example.taskservice.infrastructure.exception;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    // Sent as Retry-After when positive; 0 when waiting would not help
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message) {
+        this(message, 0);
+    }
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
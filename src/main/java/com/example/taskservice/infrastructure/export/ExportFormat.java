@@ -0,0 +1,128 @@
+package com.example.taskservice.infrastructure.export;
+
+import com.example.taskservice.domain.model.Task;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Line formats of a task export. Every task becomes one self-contained line, so a stream
+ * can be cut into chunks anywhere between lines and written by several readers at once.
+ */
+public enum ExportFormat {
+
+    /** One JSON object per line; the payload is embedded as JSON, not as a string. */
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        public void writeHeader(Writer out) {
+        }
+
+        @Override
+        public void writeRow(Task task, Writer out) throws IOException {
+            StringWriter line = new StringWriter(256 + task.getPayload().length());
+            try (JsonGenerator json = JSON.createGenerator(line)) {
+                json.writeStartObject();
+                json.writeStringField("id", task.getId().toString());
+                json.writeStringField("status", task.getStatus().name());
+                json.writeStringField("type", task.getTaskType());
+                json.writeStringField("priority", task.getPriority().name());
+                json.writeNumberField("retryCount", task.getRetryCount());
+                json.writeStringField("runAt", text(task.getRunAt()));
+                json.writeStringField("createdAt", text(task.getCreatedAt()));
+                json.writeStringField("updatedAt", text(task.getUpdatedAt()));
+                json.writeFieldName("payload");
+                json.writeRawValue(task.getPayload()); // already valid JSON: it comes from a jsonb column
+                json.writeEndObject();
+            }
+            out.write(line.toString());
+            out.write('\n');
+        }
+    },
+
+    /** RFC 4180 with a header line; the payload is a quoted JSON string. */
+    CSV("text/csv", "csv") {
+        @Override
+        public void writeHeader(Writer out) throws IOException {
+            out.write("id,status,type,priority,retry_count,run_at,created_at,updated_at,payload\r\n");
+        }
+
+        @Override
+        public void writeRow(Task task, Writer out) throws IOException {
+            out.write(task.getId().toString());
+            out.write(',');
+            out.write(task.getStatus().name());
+            out.write(',');
+            writeField(task.getTaskType(), out);
+            out.write(',');
+            out.write(task.getPriority().name());
+            out.write(',');
+            out.write(Integer.toString(task.getRetryCount()));
+            out.write(',');
+            writeField(text(task.getRunAt()), out);
+            out.write(',');
+            writeField(text(task.getCreatedAt()), out);
+            out.write(',');
+            writeField(text(task.getUpdatedAt()), out);
+            out.write(',');
+            writeField(task.getPayload(), out);
+            out.write("\r\n");
+        }
+    };
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType + ";charset=UTF-8";
+    }
+
+    public String fileName() {
+        return "tasks." + extension;
+    }
+
+    public abstract void writeHeader(Writer out) throws IOException;
+
+    public abstract void writeRow(Task task, Writer out) throws IOException;
+
+    public static ExportFormat parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("format must be ndjson or csv");
+        }
+    }
+
+    private static String text(LocalDateTime time) {
+        return time != null ? time.toString() : null;
+    }
+
+    private static void writeField(String value, Writer out) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.taskservice.infrastructure.filter;
+
+import com.example.taskservice.infrastructure.datasource.ReadConsistency;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+public class ReadConsistencyFilter implements Filter {
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (request instanceof HttpServletRequest httpRequest) {
+            String token = httpRequest.getHeader(ReadConsistency.TOKEN_HEADER);
+            if (token != null && !token.isEmpty()) {
+                ReadConsistency.require(token);
+            }
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadConsistency.clear();
+        }
+    }
+}
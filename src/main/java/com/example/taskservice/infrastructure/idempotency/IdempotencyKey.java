@@ -0,0 +1,9 @@
+package com.example.taskservice.infrastructure.idempotency;
+
+import java.util.UUID;
+
+/**
+ * A live key: the fingerprint of the submission that used it and the task it created.
+ */
+public record IdempotencyKey(byte[] requestHash, UUID taskId) {
+}
@@ -0,0 +1,55 @@
+package com.example.taskservice.infrastructure.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+
+    // Takes over a key whose window has passed; a live key is left alone and nothing is returned
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_keys (idempotency_key, request_hash, task_id, created_at) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, " +
+            "task_id = EXCLUDED.task_id, created_at = EXCLUDED.created_at " +
+            "WHERE idempotency_keys.created_at < ? RETURNING task_id";
+
+    private static final String FIND_SQL =
+            "SELECT request_hash, task_id FROM idempotency_keys WHERE idempotency_key = ? AND created_at >= ?";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM idempotency_keys WHERE idempotency_key IN (" +
+            "SELECT idempotency_key FROM idempotency_keys WHERE created_at < ? LIMIT ?)";
+
+    private static final RowMapper<IdempotencyKey> ROW_MAPPER = (rs, rowNum) -> new IdempotencyKey(
+            rs.getBytes("request_hash"),
+            rs.getObject("task_id", UUID.class)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Records {@code key} for {@code taskId} unless it is already held by a submission made
+     * since {@code liveSince}; returns whether it was recorded. If another transaction holds
+     * the key uncommitted, this waits for it. Must run in the transaction creating the task.
+     */
+    public boolean claim(String key, byte[] requestHash, UUID taskId, LocalDateTime createdAt, LocalDateTime liveSince) {
+        return !jdbcTemplate.queryForList(CLAIM_SQL, UUID.class, key, requestHash, taskId,
+                Timestamp.valueOf(createdAt), Timestamp.valueOf(liveSince)).isEmpty();
+    }
+
+    public Optional<IdempotencyKey> find(String key, LocalDateTime liveSince) {
+        return jdbcTemplate.query(FIND_SQL, ROW_MAPPER, key, Timestamp.valueOf(liveSince)).stream().findFirst();
+    }
+
+    public int purgeBefore(LocalDateTime before, int limit) {
+        return jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(before), limit);
+    }
+}
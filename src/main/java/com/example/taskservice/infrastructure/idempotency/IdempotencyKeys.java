@@ -0,0 +1,170 @@
+package com.example.taskservice.infrastructure.idempotency;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.infrastructure.exception.IdempotencyKeyReusedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Idempotency keys of task submissions. The {@code idempotency_keys} table is the authority:
+ * a submission claims its key in the transaction that creates the task, and a retry that
+ * finds the key taken gets the original task back, on any instance.
+ * <p>
+ * Most keys are never repeated, so before looking one up this consults a local bloom filter
+ * of the keys claimed on this instance within the window; a key it has never seen goes
+ * straight to the claim, which costs one statement in a transaction that is opened anyway.
+ * A retry that lands on another instance is a miss for the filter and is caught by the
+ * claim instead. The filter keeps two generations of {@code window} each, so a key stays
+ * in it for at least one window.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeys {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository repository;
+    private final Duration window;
+    private final long expectedKeys;
+    private final double falsePositiveRate;
+    private final Counter created;
+    private final Counter replayed;
+    private final Counter rejected;
+    private final Counter filterAbsent;
+    private final Counter filterHit;
+    private final Counter filterFalsePositive;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile long rotatedAt = System.nanoTime();
+
+    @Value("${app.tasks.idempotency.purge-batch-size:10000}")
+    private int purgeBatchSize;
+
+    public IdempotencyKeys(IdempotencyKeyRepository repository,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.tasks.idempotency.window:24h}") Duration window,
+                           // Keys claimed on one instance per window; beyond it the false positive rate climbs
+                           @Value("${app.tasks.idempotency.filter.expected-keys:1000000}") long expectedKeys,
+                           @Value("${app.tasks.idempotency.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.window = window;
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = new BloomFilter(expectedKeys, falsePositiveRate);
+        this.previous = new BloomFilter(expectedKeys, falsePositiveRate);
+
+        this.created = meterRegistry.counter("tasks.idempotency", "result", "created");
+        this.replayed = meterRegistry.counter("tasks.idempotency", "result", "replayed");
+        this.rejected = meterRegistry.counter("tasks.idempotency", "result", "rejected");
+        this.filterAbsent = meterRegistry.counter("tasks.idempotency.filter", "result", "absent");
+        this.filterHit = meterRegistry.counter("tasks.idempotency.filter", "result", "hit");
+        this.filterFalsePositive = meterRegistry.counter("tasks.idempotency.filter", "result", "false_positive");
+    }
+
+    /**
+     * The task created under {@code key} within the window, if this instance may have seen
+     * it. Throws {@link IdempotencyKeyReusedException} if it was for a different submission.
+     */
+    public Optional<UUID> findOriginal(String key, byte[] requestHash) {
+        rotateIfDue();
+        if (!current.mightContain(key) && !previous.mightContain(key)) {
+            filterAbsent.increment();
+            return Optional.empty();
+        }
+        Optional<IdempotencyKey> existing = repository.find(key, LocalDateTime.now().minus(window));
+        (existing.isPresent() ? filterHit : filterFalsePositive).increment();
+        return existing.map(original -> replay(original, requestHash));
+    }
+
+    /**
+     * Claims {@code key} for {@code task}. Returns empty if the task may be created, or the
+     * task another submission already created under the key. Must run in the transaction
+     * that creates the task.
+     */
+    public Optional<UUID> claim(String key, byte[] requestHash, Task task) {
+        LocalDateTime liveSince = task.getCreatedAt().minus(window);
+        while (!repository.claim(key, requestHash, task.getId(), task.getCreatedAt(), liveSince)) {
+            // Expiring between the claim and this read would leave nothing to replay; claim again
+            Optional<IdempotencyKey> existing = repository.find(key, liveSince);
+            if (existing.isPresent()) {
+                return Optional.of(replay(existing.get(), requestHash));
+            }
+        }
+        current.put(key);
+        created.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Hash of a request's fields, compared on replay. Pass the fields as the client sent them:
+     * anything derived at request time, such as a run time computed from a delay, differs
+     * between retries of the same request.
+     */
+    public static byte[] fingerprint(Object... fields) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object field : fields) {
+                digest.update(Objects.toString(field, "").getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.tasks.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(window);
+            int purged = 0;
+            int batch;
+            do {
+                batch = repository.purgeBefore(cutoff, purgeBatchSize);
+                purged += batch;
+            } while (batch == purgeBatchSize);
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        } catch (Exception e) {
+            log.error("Idempotency key purge failed", e);
+        }
+    }
+
+    private UUID replay(IdempotencyKey original, byte[] requestHash) {
+        if (!Arrays.equals(original.requestHash(), requestHash)) {
+            rejected.increment();
+            throw new IdempotencyKeyReusedException("Idempotency-Key was already used for a different request");
+        }
+        replayed.increment();
+        return original.taskId();
+    }
+
+    private void rotateIfDue() {
+        if (System.nanoTime() - rotatedAt < window.toNanos()) {
+            return;
+        }
+        synchronized (this) {
+            if (System.nanoTime() - rotatedAt >= window.toNanos()) {
+                previous = current;
+                current = new BloomFilter(expectedKeys, falsePositiveRate);
+                rotatedAt = System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.taskservice.infrastructure.messaging;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Binary wire format for {@link TaskEvent}:
+ * <pre>
+ *   byte     magic (0x00; a JSON document never starts with it)
+ *   byte     schema version
+ *   16 bytes task id
+ *   int16    task type length, -1 for null, then UTF-8 bytes
+ *   int32    payload length, -1 for null, then UTF-8 bytes
+ * </pre>
+ * Later versions only ever append fields, so a reader decodes the fields it knows and skips
+ * the rest. Producer and worker can therefore be upgraded in either order. The worker copy of
+ * this class must stay byte-compatible.
+ */
+public final class TaskEventCodec {
+
+    public static final byte MAGIC = 0x00;
+    public static final byte VERSION = 1;
+
+    private static final int HEADER_BYTES = 2 + 16 + Short.BYTES + Integer.BYTES;
+
+    private TaskEventCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(TaskEvent event) {
+        byte[] taskType = utf8(event.getTaskType());
+        byte[] payload = utf8(event.getPayload());
+        if (taskType != null && taskType.length > Short.MAX_VALUE) {
+            throw new SerializationException("Task type is longer than " + Short.MAX_VALUE + " bytes");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + length(taskType) + length(payload));
+        buffer.put(MAGIC).put(VERSION);
+        buffer.putLong(event.getTaskId().getMostSignificantBits()).putLong(event.getTaskId().getLeastSignificantBits());
+        buffer.putShort((short) (taskType != null ? taskType.length : -1));
+        if (taskType != null) {
+            buffer.put(taskType);
+        }
+        buffer.putInt(payload != null ? payload.length : -1);
+        if (payload != null) {
+            buffer.put(payload);
+        }
+        return buffer.array();
+    }
+
+    public static TaskEvent decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new SerializationException("Not a binary task event");
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data, 1, data.length - 1);
+            byte version = buffer.get();
+            if (version < 1) {
+                throw new SerializationException("Unknown task event schema version " + version);
+            }
+            UUID taskId = new UUID(buffer.getLong(), buffer.getLong());
+            String taskType = string(buffer, buffer.getShort());
+            String payload = string(buffer, buffer.getInt());
+            // Anything left was appended by a newer schema version
+            return new TaskEvent(taskId, taskType, payload);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated task event of " + data.length + " bytes", e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes != null ? bytes.length : 0;
+    }
+
+    private static String string(ByteBuffer buffer, int length) {
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.taskservice.infrastructure.messaging;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Kafka value serializer for task events. Writes the compact {@link TaskEventCodec} format
+ * by default; {@code task.event.format=JSON} (a producer property) switches back to plain
+ * JSON, which the worker still reads. Either way no type headers are added, so the worker
+ * does not depend on this service's class names.
+ */
+public class TaskEventSerializer implements Serializer<TaskEvent> {
+
+    public static final String FORMAT_CONFIG = "task.event.format";
+
+    public enum Format {
+        BINARY, JSON
+    }
+
+    private final JsonSerializer<TaskEvent> jsonSerializer = new JsonSerializer<TaskEvent>().noTypeInfo();
+    private Format format = Format.BINARY;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object configured = configs.get(FORMAT_CONFIG);
+        if (configured != null) {
+            format = Format.valueOf(configured.toString().trim().toUpperCase());
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, TaskEvent event) {
+        if (event == null) {
+            return null;
+        }
+        return format == Format.BINARY ? TaskEventCodec.encode(event) : jsonSerializer.serialize(topic, event);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, TaskEvent event) {
+        return serialize(topic, event);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
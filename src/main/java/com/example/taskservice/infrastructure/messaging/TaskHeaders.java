@@ -0,0 +1,25 @@
+package com.example.taskservice.infrastructure.messaging;
+
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Record headers sent with every task event. Stage timestamps are epoch milliseconds as
+ * 8-byte big-endian longs; the worker measures its own stages against them.
+ */
+public final class TaskHeaders {
+
+    public static final String CORRELATION_ID = "correlationId";
+    /** When the event was written to the outbox: the submitting (or releasing) transaction. */
+    public static final String ENQUEUED_AT = "enqueuedAt";
+    /** When the relay handed the event to the producer. */
+    public static final String PUBLISHED_AT = "publishedAt";
+
+    private TaskHeaders() {
+    }
+
+    public static void addTime(Headers headers, String name, long epochMillis) {
+        headers.add(name, ByteBuffer.allocate(Long.BYTES).putLong(epochMillis).array());
+    }
+}
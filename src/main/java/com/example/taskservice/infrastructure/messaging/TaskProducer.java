@@ -1,16 +1,23 @@
 package com.example.taskservice.infrastructure.messaging;
 
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.infrastructure.metrics.TaskMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.header.internals.RecordHeader;
-import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Component
@@ -18,28 +25,91 @@ import java.util.Collections;
 public class TaskProducer {
 
     private final KafkaTemplate<String, TaskEvent> kafkaTemplate;
+    private final TaskMetrics taskMetrics;
 
+    // One topic per priority lane; NORMAL keeps the original submission topic
     @Value("${app.kafka.topics.task-submission:tasks.main}")
-    private String topic;
+    private String normalTopic;
 
-    public void sendTaskEvent(TaskEvent event) {
-        log.info("Publishing task event for task ID: {}", event.getTaskId());
-        
-        String correlationId = MDC.get("correlationId");
-        ProducerRecord<String, TaskEvent> record = new ProducerRecord<>(topic, event.getTaskId().toString(), event);
+    @Value("${app.kafka.topics.high-priority:tasks.high}")
+    private String highTopic;
+
+    @Value("${app.kafka.topics.low-priority:tasks.low}")
+    private String lowTopic;
+
+    /**
+     * Hands the event to the producer without waiting. Callers that send many events
+     * should {@link #flush()} once afterwards rather than block on each future.
+     * {@code enqueuedAt} is when the event was written to the outbox; it travels with the
+     * record so the worker can measure the whole way from there.
+     */
+    public CompletableFuture<SendResult<String, TaskEvent>> sendTaskEvent(TaskEvent event, TaskPriority priority,
+                                                                         String correlationId, LocalDateTime enqueuedAt) {
+        log.debug("Publishing {} task event for task ID: {}", priority, event.getTaskId());
+
+        ProducerRecord<String, TaskEvent> record = new ProducerRecord<>(topicFor(priority), event.getTaskId().toString(), event);
         
         if (correlationId != null) {
-            record.headers().add(new RecordHeader("correlationId", correlationId.getBytes(StandardCharsets.UTF_8)));
+            record.headers().add(new RecordHeader(TaskHeaders.CORRELATION_ID, correlationId.getBytes(StandardCharsets.UTF_8)));
+        }
+        long publishedAt = System.currentTimeMillis();
+        if (enqueuedAt != null) {
+            long enqueuedAtMillis = enqueuedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            TaskHeaders.addTime(record.headers(), TaskHeaders.ENQUEUED_AT, enqueuedAtMillis);
+            taskMetrics.recordStage(TaskMetrics.STAGE_RELAY, event.getTaskType(), priority, publishedAt - enqueuedAtMillis);
         }
+        TaskHeaders.addTime(record.headers(), TaskHeaders.PUBLISHED_AT, publishedAt);
 
-        kafkaTemplate.send(record)
+        return kafkaTemplate.send(record)
                 .whenComplete((result, ex) -> {
-                    if (ex == null) {
-                        log.info("Successfully published task ID: {} to partition: {}", 
-                                event.getTaskId(), result.getRecordMetadata().partition());
-                    } else {
+                    if (ex != null) {
                         log.error("Failed to publish task ID: {}", event.getTaskId(), ex);
+                    } else {
+                        taskMetrics.recordStage(TaskMetrics.STAGE_PUBLISH, event.getTaskType(), priority,
+                                System.currentTimeMillis() - publishedAt);
                     }
                 });
     }
+
+    public void flush() {
+        kafkaTemplate.flush();
+    }
+
+    /**
+     * Share of the producer's send buffer ({@code buffer.memory}) taken by records not yet
+     * acknowledged. Close to 1 means sends are about to block.
+     */
+    public double bufferUsage() {
+        double total = producerMetric("buffer-total-bytes");
+        return total > 0 ? 1 - producerMetric("buffer-available-bytes") / total : 0;
+    }
+
+    /**
+     * Average time brokers took to answer produce requests over the client's sample window,
+     * in milliseconds; 0 before the first send.
+     */
+    public double sendLatencyMs() {
+        double latency = producerMetric("request-latency-avg");
+        return Double.isFinite(latency) ? latency : 0;
+    }
+
+    private double producerMetric(String metric) {
+        double sum = 0;
+        for (Map.Entry<MetricName, ? extends Metric> entry : kafkaTemplate.metrics().entrySet()) {
+            MetricName name = entry.getKey();
+            if ("producer-metrics".equals(name.group()) && metric.equals(name.name())
+                    && entry.getValue().metricValue() instanceof Number value) {
+                sum += value.doubleValue();
+            }
+        }
+        return sum;
+    }
+
+    private String topicFor(TaskPriority priority) {
+        return switch (priority) {
+            case HIGH -> highTopic;
+            case NORMAL -> normalTopic;
+            case LOW -> lowTopic;
+        };
+    }
 }
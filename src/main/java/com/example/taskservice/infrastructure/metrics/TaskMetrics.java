@@ -0,0 +1,79 @@
+package com.example.taskservice.infrastructure.metrics;
+
+import com.example.taskservice.domain.model.TaskPriority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the stages a task goes through in this service, as {@code task.stage.latency}
+ * histograms with fixed SLO buckets. Tags are limited to values with a small, known range:
+ * the task type is client supplied, so only the first {@code max-type-tags} distinct types
+ * get their own series and the rest are reported as {@value #OTHER}.
+ */
+@Component
+public class TaskMetrics {
+
+    public static final String OTHER = "other";
+
+    /** From submission (the time in the task id) to the commit of the submitting transaction. */
+    public static final String STAGE_COMMIT = "commit";
+    /** From the outbox write to the relay handing the event to the producer. */
+    public static final String STAGE_RELAY = "relay";
+    /** From the hand-off to the producer to the broker's acknowledgment. */
+    public static final String STAGE_PUBLISH = "publish";
+
+    private record Key(String stage, String type, TaskPriority priority) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Duration[] slos;
+    private final int maxTypeTags;
+    private final Set<String> typeTags = ConcurrentHashMap.newKeySet();
+    private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+
+    public TaskMetrics(MeterRegistry meterRegistry,
+                       @Value("${app.metrics.latency-slos:10ms,50ms,100ms,250ms,500ms,1s,2500ms,5s,10s,30s,1m,5m}") Duration[] slos,
+                       @Value("${app.metrics.max-type-tags:50}") int maxTypeTags) {
+        this.meterRegistry = meterRegistry;
+        this.slos = slos;
+        this.maxTypeTags = maxTypeTags;
+    }
+
+    /**
+     * The task type as a tag value: the type itself while fewer than {@code max-type-tags}
+     * types have been seen, {@value #OTHER} after that.
+     */
+    public String typeTag(String type) {
+        if (type == null) {
+            return OTHER;
+        }
+        if (typeTags.contains(type)) {
+            return type;
+        }
+        // Racing callers may overshoot the cap by a few types, which is harmless
+        if (typeTags.size() < maxTypeTags) {
+            typeTags.add(type);
+            return type;
+        }
+        return OTHER;
+    }
+
+    public void recordStage(String stage, String type, TaskPriority priority, long millis) {
+        timers.computeIfAbsent(new Key(stage, typeTag(type), priority), key -> Timer.builder("task.stage.latency")
+                        .description("Time a task spent in one stage of its way to a worker")
+                        .tag("stage", key.stage())
+                        .tag("type", key.type())
+                        .tag("priority", key.priority().name().toLowerCase())
+                        .serviceLevelObjectives(slos)
+                        .register(meterRegistry))
+                .record(Math.max(0, millis), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.taskservice.infrastructure.notification;
+
+import com.example.taskservice.domain.model.TaskStatus;
+
+import java.util.UUID;
+
+public record TaskStatusChange(UUID taskId, TaskStatus status) {
+
+    public boolean isTerminal() {
+        return status == TaskStatus.SUCCESS || status == TaskStatus.FAILED;
+    }
+}
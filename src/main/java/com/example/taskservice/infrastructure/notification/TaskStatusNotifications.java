@@ -0,0 +1,150 @@
+package com.example.taskservice.infrastructure.notification;
+
+import com.example.taskservice.domain.model.TaskStatus;
+import com.example.taskservice.infrastructure.cache.TaskCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Receives the status changes the worker publishes on Redis ({@code <id>:<STATUS>} lines on
+ * {@link #STATUS_TOPIC}) and fans them out inside this instance: the local cache entry is
+ * evicted and every listener registered for the task is called. Listeners are plain
+ * callbacks, so a parked long-poll or SSE client costs a map entry rather than a thread;
+ * callbacks run on virtual threads because they usually go back to the database.
+ */
+@Slf4j
+@Component
+public class TaskStatusNotifications {
+
+    public static final String STATUS_TOPIC = "task-status";
+
+    private final RedissonClient redissonClient;
+    private final TaskCache taskCache;
+    private final ConcurrentHashMap<UUID, Set<Consumer<TaskStatusChange>>> listeners = new ConcurrentHashMap<>();
+    private final AtomicInteger listenerCount = new AtomicInteger();
+    private final ExecutorService callbacks = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TaskStatusNotifications(RedissonClient redissonClient, TaskCache taskCache, MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.taskCache = taskCache;
+        Gauge.builder("task.status.listeners", listenerCount, AtomicInteger::get)
+                .description("Long-poll and SSE subscriptions waiting for a task status change")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        redissonClient.getTopic(STATUS_TOPIC, StringCodec.INSTANCE)
+                .addListener(String.class, (channel, message) -> message.lines().forEach(this::dispatch));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        callbacks.shutdownNow();
+    }
+
+    /**
+     * Calls {@code listener} for every status change of the task until the returned handle
+     * is closed.
+     */
+    public Subscription subscribe(UUID taskId, Consumer<TaskStatusChange> listener) {
+        // Added inside compute so it cannot race with the last listener removing the set
+        listeners.compute(taskId, (id, set) -> {
+            Set<Consumer<TaskStatusChange>> updated = set != null ? set : ConcurrentHashMap.newKeySet();
+            updated.add(listener);
+            return updated;
+        });
+        listenerCount.incrementAndGet();
+        return () -> {
+            boolean[] removed = new boolean[1];
+            listeners.computeIfPresent(taskId, (id, set) -> {
+                removed[0] = set.remove(listener);
+                return set.isEmpty() ? null : set;
+            });
+            if (removed[0]) {
+                listenerCount.decrementAndGet();
+            }
+        };
+    }
+
+    public int listenerCount() {
+        return listenerCount.get();
+    }
+
+    /**
+     * Announces status changes made by this service, the same way the worker announces its
+     * own: the shared cache entries are deleted and every instance is told. Inside a
+     * transaction this waits for the commit.
+     */
+    public void publish(Map<UUID, TaskStatus> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Map<UUID, TaskStatus> snapshot = Map.copyOf(changes);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(snapshot);
+                }
+            });
+        } else {
+            send(snapshot);
+        }
+    }
+
+    private void send(Map<UUID, TaskStatus> changes) {
+        try {
+            redissonClient.getKeys().delete(changes.keySet().stream().map(id -> TaskCache.KEY_PREFIX + id).toArray(String[]::new));
+            redissonClient.getTopic(STATUS_TOPIC, StringCodec.INSTANCE).publish(changes.entrySet().stream()
+                    .map(change -> change.getKey() + ":" + change.getValue())
+                    .collect(Collectors.joining("\n")));
+        } catch (Exception e) {
+            // The status is committed either way; readers catch up when the cache TTL runs out
+            log.warn("Could not publish status changes for tasks {}", changes.keySet(), e);
+        }
+    }
+
+    private void dispatch(String line) {
+        int separator = line.indexOf(':');
+        if (separator < 0) {
+            log.warn("Ignoring malformed status notification: {}", line);
+            return;
+        }
+        TaskStatusChange change = new TaskStatusChange(
+                UUID.fromString(line.substring(0, separator)),
+                TaskStatus.valueOf(line.substring(separator + 1)));
+
+        taskCache.evictLocal(change.taskId());
+        Set<Consumer<TaskStatusChange>> subscribed = listeners.get(change.taskId());
+        if (subscribed != null) {
+            for (Consumer<TaskStatusChange> listener : subscribed) {
+                callbacks.execute(() -> listener.accept(change));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
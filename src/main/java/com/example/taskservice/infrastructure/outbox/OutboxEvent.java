@@ -0,0 +1,31 @@
+package com.example.taskservice.infrastructure.outbox;
+
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.infrastructure.messaging.TaskEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    private Long id;
+    private UUID taskId;
+    private String taskType;
+    private TaskPriority priority;
+    private String payload;
+    private String correlationId;
+    private LocalDateTime createdAt;
+
+    public static OutboxEvent of(UUID taskId, String taskType, TaskPriority priority, String payload, String correlationId) {
+        return new OutboxEvent(null, taskId, taskType, priority, payload, correlationId, null);
+    }
+
+    public TaskEvent toTaskEvent() {
+        return new TaskEvent(taskId, taskType, payload);
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.taskservice.infrastructure.outbox;
+
+import com.example.taskservice.infrastructure.messaging.TaskEvent;
+import com.example.taskservice.infrastructure.messaging.TaskProducer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes outbox rows to Kafka off the request path. Each relay thread claims a batch
+ * with {@code FOR UPDATE SKIP LOCKED}, sends it asynchronously, flushes once, and deletes
+ * the acknowledged rows in the same transaction. Rows whose send failed stay locked until
+ * the transaction ends and are picked up again by the next claim.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay implements SmartLifecycle {
+
+    private final OutboxRepository outboxRepository;
+    private final TaskProducer taskProducer;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    @Value("${app.outbox.relay.parallelism:2}")
+    private int parallelism;
+
+    @Value("${app.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    // Events per second across all relay threads of this instance; 0 disables pacing
+    @Value("${app.outbox.relay.target-throughput:0}")
+    private int targetThroughput;
+
+    @Value("${app.outbox.relay.poll-interval-ms:100}")
+    private long pollIntervalMs;
+
+    @Value("${app.outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private volatile boolean running;
+    private ExecutorService workers;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       TaskProducer taskProducer,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.taskProducer = taskProducer;
+        this.transactionTemplate = transactionTemplate;
+        this.publishedCounter = meterRegistry.counter("outbox.published");
+        this.failedCounter = meterRegistry.counter("outbox.publish.failures");
+        this.batchTimer = meterRegistry.timer("outbox.relay.batch");
+
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Outbox rows waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Age of the oldest unpublished outbox row")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        workers = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("outbox-relay-", 0).factory());
+        for (int i = 0; i < parallelism; i++) {
+            workers.submit(this::relayLoop);
+        }
+        log.info("Outbox relay started with {} threads, batch size {}", parallelism, batchSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(sendTimeoutMs, TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.metrics.refresh-ms:5000}")
+    public void refreshLag() {
+        pending.set(outboxRepository.countPending());
+        lagMillis.set(outboxRepository.oldestCreatedAt()
+                .map(oldest -> Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()))
+                .orElse(0L));
+    }
+
+    private void relayLoop() {
+        long perThreadThroughput = targetThroughput > 0 ? Math.max(1, targetThroughput / parallelism) : 0;
+
+        while (running) {
+            long started = System.nanoTime();
+            try {
+                int published = relayBatch();
+                if (published == 0) {
+                    Thread.sleep(pollIntervalMs);
+                } else if (perThreadThroughput > 0) {
+                    // Never go faster than the target: a full batch must take at least batch/rate seconds
+                    long minNanos = TimeUnit.SECONDS.toNanos(published) / perThreadThroughput;
+                    long remainingNanos = minNanos - (System.nanoTime() - started);
+                    if (remainingNanos > 0) {
+                        TimeUnit.NANOSECONDS.sleep(remainingNanos);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Outbox relay batch failed", e);
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private int relayBatch() {
+        Integer published = transactionTemplate.execute(status -> batchTimer.record(() -> {
+            List<OutboxEvent> batch = outboxRepository.claimBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            List<CompletableFuture<SendResult<String, TaskEvent>>> futures = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                futures.add(taskProducer.sendTaskEvent(event.toTaskEvent(), event.getPriority(), event.getCorrelationId(),
+                        event.getCreatedAt()));
+            }
+            taskProducer.flush();
+
+            List<Long> acknowledged = new ArrayList<>(batch.size());
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+            for (int i = 0; i < batch.size(); i++) {
+                if (awaitAck(futures.get(i), deadline)) {
+                    acknowledged.add(batch.get(i).getId());
+                }
+            }
+
+            outboxRepository.deleteAll(acknowledged);
+            publishedCounter.increment(acknowledged.size());
+            failedCounter.increment(batch.size() - acknowledged.size());
+            return acknowledged.size();
+        }));
+        return published != null ? published : 0;
+    }
+
+    private boolean awaitAck(CompletableFuture<?> future, long deadlineNanos) {
+        try {
+            future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            // A timed-out send may still be delivered later; the row is retried and the
+            // worker's idempotency check absorbs the duplicate.
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
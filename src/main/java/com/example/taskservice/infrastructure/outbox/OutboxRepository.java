@@ -0,0 +1,84 @@
+package com.example.taskservice.infrastructure.outbox;
+
+import com.example.taskservice.domain.model.TaskPriority;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox (task_id, task_type, priority, payload, correlation_id) VALUES (?, ?, ?, ?, ?)";
+
+    // SKIP LOCKED lets any number of relay threads and instances claim disjoint batches;
+    // higher priorities are drained first (priority holds the TaskPriority ordinal)
+    private static final String CLAIM_SQL =
+            "SELECT id, task_id, task_type, priority, payload, correlation_id, created_at FROM outbox " +
+            "ORDER BY priority, id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    // Bounded so the lag gauge stays cheap even when the relay has fallen far behind
+    private static final String COUNT_SQL =
+            "SELECT count(*) FROM (SELECT 1 FROM outbox LIMIT 1000000) pending";
+
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"),
+            rs.getObject("task_id", UUID.class),
+            rs.getString("task_type"),
+            TaskPriority.values()[rs.getInt("priority")],
+            rs.getString("payload"),
+            rs.getString("correlation_id"),
+            rs.getTimestamp("created_at").toLocalDateTime()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void save(OutboxEvent event) {
+        jdbcTemplate.update(INSERT_SQL, event.getTaskId(), event.getTaskType(), event.getPriority().ordinal(),
+                event.getPayload(), event.getCorrelationId());
+    }
+
+    public void saveAll(List<OutboxEvent> events, int batchSize) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, batchSize, (ps, event) -> {
+            ps.setObject(1, event.getTaskId());
+            ps.setString(2, event.getTaskType());
+            ps.setInt(3, event.getPriority().ordinal());
+            ps.setString(4, event.getPayload());
+            ps.setString(5, event.getCorrelationId());
+        });
+    }
+
+    /**
+     * Locks up to {@code limit} of the oldest unclaimed rows. Must run inside a transaction;
+     * the locks are held until the caller deletes the rows and commits.
+     */
+    public List<OutboxEvent> claimBatch(int limit) {
+        return jdbcTemplate.query(CLAIM_SQL, ROW_MAPPER, limit);
+    }
+
+    public int deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM outbox WHERE id = ANY(?)", (Object) ids.toArray(new Long[0]));
+    }
+
+    public long countPending() {
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+        return count != null ? count : 0;
+    }
+
+    public Optional<LocalDateTime> oldestCreatedAt() {
+        List<Timestamp> oldest = jdbcTemplate.queryForList(
+                "SELECT created_at FROM outbox ORDER BY id LIMIT 1", Timestamp.class);
+        return oldest.stream().findFirst().map(Timestamp::toLocalDateTime);
+    }
+}
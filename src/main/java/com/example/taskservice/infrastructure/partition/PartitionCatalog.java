@@ -0,0 +1,64 @@
+package com.example.taskservice.infrastructure.partition;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the partitions of {@code tasks} from the Postgres catalog.
+ */
+@Repository
+public class PartitionCatalog {
+
+    public static final String DEFAULT_PARTITION = "tasks_default";
+
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound, " +
+            "       pg_total_relation_size(c.oid) AS size_bytes, COALESCE(s.n_live_tup, 0) AS live_rows " +
+            "FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "LEFT JOIN pg_stat_user_tables s ON s.relid = c.oid " +
+            "WHERE i.inhparent = 'tasks'::regclass";
+
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\('([^']+)'\\) TO \\('([^']+)'\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PartitionCatalog(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * All partitions ordered by lower bound, the default partition last.
+     */
+    public List<TaskPartition> findAll() {
+        return findAll(jdbcTemplate);
+    }
+
+    static List<TaskPartition> findAll(JdbcTemplate jdbc) {
+        return jdbc.query(PARTITIONS_SQL, (rs, rowNum) -> {
+                    String bound = rs.getString("bound");
+                    Matcher matcher = RANGE_BOUND.matcher(bound);
+                    boolean bounded = matcher.find();
+                    return new TaskPartition(
+                            rs.getString("relname"),
+                            bounded ? parseBound(matcher.group(1)) : null,
+                            bounded ? parseBound(matcher.group(2)) : null,
+                            "DEFAULT".equals(bound),
+                            rs.getLong("size_bytes"),
+                            rs.getLong("live_rows"));
+                }).stream()
+                .sorted(Comparator.comparing(TaskPartition::getFrom, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private static LocalDateTime parseBound(String literal) {
+        // Bounds are rendered as '2026-02-01 00:00:00' (optionally with fractional seconds)
+        return LocalDateTime.parse(literal.replace(' ', 'T'));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.taskservice.infrastructure.partition;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum PartitionGranularity {
+    MONTH {
+        @Override
+        public LocalDateTime floor(LocalDateTime time) {
+            return time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDateTime next(LocalDateTime periodStart) {
+            return periodStart.plusMonths(1);
+        }
+
+        @Override
+        public String partitionName(LocalDateTime periodStart) {
+            return String.format("tasks_y%04d_m%02d", periodStart.getYear(), periodStart.getMonthValue());
+        }
+    },
+    DAY {
+        @Override
+        public LocalDateTime floor(LocalDateTime time) {
+            return time.truncatedTo(ChronoUnit.DAYS);
+        }
+
+        @Override
+        public LocalDateTime next(LocalDateTime periodStart) {
+            return periodStart.plusDays(1);
+        }
+
+        @Override
+        public String partitionName(LocalDateTime periodStart) {
+            return String.format("tasks_y%04d_m%02d_d%02d",
+                    periodStart.getYear(), periodStart.getMonthValue(), periodStart.getDayOfMonth());
+        }
+    };
+
+    public abstract LocalDateTime floor(LocalDateTime time);
+
+    public abstract LocalDateTime next(LocalDateTime periodStart);
+
+    public abstract String partitionName(LocalDateTime periodStart);
+}
@@ -0,0 +1,319 @@
+package com.example.taskservice.infrastructure.partition;
+
+import com.example.taskservice.infrastructure.archive.PartitionArchiver;
+import com.example.taskservice.infrastructure.payload.TaskPayloadRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the {@code tasks} partitions in shape: pre-creates upcoming partitions, moves rows
+ * stranded in {@code tasks_default} into proper partitions, and retires partitions past the
+ * retention window: drops them, detaches them into the archive schema, or writes them to
+ * archive files first and then drops them. Runs on every instance but only the holder of a
+ * Postgres advisory lock does the work.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "app.partitions.maintenance.enabled", havingValue = "true", matchIfMissing = true)
+public class PartitionManager {
+
+    private static final String LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('tasks-partition-maintenance'))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('tasks-partition-maintenance'))";
+
+    private static final UUID NO_ID = new UUID(0, 0);
+
+    public enum RetentionAction {
+        DROP, DETACH, ARCHIVE
+    }
+
+    private final DataSource primaryDataSource;
+    private final PartitionCatalog partitionCatalog;
+    private final TaskPayloadRepository taskPayloadRepository;
+    private final PartitionArchiver partitionArchiver;
+    private final MultiGauge partitionSizes;
+    private final MultiGauge partitionRows;
+    private final AtomicLong partitionCount = new AtomicLong();
+    private final AtomicLong defaultRows = new AtomicLong();
+
+    @Value("${app.partitions.granularity:MONTH}")
+    private PartitionGranularity granularity;
+
+    // How far ahead partitions must exist, e.g. 60d with monthly granularity keeps two months ready
+    @Value("${app.partitions.premake:60d}")
+    private Duration premake;
+
+    // Partitions ending before now - retention are retired; 0 keeps everything
+    @Value("${app.partitions.retention:0d}")
+    private Duration retention;
+
+    @Value("${app.partitions.retention-action:DETACH}")
+    private RetentionAction retentionAction;
+
+    @Value("${app.partitions.archive-schema:tasks_archive}")
+    private String archiveSchema;
+
+    @Value("${app.partitions.migrate-batch-size:10000}")
+    private int migrateBatchSize;
+
+    @Value("${app.partitions.max-stranded-periods-per-run:1}")
+    private int maxStrandedPeriodsPerRun;
+
+    @Value("${app.partitions.lock-timeout:5s}")
+    private Duration lockTimeout;
+
+    public PartitionManager(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                            PartitionCatalog partitionCatalog,
+                            TaskPayloadRepository taskPayloadRepository,
+                            PartitionArchiver partitionArchiver,
+                            MeterRegistry meterRegistry) {
+        this.primaryDataSource = primaryDataSource;
+        this.partitionCatalog = partitionCatalog;
+        this.taskPayloadRepository = taskPayloadRepository;
+        this.partitionArchiver = partitionArchiver;
+        this.partitionSizes = MultiGauge.builder("tasks.partition.size.bytes")
+                .description("Total on-disk size of each tasks partition, indexes included")
+                .register(meterRegistry);
+        this.partitionRows = MultiGauge.builder("tasks.partition.rows")
+                .description("Estimated live rows per tasks partition")
+                .register(meterRegistry);
+        Gauge.builder("tasks.partitions", partitionCount, AtomicLong::get)
+                .description("Number of tasks partitions, default included")
+                .register(meterRegistry);
+        Gauge.builder("tasks.partition.default.rows", defaultRows, AtomicLong::get)
+                .description("Estimated rows stranded in tasks_default")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.partitions.maintenance.initial-delay-ms:10000}",
+               fixedDelayString = "${app.partitions.maintenance.interval-ms:3600000}")
+    public void maintain() {
+        try (Connection connection = primaryDataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+
+            if (!Boolean.TRUE.equals(jdbc.queryForObject(LOCK_SQL, Boolean.class))) {
+                log.debug("Partition maintenance is running on another instance");
+                return;
+            }
+            try {
+                // DDL on tasks needs strong locks; give up rather than queue ahead of live traffic
+                jdbc.execute("SET lock_timeout = " + lockTimeout.toMillis());
+                LocalDateTime now = LocalDateTime.now();
+                ensureUpcomingPartitions(connection, jdbc, now);
+                migrateStrandedRows(connection, jdbc);
+                retireExpiredPartitions(connection, jdbc, now);
+            } finally {
+                jdbc.execute("RESET lock_timeout");
+                jdbc.queryForObject(UNLOCK_SQL, Boolean.class);
+            }
+        } catch (Exception e) {
+            log.error("Partition maintenance failed", e);
+        }
+        refreshMetrics();
+    }
+
+    @Scheduled(fixedDelayString = "${app.partitions.metrics.refresh-ms:60000}")
+    public void refreshMetrics() {
+        List<TaskPartition> partitions = partitionCatalog.findAll();
+        partitionCount.set(partitions.size());
+        defaultRows.set(partitions.stream()
+                .filter(TaskPartition::isDefaultPartition)
+                .mapToLong(TaskPartition::getLiveRows)
+                .sum());
+        partitionSizes.register(partitions.stream()
+                .<MultiGauge.Row<?>>map(p -> MultiGauge.Row.of(Tags.of("partition", p.getName()), p.getSizeBytes()))
+                .toList(), true);
+        partitionRows.register(partitions.stream()
+                .<MultiGauge.Row<?>>map(p -> MultiGauge.Row.of(Tags.of("partition", p.getName()), p.getLiveRows()))
+                .toList(), true);
+    }
+
+    private void ensureUpcomingPartitions(Connection connection, JdbcTemplate jdbc, LocalDateTime now) throws SQLException {
+        List<TaskPartition> partitions = PartitionCatalog.findAll(jdbc);
+        LocalDateTime horizon = now.plus(premake);
+
+        for (LocalDateTime from = granularity.floor(now); !from.isAfter(horizon); from = granularity.next(from)) {
+            LocalDateTime to = granularity.next(from);
+            LocalDateTime rangeFrom = from;
+            if (partitions.stream().anyMatch(p -> p.overlaps(rangeFrom, to))) {
+                continue;
+            }
+
+            if (hasStrandedRows(jdbc, from, to)) {
+                // Attaching would fail while tasks_default still holds rows for the range
+                movePeriodOutOfDefault(connection, jdbc, from, to);
+            } else {
+                String name = granularity.partitionName(from);
+                jdbc.execute(String.format("CREATE TABLE %s PARTITION OF tasks FOR VALUES FROM ('%s') TO ('%s')",
+                        name, Timestamp.valueOf(from), Timestamp.valueOf(to)));
+                log.info("Created partition {} for [{}, {})", name, from, to);
+            }
+        }
+    }
+
+    private void migrateStrandedRows(Connection connection, JdbcTemplate jdbc) throws SQLException {
+        for (int i = 0; i < maxStrandedPeriodsPerRun; i++) {
+            Timestamp oldest = jdbc.queryForObject(
+                    "SELECT min(created_at) FROM " + PartitionCatalog.DEFAULT_PARTITION, Timestamp.class);
+            if (oldest == null) {
+                return;
+            }
+
+            LocalDateTime from = granularity.floor(oldest.toLocalDateTime());
+            LocalDateTime to = granularity.next(from);
+            List<TaskPartition> partitions = PartitionCatalog.findAll(jdbc);
+            if (partitions.stream().anyMatch(p -> p.overlaps(from, to))) {
+                // Can't happen for a consistent table: an existing partition would own these rows
+                log.warn("Rows in {} overlap an existing partition for [{}, {}); skipping",
+                        PartitionCatalog.DEFAULT_PARTITION, from, to);
+                return;
+            }
+            movePeriodOutOfDefault(connection, jdbc, from, to);
+        }
+    }
+
+    /**
+     * Moves the rows of [from, to) out of tasks_default into a new partition without keeping
+     * them locked for long. They are first copied, one committed batch at a time, into a
+     * standalone table that is kept across runs, so progress survives a failure and the rows
+     * stay readable and writable in tasks_default meanwhile. A final short transaction then
+     * blocks writes to tasks_default, brings the copy up to date with the rows changed or
+     * added since, deletes the originals and attaches the table. If that step times out on
+     * its locks, only that step is repeated on the next run.
+     */
+    private void movePeriodOutOfDefault(Connection connection, JdbcTemplate jdbc,
+                                        LocalDateTime from, LocalDateTime to) throws SQLException {
+        String name = granularity.partitionName(from);
+        String range = String.format("created_at >= '%s' AND created_at < '%s'", Timestamp.valueOf(from), Timestamp.valueOf(to));
+
+        // Indexes are filled as rows arrive, and ATTACH adopts them instead of building its own
+        jdbc.execute(String.format(
+                "CREATE TABLE IF NOT EXISTS %s (LIKE tasks INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING INDEXES)", name));
+        long copied = copyInBatches(jdbc, name, range);
+
+        connection.setAutoCommit(false);
+        try {
+            // Readers are not blocked; writers to tasks_default wait until commit
+            jdbc.execute("LOCK TABLE " + PartitionCatalog.DEFAULT_PARTITION + " IN EXCLUSIVE MODE");
+            int stale = jdbc.update(String.format(
+                    "DELETE FROM %1$s s WHERE NOT EXISTS (SELECT 1 FROM %2$s d " +
+                    "WHERE d.id = s.id AND d.created_at = s.created_at AND ROW(d.*) IS NOT DISTINCT FROM ROW(s.*))",
+                    name, PartitionCatalog.DEFAULT_PARTITION));
+            int synced = jdbc.update(String.format(
+                    "INSERT INTO %1$s SELECT * FROM %2$s d WHERE %3$s " +
+                    "AND NOT EXISTS (SELECT 1 FROM %1$s s WHERE s.id = d.id AND s.created_at = d.created_at)",
+                    name, PartitionCatalog.DEFAULT_PARTITION, range));
+            int moved = jdbc.update(String.format("DELETE FROM %s WHERE %s", PartitionCatalog.DEFAULT_PARTITION, range));
+
+            // The constraint lets ATTACH skip re-validating the new table's rows
+            jdbc.execute(String.format("ALTER TABLE %s ADD CONSTRAINT %s_range CHECK (%s)", name, name, range));
+            jdbc.execute(String.format("ALTER TABLE tasks ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                    name, Timestamp.valueOf(from), Timestamp.valueOf(to)));
+            jdbc.execute(String.format("ALTER TABLE %s DROP CONSTRAINT %s_range", name, name));
+
+            connection.commit();
+            log.info("Moved {} rows from {} into new partition {} ({} copied in batches, {} stale, {} synced at attach)",
+                    moved, PartitionCatalog.DEFAULT_PARTITION, name, copied, stale, synced);
+        } catch (RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // In id order from the last row copied, so an interrupted copy resumes where it stopped
+    private long copyInBatches(JdbcTemplate jdbc, String name, String range) {
+        UUID after = jdbc.query("SELECT id FROM " + name + " ORDER BY id DESC LIMIT 1",
+                rs -> rs.next() ? rs.getObject(1, UUID.class) : NO_ID);
+        String sql = String.format(
+                "WITH copied AS (INSERT INTO %s SELECT * FROM %s WHERE %s AND id > ? ORDER BY id LIMIT %d RETURNING id) " +
+                "SELECT id, count(*) OVER () AS copied FROM copied ORDER BY id DESC LIMIT 1",
+                name, PartitionCatalog.DEFAULT_PARTITION, range, migrateBatchSize);
+        long copied = 0;
+        while (true) {
+            List<Map.Entry<UUID, Long>> batch = jdbc.query(sql,
+                    (rs, rowNum) -> Map.entry(rs.getObject("id", UUID.class), rs.getLong("copied")), after);
+            if (batch.isEmpty()) {
+                return copied;
+            }
+            after = batch.get(0).getKey();
+            copied += batch.get(0).getValue();
+        }
+    }
+
+    private void retireExpiredPartitions(Connection connection, JdbcTemplate jdbc, LocalDateTime now)
+            throws SQLException, IOException {
+        if (retention.isZero()) {
+            return;
+        }
+        LocalDateTime cutoff = granularity.floor(now.minus(retention));
+
+        for (TaskPartition partition : PartitionCatalog.findAll(jdbc)) {
+            if (!partition.isBounded() || partition.getTo().isAfter(cutoff)) {
+                continue;
+            }
+            if (retentionAction == RetentionAction.ARCHIVE && !partitionArchiver.archive(connection, partition)) {
+                continue;
+            }
+
+            // DETACH ... CONCURRENTLY is not allowed while tasks has a default partition; the
+            // plain form only needs its lock for a catalog update, bounded by lock_timeout.
+            jdbc.execute("ALTER TABLE tasks DETACH PARTITION " + partition.getName());
+
+            if (retentionAction != RetentionAction.DETACH) {
+                jdbc.execute("DROP TABLE " + partition.getName());
+            } else {
+                jdbc.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+                jdbc.execute(String.format("ALTER TABLE %s SET SCHEMA %s", partition.getName(), archiveSchema));
+            }
+            log.info("Retired partition {} ({})", partition.getName(), retentionAction);
+        }
+        if (retentionAction != RetentionAction.DETACH) {
+            purgeUnreferencedPayloads(cutoff);
+        }
+    }
+
+    // Detached partitions still reference their payloads, so only dropping frees them; archive
+    // files hold their own copy
+    private void purgeUnreferencedPayloads(LocalDateTime cutoff) {
+        int purged = 0;
+        int batch;
+        do {
+            batch = taskPayloadRepository.purgeUnreferenced(cutoff, migrateBatchSize);
+            purged += batch;
+        } while (batch == migrateBatchSize);
+        if (purged > 0) {
+            log.info("Purged {} payloads no task references any more", purged);
+        }
+    }
+
+    private boolean hasStrandedRows(JdbcTemplate jdbc, LocalDateTime from, LocalDateTime to) {
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + PartitionCatalog.DEFAULT_PARTITION +
+                " WHERE created_at >= ? AND created_at < ?)",
+                Boolean.class, Timestamp.valueOf(from), Timestamp.valueOf(to)));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.taskservice.infrastructure.partition;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A child table of {@code tasks} as described by the catalog. Bounds are null for the
+ * default partition and for MINVALUE/MAXVALUE ranges.
+ */
+@Data
+@AllArgsConstructor
+public class TaskPartition {
+    private String name;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private boolean defaultPartition;
+    private long sizeBytes;
+    private long liveRows;
+
+    public boolean isBounded() {
+        return from != null && to != null;
+    }
+
+    public boolean overlaps(LocalDateTime rangeFrom, LocalDateTime rangeTo) {
+        return isBounded() && from.isBefore(rangeTo) && rangeFrom.isBefore(to);
+    }
+}
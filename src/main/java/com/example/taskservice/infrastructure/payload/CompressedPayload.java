@@ -0,0 +1,65 @@
+package com.example.taskservice.infrastructure.payload;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A payload as kept in {@code task_payloads}: the SHA-256 of its UTF-8 bytes, which is also
+ * its key, the uncompressed size, and the deflated bytes. The worker copy of {@link #inflate}
+ * must stay compatible.
+ */
+public record CompressedPayload(byte[] hash, int size, byte[] data) {
+
+    public static CompressedPayload of(byte[] utf8, int level) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, utf8.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return new CompressedPayload(sha256(utf8), utf8.length, out.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static String inflate(byte[] data, int size) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] utf8 = new byte[size];
+            int read = 0;
+            while (read < size && !inflater.finished()) {
+                int n = inflater.inflate(utf8, read, size - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != size) {
+                throw new IllegalStateException("Stored payload is truncated: " + read + " of " + size + " bytes");
+            }
+            return new String(utf8, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Stored payload is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.taskservice.infrastructure.payload;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class TaskPayloadRepository {
+
+    // A payload stored before is only marked as referenced again; its bytes are not rewritten
+    private static final String UPSERT_SQL =
+            "INSERT INTO task_payloads (hash, size, data) VALUES (?, ?, ?) " +
+            "ON CONFLICT (hash) DO UPDATE SET referenced_at = NOW()";
+
+    private static final String FIND_SQL =
+            "SELECT size, data FROM task_payloads WHERE hash = ?";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM task_payloads WHERE hash IN (" +
+            "SELECT p.hash FROM task_payloads p WHERE p.referenced_at < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM tasks t WHERE t.payload_ref = p.hash) LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stores each distinct payload once. Callers pass every hash at most once: the driver
+     * rewrites a batch into one multi-row INSERT, and ON CONFLICT cannot touch a row twice
+     * in one statement. Rows are written in hash order so concurrent batches sharing
+     * payloads lock them in the same order and cannot deadlock.
+     */
+    public void saveAll(Collection<CompressedPayload> payloads, int batchSize) {
+        List<CompressedPayload> ordered = payloads.stream()
+                .sorted(Comparator.comparing(CompressedPayload::hash, Arrays::compareUnsigned))
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, ordered, batchSize, (ps, payload) -> {
+            ps.setBytes(1, payload.hash());
+            ps.setInt(2, payload.size());
+            ps.setBytes(3, payload.data());
+        });
+    }
+
+    public Optional<String> find(byte[] hash) {
+        return jdbcTemplate.query(FIND_SQL,
+                (rs, rowNum) -> CompressedPayload.inflate(rs.getBytes("data"), rs.getInt("size")),
+                (Object) hash).stream().findFirst();
+    }
+
+    /**
+     * Deletes up to {@code limit} payloads no task references and none has reused since
+     * {@code before}. Returns how many were deleted.
+     */
+    public int purgeUnreferenced(LocalDateTime before, int limit) {
+        return jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(before), limit);
+    }
+}
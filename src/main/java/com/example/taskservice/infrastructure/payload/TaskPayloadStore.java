@@ -0,0 +1,154 @@
+package com.example.taskservice.infrastructure.payload;
+
+import com.example.taskservice.domain.model.Task;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Claim check for large payloads. A payload of at least {@code claim-check-threshold} bytes
+ * is stored deflated in {@code task_payloads}, once per distinct content, and the task row
+ * references it by hash. Its payload column then holds only the configured
+ * {@code indexed-paths}, so the GIN index and the containment filters still see those, and
+ * its Kafka event carries no payload at all: the worker reads it from the store along with
+ * the task. Smaller payloads stay inline, where they cost less than the extra lookup.
+ */
+@Component
+public class TaskPayloadStore {
+
+    private final TaskPayloadRepository taskPayloadRepository;
+    private final ObjectMapper objectMapper;
+    private final long threshold;
+    private final List<String[]> indexedPaths;
+    private final int compressionLevel;
+    private final int batchSize;
+    private final Counter claimChecked;
+    private final DistributionSummary storedBytes;
+
+    public TaskPayloadStore(TaskPayloadRepository taskPayloadRepository,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            // 0 keeps every payload inline
+                            @Value("${app.tasks.payload.claim-check-threshold:16KB}") DataSize threshold,
+                            // Dotted paths into the payload object, e.g. customerId,order.region
+                            @Value("${app.tasks.payload.indexed-paths:}") List<String> indexedPaths,
+                            @Value("${app.tasks.payload.compression-level:1}") int compressionLevel,
+                            @Value("${app.tasks.batch.jdbc-batch-size:500}") int batchSize) {
+        this.taskPayloadRepository = taskPayloadRepository;
+        this.objectMapper = objectMapper;
+        this.threshold = threshold.toBytes();
+        this.indexedPaths = indexedPaths.stream()
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .map(path -> path.split("\\."))
+                .toList();
+        this.compressionLevel = compressionLevel;
+        this.batchSize = batchSize;
+        this.claimChecked = meterRegistry.counter("task.payload.claim_checked");
+        this.storedBytes = DistributionSummary.builder("task.payload.stored.bytes")
+                .description("Deflated size of claim-checked payloads")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Moves the payloads of {@code tasks} that reach the threshold into the store and sets
+     * their {@code payloadRef}; the tasks keep the whole payload in memory. Returns, by task
+     * id, what their payload column holds instead. Must run in the transaction that inserts
+     * the tasks.
+     */
+    public Map<UUID, String> offload(List<Task> tasks) {
+        if (threshold <= 0) {
+            return Map.of();
+        }
+        Map<UUID, String> indexed = new HashMap<>();
+        Map<ByteBuffer, CompressedPayload> distinct = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            String payload = task.getPayload();
+            // A char is at most 3 UTF-8 bytes, so most payloads are ruled out without encoding them
+            if ((long) payload.length() * 3 < threshold) {
+                continue;
+            }
+            byte[] utf8 = payload.getBytes(StandardCharsets.UTF_8);
+            if (utf8.length < threshold) {
+                continue;
+            }
+            CompressedPayload compressed = CompressedPayload.of(utf8, compressionLevel);
+            if (distinct.putIfAbsent(ByteBuffer.wrap(compressed.hash()), compressed) == null) {
+                storedBytes.record(compressed.data().length);
+            }
+            task.setPayloadRef(compressed.hash());
+            indexed.put(task.getId(), indexedPaths(payload));
+        }
+        if (!distinct.isEmpty()) {
+            taskPayloadRepository.saveAll(distinct.values(), batchSize);
+            claimChecked.increment(indexed.size());
+        }
+        return indexed;
+    }
+
+    /**
+     * Replaces the indexed paths of a claim-checked task with its whole payload.
+     */
+    public Task resolve(Task task) {
+        if (task.isClaimChecked()) {
+            task.setPayload(taskPayloadRepository.find(task.getPayloadRef())
+                    .orElseThrow(() -> new IllegalStateException("Payload of task " + task.getId() + " is missing")));
+        }
+        return task;
+    }
+
+    /**
+     * The configured paths of {@code payload} in a document of the same shape; paths the
+     * payload does not have are left out. Anything but an object keeps nothing.
+     */
+    String indexedPaths(String payload) {
+        if (indexedPaths.isEmpty()) {
+            return "{}";
+        }
+        try {
+            JsonNode root = objectMapper.readTree(payload);
+            ObjectNode kept = objectMapper.createObjectNode();
+            if (root.isObject()) {
+                for (String[] path : indexedPaths) {
+                    copy(root, kept, path);
+                }
+            }
+            return objectMapper.writeValueAsString(kept);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("payload must be valid JSON");
+        }
+    }
+
+    private static void copy(JsonNode from, ObjectNode to, String[] path) {
+        JsonNode value = from;
+        for (String field : path) {
+            value = value.path(field);
+        }
+        if (value.isMissingNode()) {
+            return;
+        }
+        ObjectNode parent = to;
+        for (String field : Arrays.copyOf(path, path.length - 1)) {
+            JsonNode child = parent.get(field);
+            parent = child instanceof ObjectNode object ? object : parent.putObject(field);
+        }
+        parent.set(path[path.length - 1], value.deepCopy());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.taskservice.infrastructure.ratelimit;
+
+import com.example.taskservice.infrastructure.messaging.TaskProducer;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Turns saturation downstream of the API into a factor between
+ * {@code app.rate-limiting.backpressure.min-factor} and 1 that scales every rate limit.
+ * The signals are the Kafka producer's buffer usage, primary pool saturation (in-use plus
+ * waiting connections per pool slot) and the age of the oldest unpublished outbox row.
+ * Each one maps to a pressure between 0 and 1 through its thresholds, and the worst one
+ * sets the factor. Limits tighten at once but recover a quarter of the way per refresh, so
+ * a brief dip does not release the whole backlog at once.
+ */
+@Slf4j
+@Component
+public class BackpressureMonitor {
+
+    private static final double RECOVERY_STEP = 0.25;
+
+    private final RateLimitProperties.Backpressure properties;
+    private final TaskProducer taskProducer;
+    private final DataSource primaryDataSource;
+    private final MeterRegistry meterRegistry;
+
+    private volatile double factor = 1;
+    private volatile double producerBufferPressure;
+    private volatile double dbPoolPressure;
+    private volatile double outboxLagPressure;
+
+    public BackpressureMonitor(RateLimitProperties properties,
+                               TaskProducer taskProducer,
+                               @Qualifier("primaryDataSource") DataSource primaryDataSource,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties.getBackpressure();
+        this.taskProducer = taskProducer;
+        this.primaryDataSource = primaryDataSource;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("rate.limit.factor", this, BackpressureMonitor::factor)
+                .description("Share of the configured rate limits currently granted")
+                .register(meterRegistry);
+        registerPressure("producer-buffer", m -> m.producerBufferPressure);
+        registerPressure("db-pool", m -> m.dbPoolPressure);
+        registerPressure("outbox-lag", m -> m.outboxLagPressure);
+    }
+
+    public double factor() {
+        return factor;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limiting.backpressure.refresh-ms:1000}")
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            producerBufferPressure = properties.getProducerBuffer().pressure(taskProducer.bufferUsage());
+            dbPoolPressure = properties.getDbPool().pressure(dbPoolSaturation());
+            outboxLagPressure = properties.getOutboxLagSeconds().pressure(outboxLagSeconds());
+        } catch (Exception e) {
+            log.warn("Could not sample backpressure signals: {}", e.getMessage());
+            return;
+        }
+
+        double pressure = Math.max(producerBufferPressure, Math.max(dbPoolPressure, outboxLagPressure));
+        double target = 1 - pressure * (1 - properties.getMinFactor());
+        double previous = factor;
+        double next = target < previous ? target : previous + (target - previous) * RECOVERY_STEP;
+        factor = Math.abs(target - next) < 0.01 ? target : next;
+        if (target < previous && previous == 1) {
+            log.warn("Tightening rate limits to {}% under backpressure", Math.round(target * 100));
+        }
+    }
+
+    private double dbPoolSaturation() {
+        if (primaryDataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool != null) {
+                return (pool.getActiveConnections() + pool.getThreadsAwaitingConnection())
+                        / (double) hikari.getMaximumPoolSize();
+            }
+        }
+        return 0;
+    }
+
+    // Published by the OutboxRelay; absent on instances that run without it
+    private double outboxLagSeconds() {
+        Gauge lag = meterRegistry.find("outbox.lag.seconds").gauge();
+        return lag != null && Double.isFinite(lag.value()) ? lag.value() : 0;
+    }
+
+    private void registerPressure(String signal, ToDoubleFunction<BackpressureMonitor> value) {
+        Gauge.builder("rate.limit.pressure", this, value)
+                .description("Backpressure signal from 0 (none) to 1 (limits at their minimum)")
+                .tag("signal", signal)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.taskservice.infrastructure.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * The key identity rate limits are kept per: the configured client header, or else the
+ * remote address. Behind the load balancer every request has the same remote address, so
+ * callers are expected to send the header; the address is only a fallback for direct calls.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClientKeyResolver {
+
+    // Keeps a hostile header from creating arbitrarily large Redis keys
+    private static final int MAX_CLIENT_LENGTH = 128;
+
+    private final RateLimitProperties properties;
+
+    public String resolve(HttpServletRequest request) {
+        String client = request.getHeader(properties.getClientHeader());
+        if (client != null && !client.isBlank()) {
+            client = client.strip();
+            return "client:" + (client.length() > MAX_CLIENT_LENGTH ? client.substring(0, MAX_CLIENT_LENGTH) : client);
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.taskservice.infrastructure.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cluster-wide token buckets that are not consulted on every request. The authoritative
+ * bucket is a Redisson rate limiter in Redis. Each instance leases a slice of it,
+ * {@code app.rate-limiting.lease.fraction} of the capacity but at least
+ * {@code lease.min-tokens}, into a local balance and serves requests from that balance until
+ * it runs out. Redis therefore sees one call per lease instead of one per request; without
+ * the floor a small per-client bucket would lease only a token or two at a time. Leased
+ * tokens expire after {@code lease.ttl}, so the cluster can overshoot a limit by at most one
+ * lease per instance within that window.
+ * <p>
+ * Costs are divided by the {@link BackpressureMonitor} factor: while downstream systems are
+ * saturated every request spends more tokens and the effective limit drops with it.
+ * If Redis is unreachable requests are let through; the API must not go down with the
+ * limiter's store.
+ */
+@Slf4j
+@Component
+public class LeasedRateLimiter {
+
+    public record Decision(boolean allowed, long retryAfterSeconds) {
+        static final Decision ALLOWED = new Decision(true, 0);
+    }
+
+    private static final class Lease {
+        double tokens;
+        long expiresAtNanos;
+        boolean rateSet;
+    }
+
+    private final RedissonClient redissonClient;
+    private final RateLimitProperties properties;
+    private final BackpressureMonitor backpressureMonitor;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    private final Counter leasesGranted;
+    private final Counter leasesDenied;
+    private final Counter redisErrors;
+
+    public LeasedRateLimiter(RedissonClient redissonClient,
+                             RateLimitProperties properties,
+                             BackpressureMonitor backpressureMonitor,
+                             MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.properties = properties;
+        this.backpressureMonitor = backpressureMonitor;
+        this.leasesGranted = meterRegistry.counter("rate.limit.leases", "outcome", "granted");
+        this.leasesDenied = meterRegistry.counter("rate.limit.leases", "outcome", "denied");
+        this.redisErrors = meterRegistry.counter("rate.limit.leases", "outcome", "error");
+
+        Gauge.builder("rate.limit.leases.active", leases, Map::size)
+                .description("Buckets this instance currently holds a lease on")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes {@code tokens} from the bucket {@code key}, creating it with {@code rate} on first use.
+     */
+    public Decision tryAcquire(String key, Rate rate, int tokens) {
+        double cost = tokens / backpressureMonitor.factor();
+        if (cost > rate.permits()) {
+            return new Decision(false, retryAfter(cost, rate));
+        }
+
+        Lease lease = leases.computeIfAbsent(key, k -> new Lease());
+        // One lease request per bucket at a time; the others wait for its tokens
+        synchronized (lease) {
+            long now = System.nanoTime();
+            if (now - lease.expiresAtNanos > 0) {
+                lease.tokens = 0;
+            }
+            if (lease.tokens >= cost) {
+                lease.tokens -= cost;
+                return Decision.ALLOWED;
+            }
+
+            long needed = (long) Math.ceil(cost - lease.tokens);
+            long slice = Math.max(Math.round(rate.permits() * properties.getLease().getFraction()), properties.getLease().getMinTokens());
+            long wanted = Math.min(rate.permits(), Math.max(needed, slice));
+            try {
+                RRateLimiter limiter = redissonClient.getRateLimiter("rate-limit:" + key);
+                if (!lease.rateSet) {
+                    limiter.trySetRate(RateType.OVERALL, rate.permits(), rate.interval().toMillis(), RateIntervalUnit.MILLISECONDS);
+                    lease.rateSet = true;
+                }
+
+                long granted = limiter.tryAcquire(wanted) ? wanted
+                        : wanted > needed && limiter.tryAcquire(needed) ? needed : 0;
+                if (granted == 0) {
+                    leasesDenied.increment();
+                    return new Decision(false, retryAfter(needed, rate));
+                }
+                leasesGranted.increment();
+                lease.tokens += granted - cost;
+                lease.expiresAtNanos = now + properties.getLease().getTtl().toNanos();
+                return Decision.ALLOWED;
+            } catch (Exception e) {
+                log.warn("Rate limiter store unavailable, allowing request for {}: {}", key, e.getMessage());
+                redisErrors.increment();
+                return Decision.ALLOWED;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limiting.lease.sweep-ms:60000}")
+    public void sweepExpiredLeases() {
+        long now = System.nanoTime();
+        // Idle clients would otherwise accumulate forever; their leased tokens are void anyway
+        leases.values().removeIf(lease -> {
+            synchronized (lease) {
+                return now - lease.expiresAtNanos > 0;
+            }
+        });
+    }
+
+    // Time for the bucket to refill the missing tokens at the current effective rate
+    private long retryAfter(double tokens, Rate rate) {
+        return Math.max(1, (long) Math.ceil(tokens / rate.perSecond()));
+    }
+}
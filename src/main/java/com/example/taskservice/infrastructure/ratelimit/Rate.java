@@ -0,0 +1,17 @@
+package com.example.taskservice.infrastructure.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * A token bucket of {@code permits} that refills completely over {@code interval}.
+ */
+public record Rate(long permits, Duration interval) {
+
+    public static Rate of(double replenishPerSecond, long burstCapacity) {
+        return new Rate(burstCapacity, Duration.ofMillis(Math.max(1, Math.round(burstCapacity / replenishPerSecond * 1000))));
+    }
+
+    public double perSecond() {
+        return permits * 1000.0 / interval.toMillis();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.taskservice.infrastructure.ratelimit;
+
+import com.example.taskservice.infrastructure.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Applies {@code app.rate-limiting.limits} per client, as identified by
+ * {@link ClientKeyResolver}. A request matching several limits is charged against each, and
+ * the first one that refuses answers {@code 429} with a {@code Retry-After} header.
+ * Registered by {@link com.example.taskservice.infrastructure.config.RateLimiterConfig}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final LeasedRateLimiter rateLimiter;
+    private final ClientKeyResolver clientKeyResolver;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String client = null;
+
+        for (RateLimitProperties.Limit limit : properties.getLimits()) {
+            if (!matches(limit, request.getMethod(), path)) {
+                continue;
+            }
+            if (client == null) {
+                client = clientKeyResolver.resolve(request);
+            }
+            String bucket = (limit.getMethod() != null ? limit.getMethod() : "ANY") + " " + limit.getPath() + ":" + client;
+            LeasedRateLimiter.Decision decision = rateLimiter.tryAcquire(bucket, limit.toRate(), limit.getRequestedTokens());
+            if (!decision.allowed()) {
+                log.warn("Rate limit exceeded for {} on {} {}", client, request.getMethod(), path);
+                meterRegistry.counter("rate.limit.rejected", "limit", limit.getPath()).increment();
+                reject(response, decision.retryAfterSeconds());
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private boolean matches(RateLimitProperties.Limit limit, String method, String path) {
+        return (limit.getMethod() == null || limit.getMethod().equalsIgnoreCase(method))
+                && pathMatcher.match(limit.getPath(), path);
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded", LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.taskservice.infrastructure.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.rate-limiting")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Identifies the caller; requests without it are keyed on the remote address
+    private String clientHeader = "X-Client-Id";
+
+    private List<Limit> limits = new ArrayList<>();
+    private Batch batch = new Batch();
+    private Lease lease = new Lease();
+    private Backpressure backpressure = new Backpressure();
+
+    @Data
+    public static class Limit {
+        // Ant-style pattern matched against the request path
+        private String path;
+        // Any method when unset
+        private String method;
+        // Tokens per second per client
+        private double replenishRate;
+        private long burstCapacity;
+        private int requestedTokens = 1;
+
+        public Rate toRate() {
+            return Rate.of(replenishRate, burstCapacity);
+        }
+    }
+
+    @Data
+    public static class Batch {
+        // Charged per item; must be at least app.tasks.batch.max-size
+        private long itemsPerInterval = 10000;
+        private long intervalSeconds = 60;
+
+        public Rate toRate() {
+            return new Rate(itemsPerInterval, Duration.ofSeconds(intervalSeconds));
+        }
+    }
+
+    @Data
+    public static class Lease {
+        // Share of a bucket's capacity an instance takes from Redis at once
+        private double fraction = 0.1;
+        // Floor on a lease, so small per-client buckets still take several requests per Redis call
+        private long minTokens = 10;
+        // Leased tokens not spent by then are dropped, so idle instances do not hoard capacity
+        private Duration ttl = Duration.ofSeconds(1);
+        private long sweepMs = 60000;
+    }
+
+    @Data
+    public static class Backpressure {
+        private boolean enabled = true;
+        private long refreshMs = 1000;
+        // Limits never tighten below this share of their configured rate
+        private double minFactor = 0.1;
+        // Each signal starts tightening at `start` and reaches min-factor at `full`
+        private Threshold producerBuffer = new Threshold(0.5, 0.9);
+        private Threshold dbPool = new Threshold(0.8, 1.5);
+        private Threshold outboxLagSeconds = new Threshold(5, 60);
+    }
+
+    @Data
+    public static class Threshold {
+        private double start;
+        private double full;
+
+        public Threshold() {
+        }
+
+        public Threshold(double start, double full) {
+            this.start = start;
+            this.full = full;
+        }
+
+        /**
+         * 0 below {@code start}, 1 at or above {@code full}, linear in between.
+         */
+        public double pressure(double value) {
+            if (value <= start) {
+                return 0;
+            }
+            return full > start ? Math.min(1, (value - start) / (full - start)) : 1;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.taskservice.infrastructure.reaper;
+
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.domain.model.TaskStatus;
+import com.example.taskservice.infrastructure.outbox.OutboxEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An active task that has not changed for longer than its status allows.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StuckTask {
+    private UUID id;
+    private LocalDateTime createdAt;
+    private TaskStatus status;
+    private String taskType;
+    private TaskPriority priority;
+    private String payload;
+    private LocalDateTime updatedAt;
+    private int reapCount;
+
+    public OutboxEvent toOutboxEvent() {
+        return OutboxEvent.of(id, taskType, priority, payload, null);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.taskservice.infrastructure.reaper;
+
+import com.example.taskservice.domain.model.TaskStatus;
+import com.example.taskservice.infrastructure.notification.TaskStatusNotifications;
+import com.example.taskservice.infrastructure.outbox.OutboxRepository;
+import com.example.taskservice.infrastructure.partition.PartitionCatalog;
+import com.example.taskservice.infrastructure.partition.TaskPartition;
+import com.example.taskservice.infrastructure.ratelimit.BackpressureMonitor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Finds active tasks that stopped moving and gets them going again. A task stays PENDING
+ * forever when its event never reaches a worker that finishes it: the consumer's error
+ * handler gave up on the record, or the record aged out of the topic. A RETRYING task is
+ * stuck once its parked retry is gone. Each pass walks every partition and status, claims
+ * the stalest tasks with {@code SKIP LOCKED} so any number of instances can reap at once,
+ * and writes each one an outbox event again. A task reaped {@code max-republish} times is
+ * failed instead. Republishing a task that was only slow costs a duplicate record: workers
+ * skip it once the task is finished. The version bump keeps the slow worker from
+ * overwriting the reaper's decision. In record mode its JPA save fails at commit; in batch
+ * and parallel mode its status write no longer matches the version and is dropped.
+ * <p>
+ * The reaper never competes with the hot path: it pauses while the backpressure factor is
+ * below 1, paces itself to {@code max-rate} tasks per second, and stops a pass after
+ * {@code max-per-pass} tasks.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "app.tasks.reaper.enabled", havingValue = "true", matchIfMissing = true)
+public class StuckTaskReaper {
+
+    private static final List<TaskStatus> ACTIVE = List.of(TaskStatus.PENDING, TaskStatus.PROCESSING, TaskStatus.RETRYING);
+
+    private final StuckTaskRepository stuckTaskRepository;
+    private final OutboxRepository outboxRepository;
+    private final PartitionCatalog partitionCatalog;
+    private final BackpressureMonitor backpressureMonitor;
+    private final TaskStatusNotifications notifications;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<TaskStatus, Duration> staleAfter = new EnumMap<>(TaskStatus.class);
+    private final Map<TaskStatus, Timer> ages = new EnumMap<>(TaskStatus.class);
+    private final Counter skippedPasses;
+
+    @Value("${app.tasks.reaper.batch-size:100}")
+    private int batchSize;
+
+    // Tasks per second per instance
+    @Value("${app.tasks.reaper.max-rate:200}")
+    private int maxRate;
+
+    @Value("${app.tasks.reaper.max-per-pass:10000}")
+    private int maxPerPass;
+
+    @Value("${app.tasks.reaper.max-republish:3}")
+    private int maxRepublish;
+
+    public StuckTaskReaper(StuckTaskRepository stuckTaskRepository,
+                           OutboxRepository outboxRepository,
+                           PartitionCatalog partitionCatalog,
+                           BackpressureMonitor backpressureMonitor,
+                           TaskStatusNotifications notifications,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           // Longer than a task may take, and than the worker's lock TTL
+                           @Value("${app.tasks.reaper.stale-after.pending:30m}") Duration pendingStaleAfter,
+                           @Value("${app.tasks.reaper.stale-after.processing:15m}") Duration processingStaleAfter,
+                           @Value("${app.tasks.reaper.stale-after.retrying:15m}") Duration retryingStaleAfter) {
+        this.stuckTaskRepository = stuckTaskRepository;
+        this.outboxRepository = outboxRepository;
+        this.partitionCatalog = partitionCatalog;
+        this.backpressureMonitor = backpressureMonitor;
+        this.notifications = notifications;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        staleAfter.put(TaskStatus.PENDING, pendingStaleAfter);
+        staleAfter.put(TaskStatus.PROCESSING, processingStaleAfter);
+        staleAfter.put(TaskStatus.RETRYING, retryingStaleAfter);
+
+        for (TaskStatus status : ACTIVE) {
+            ages.put(status, Timer.builder("tasks.reaped.age")
+                    .description("How long reaped tasks had been unchanged")
+                    .tag("status", status.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.skippedPasses = meterRegistry.counter("tasks.reaper.skipped");
+    }
+
+    @Scheduled(fixedDelayString = "${app.tasks.reaper.interval-ms:60000}")
+    public void reap() {
+        if (backpressureMonitor.factor() < 1) {
+            skippedPasses.increment();
+            log.debug("Skipping stuck task pass under backpressure");
+            return;
+        }
+        try {
+            int reaped = 0;
+            for (TaskPartition partition : partitionCatalog.findAll()) {
+                for (TaskStatus status : ACTIVE) {
+                    int batch;
+                    do {
+                        batch = reapBatch(partition.getName(), status, Math.min(batchSize, maxPerPass - reaped));
+                        reaped += batch;
+                        pace(batch);
+                    } while (batch == batchSize && reaped < maxPerPass);
+                    if (reaped >= maxPerPass) {
+                        log.info("Reaped {} stuck tasks; the rest wait for the next pass", reaped);
+                        return;
+                    }
+                }
+            }
+            if (reaped > 0) {
+                log.info("Reaped {} stuck tasks", reaped);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Stuck task pass failed", e);
+        }
+    }
+
+    private int reapBatch(String partition, TaskStatus status, int limit) {
+        Integer reaped = transactionTemplate.execute(tx -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<StuckTask> stuck = stuckTaskRepository.claimStale(partition, status, now.minus(staleAfter.get(status)), limit);
+            if (stuck.isEmpty()) {
+                return 0;
+            }
+            Map<Boolean, List<StuckTask>> byExhausted = stuck.stream()
+                    .collect(Collectors.partitioningBy(task -> task.getReapCount() >= maxRepublish));
+
+            List<StuckTask> republished = byExhausted.get(false);
+            outboxRepository.saveAll(republished.stream().map(StuckTask::toOutboxEvent).toList(), batchSize);
+            stuckTaskRepository.republish(partition, republished);
+
+            List<StuckTask> failed = byExhausted.get(true);
+            stuckTaskRepository.fail(partition, failed);
+            notifications.publish(failed.stream().collect(Collectors.toMap(StuckTask::getId, task -> TaskStatus.FAILED)));
+
+            for (StuckTask task : stuck) {
+                ages.get(status).record(Duration.between(task.getUpdatedAt(), now));
+            }
+            count(status, "republished", republished.size());
+            count(status, "failed", failed.size());
+            if (!failed.isEmpty()) {
+                log.warn("Failed {} tasks stuck in {} after {} republishes: {}", failed.size(), status, maxRepublish,
+                        failed.stream().map(StuckTask::getId).toList());
+            }
+            return stuck.size();
+        });
+        return Objects.requireNonNullElse(reaped, 0);
+    }
+
+    private void count(TaskStatus status, String action, int count) {
+        if (count > 0) {
+            meterRegistry.counter("tasks.reaped", "status", status.name().toLowerCase(), "action", action).increment(count);
+        }
+    }
+
+    private void pace(int batch) throws InterruptedException {
+        if (batch > 0 && maxRate > 0) {
+            Thread.sleep(batch * 1000L / maxRate);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.taskservice.infrastructure.reaper;
+
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.domain.model.TaskStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Queries one partition of {@code tasks} at a time, so every statement is answered from
+ * that partition's {@code (status, updated_at)} partial index alone.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StuckTaskRepository {
+
+    // Stalest first, in index order. SKIP LOCKED gives concurrent reapers disjoint batches and
+    // passes over rows a worker is writing right now. A RETRYING task with a parked retry is
+    // only waiting for its backoff, not stuck. Claim-checked payloads stay out of the event.
+    private static final String CLAIM_SQL =
+            "SELECT id, created_at, status, task_type, priority, " +
+            "CASE WHEN payload_ref IS NULL THEN payload::text END AS payload, updated_at, reap_count FROM %s t " +
+            "WHERE status = ? AND updated_at < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM scheduled_tasks s WHERE s.task_id = t.id AND s.attempt > 0) " +
+            "ORDER BY updated_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    // Bumping the version keeps a worker still holding the old row from overwriting the
+    // reaper's decision: every worker write, JPA save or fenced status batch, checks it
+    private static final String REPUBLISH_SQL =
+            "UPDATE %s SET status = 'PENDING', reap_count = reap_count + 1, version = version + 1 WHERE id = ANY(?)";
+
+    private static final String FAIL_SQL =
+            "UPDATE %s SET status = 'FAILED', version = version + 1 WHERE id = ANY(?)";
+
+    private static final RowMapper<StuckTask> ROW_MAPPER = (rs, rowNum) -> new StuckTask(
+            rs.getObject("id", UUID.class),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            TaskStatus.valueOf(rs.getString("status")),
+            rs.getString("task_type"),
+            TaskPriority.valueOf(rs.getString("priority")),
+            rs.getString("payload"),
+            rs.getTimestamp("updated_at").toLocalDateTime(),
+            rs.getInt("reap_count")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Locks up to {@code limit} tasks of {@code partition} that have been in {@code status}
+     * since before {@code staleBefore}. Must run inside a transaction with what is done to them.
+     */
+    public List<StuckTask> claimStale(String partition, TaskStatus status, LocalDateTime staleBefore, int limit) {
+        return jdbcTemplate.query(String.format(CLAIM_SQL, partition), ROW_MAPPER,
+                status.name(), Timestamp.valueOf(staleBefore), limit);
+    }
+
+    public int republish(String partition, List<StuckTask> tasks) {
+        return update(REPUBLISH_SQL, partition, tasks);
+    }
+
+    public int fail(String partition, List<StuckTask> tasks) {
+        return update(FAIL_SQL, partition, tasks);
+    }
+
+    private int update(String sql, String partition, List<StuckTask> tasks) {
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        UUID[] ids = tasks.stream().map(StuckTask::getId).toArray(UUID[]::new);
+        return jdbcTemplate.update(String.format(sql, partition), (Object) ids);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.taskservice.infrastructure.schedule;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.infrastructure.outbox.OutboxEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledTask {
+    private UUID taskId;
+    private LocalDateTime taskCreatedAt;
+    private String taskType;
+    private TaskPriority priority;
+    private String payload;
+    private String correlationId;
+    private LocalDateTime runAt;
+    // Attempt the task runs as once released; 0 when scheduled by its submitter, 2 and up
+    // when a worker parked it for retry
+    private int attempt;
+
+    public static ScheduledTask of(Task task, String correlationId) {
+        return new ScheduledTask(task.getId(), task.getCreatedAt(), task.getTaskType(), task.getPriority(),
+                task.eventPayload(), correlationId, task.getRunAt(), 0);
+    }
+
+    public boolean isRetry() {
+        return attempt > 0;
+    }
+
+    public OutboxEvent toOutboxEvent() {
+        return OutboxEvent.of(taskId, taskType, priority, payload, correlationId);
+    }
+}
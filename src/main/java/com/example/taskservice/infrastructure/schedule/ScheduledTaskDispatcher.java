@@ -0,0 +1,126 @@
+package com.example.taskservice.infrastructure.schedule;
+
+import com.example.taskservice.infrastructure.outbox.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Releases delayed tasks when they come due. Each pass claims due rows from
+ * {@code scheduled_tasks} with {@code SKIP LOCKED}, so every instance can dispatch at the
+ * same time on disjoint batches. In the same transaction it writes their outbox events and
+ * flips the tasks to PENDING. The {@link com.example.taskservice.infrastructure.outbox.OutboxRelay}
+ * then publishes them through the regular producer, one topic per priority.
+ * A pass keeps going while batches come back full, so a burst of tasks due at the same
+ * second is drained without waiting for the next poll.
+ * <p>
+ * Workers park failed tasks in the same table with their backoff as {@code runAt}, so
+ * retries come back through here too; their dispatch delay is tagged {@code kind=retry}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "app.tasks.schedule.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class ScheduledTaskDispatcher {
+
+    private final ScheduledTaskRepository scheduledTaskRepository;
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter dispatchedCounter;
+    private final Timer scheduledDispatchDelay;
+    private final Timer retryDispatchDelay;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong overdueMillis = new AtomicLong();
+
+    @Value("${app.tasks.schedule.dispatcher.batch-size:1000}")
+    private int batchSize;
+
+    public ScheduledTaskDispatcher(ScheduledTaskRepository scheduledTaskRepository,
+                                   OutboxRepository outboxRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry) {
+        this.scheduledTaskRepository = scheduledTaskRepository;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.dispatchedCounter = meterRegistry.counter("scheduled.tasks.dispatched");
+        this.scheduledDispatchDelay = dispatchDelay("scheduled", meterRegistry);
+        this.retryDispatchDelay = dispatchDelay("retry", meterRegistry);
+
+        Gauge.builder("scheduled.tasks.pending", pending, AtomicLong::get)
+                .description("Estimated tasks waiting for their runAt, retries included")
+                .register(meterRegistry);
+        Gauge.builder("task.retry.queue.depth", retries, AtomicLong::get)
+                .description("Failed tasks parked until their next attempt")
+                .register(meterRegistry);
+        Gauge.builder("scheduled.tasks.overdue.seconds", overdueMillis, overdue -> overdue.get() / 1000.0)
+                .description("How long the earliest due task has been waiting for dispatch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.tasks.schedule.dispatcher.poll-interval-ms:100}")
+    public void dispatch() {
+        try {
+            int dispatched;
+            do {
+                dispatched = dispatchBatch();
+            } while (dispatched == batchSize);
+        } catch (Exception e) {
+            log.error("Scheduled task dispatch failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.tasks.schedule.metrics.refresh-ms:5000}")
+    public void refreshMetrics() {
+        pending.set(scheduledTaskRepository.estimatePending());
+        retries.set(scheduledTaskRepository.countRetries());
+        LocalDateTime now = LocalDateTime.now();
+        overdueMillis.set(scheduledTaskRepository.earliestRunAt()
+                .map(earliest -> Math.max(0, Duration.between(earliest, now).toMillis()))
+                .orElse(0L));
+    }
+
+    private int dispatchBatch() {
+        Integer dispatched = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<ScheduledTask> due = scheduledTaskRepository.claimDue(now, batchSize);
+            if (due.isEmpty()) {
+                return 0;
+            }
+
+            outboxRepository.saveAll(due.stream().map(ScheduledTask::toOutboxEvent).toList(), batchSize);
+            scheduledTaskRepository.release(due);
+
+            for (ScheduledTask task : due) {
+                (task.isRetry() ? retryDispatchDelay : scheduledDispatchDelay).record(Duration.between(task.getRunAt(), now));
+            }
+            return due.size();
+        });
+        int count = dispatched != null ? dispatched : 0;
+        if (count > 0) {
+            dispatchedCounter.increment(count);
+            log.debug("Dispatched {} scheduled tasks", count);
+        }
+        return count;
+    }
+
+    private static Timer dispatchDelay(String kind, MeterRegistry meterRegistry) {
+        return Timer.builder("scheduled.tasks.dispatch.delay")
+                .description("How late scheduled tasks were handed to the outbox, relative to runAt")
+                .tag("kind", kind)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.taskservice.infrastructure.schedule;
+
+import com.example.taskservice.domain.model.TaskPriority;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class ScheduledTaskRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO scheduled_tasks (task_id, task_created_at, task_type, priority, payload, correlation_id, run_at, attempt) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Claims and removes due rows in one statement; SKIP LOCKED gives concurrent dispatchers
+    // disjoint batches, and the rows come back only if the surrounding transaction commits
+    private static final String CLAIM_DUE_SQL =
+            "WITH due AS (SELECT id FROM scheduled_tasks WHERE run_at <= ? " +
+            "ORDER BY run_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "DELETE FROM scheduled_tasks s USING due WHERE s.id = due.id " +
+            "RETURNING s.task_id, s.task_created_at, s.task_type, s.priority, s.payload, s.correlation_id, s.run_at, s.attempt";
+
+    // The created_at range lets Postgres prune the update to the partitions involved.
+    // Workers park failed tasks as RETRYING; both kinds go back to PENDING.
+    private static final String RELEASE_SQL =
+            "UPDATE tasks SET status = 'PENDING' WHERE id = ANY(?) AND created_at BETWEEN ? AND ? " +
+            "AND status IN ('SCHEDULED', 'RETRYING')";
+
+    // Planner estimate: the table may hold millions of future rows, too many to count often
+    private static final String ESTIMATE_SQL =
+            "SELECT greatest(reltuples, 0)::bigint FROM pg_class WHERE oid = 'scheduled_tasks'::regclass";
+
+    private static final RowMapper<ScheduledTask> ROW_MAPPER = (rs, rowNum) -> new ScheduledTask(
+            rs.getObject("task_id", UUID.class),
+            rs.getTimestamp("task_created_at").toLocalDateTime(),
+            rs.getString("task_type"),
+            TaskPriority.values()[rs.getInt("priority")],
+            rs.getString("payload"),
+            rs.getString("correlation_id"),
+            rs.getTimestamp("run_at").toLocalDateTime(),
+            rs.getInt("attempt")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void saveAll(List<ScheduledTask> tasks, int batchSize) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, tasks, batchSize, (ps, task) -> {
+            ps.setObject(1, task.getTaskId());
+            ps.setTimestamp(2, Timestamp.valueOf(task.getTaskCreatedAt()));
+            ps.setString(3, task.getTaskType());
+            ps.setInt(4, task.getPriority().ordinal());
+            ps.setString(5, task.getPayload());
+            ps.setString(6, task.getCorrelationId());
+            ps.setTimestamp(7, Timestamp.valueOf(task.getRunAt()));
+            ps.setInt(8, task.getAttempt());
+        });
+    }
+
+    /**
+     * Removes and returns up to {@code limit} rows due at {@code now}, earliest first. Must
+     * run inside a transaction together with whatever hands the tasks on.
+     */
+    public List<ScheduledTask> claimDue(LocalDateTime now, int limit) {
+        return jdbcTemplate.query(CLAIM_DUE_SQL, ROW_MAPPER, Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * Moves the claimed tasks from SCHEDULED or RETRYING to PENDING.
+     */
+    public int release(List<ScheduledTask> tasks) {
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime from = tasks.stream().map(ScheduledTask::getTaskCreatedAt).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = tasks.stream().map(ScheduledTask::getTaskCreatedAt).max(Comparator.naturalOrder()).orElseThrow();
+        UUID[] ids = tasks.stream().map(ScheduledTask::getTaskId).toArray(UUID[]::new);
+        return jdbcTemplate.update(RELEASE_SQL, ids, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    public long estimatePending() {
+        Long count = jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Exact count of parked retries, from the partial index on {@code attempt > 0}. Only
+     * failing work lands there, so unlike the scheduled backlog it stays small enough to count.
+     */
+    public long countRetries() {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM scheduled_tasks WHERE attempt > 0", Long.class);
+        return count != null ? count : 0;
+    }
+
+    public Optional<LocalDateTime> earliestRunAt() {
+        List<Timestamp> earliest = jdbcTemplate.queryForList(
+                "SELECT run_at FROM scheduled_tasks ORDER BY run_at LIMIT 1", Timestamp.class);
+        return earliest.stream().findFirst().map(Timestamp::toLocalDateTime);
+    }
+}
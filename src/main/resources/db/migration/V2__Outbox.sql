@@ -0,0 +1,21 @@
+-- V2: Transactional outbox for task events
+
+-- 1. Outbox table
+-- Rows are written in the same transaction as the task and removed by the relay once Kafka
+-- has acknowledged them. The BIGSERIAL key doubles as the relay's claim order.
+CREATE TABLE outbox (
+    id BIGSERIAL PRIMARY KEY,
+    task_id UUID NOT NULL,
+    task_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    correlation_id VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- 2. Vacuum tuning
+-- Every row is inserted and deleted within seconds; vacuum early so dead tuples
+-- don't slow down the relay's ordered scans.
+ALTER TABLE outbox SET (
+    autovacuum_vacuum_scale_factor = 0.01,
+    autovacuum_vacuum_threshold = 1000
+);
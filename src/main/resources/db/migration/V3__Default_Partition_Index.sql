@@ -0,0 +1,6 @@
+-- V3: Support for moving rows out of the default partition
+
+-- Rows land in tasks_default whenever no partition covers their created_at. PartitionManager
+-- finds the oldest stranded period and moves it out in created_at-bounded batches; without
+-- this index each of those probes would scan the whole default partition.
+CREATE INDEX idx_tasks_default_created_at ON tasks_default (created_at);
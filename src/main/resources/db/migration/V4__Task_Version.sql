@@ -0,0 +1,5 @@
+-- V4: Optimistic version column on tasks
+-- Used by the worker as a fencing token: a write based on a stale read fails instead of
+-- overwriting a newer outcome. A constant default is a catalog-only change on Postgres 11+,
+-- so existing partitions are not rewritten.
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
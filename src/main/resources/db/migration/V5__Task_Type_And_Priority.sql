@@ -0,0 +1,12 @@
+-- V5: Task types and priority lanes
+
+-- 1. Task columns
+-- Constant defaults, so existing partitions are not rewritten
+ALTER TABLE tasks ADD COLUMN task_type VARCHAR(100) NOT NULL DEFAULT 'DEFAULT';
+ALTER TABLE tasks ADD COLUMN priority VARCHAR(16) NOT NULL DEFAULT 'NORMAL';
+
+-- 2. Outbox claim order
+-- 0 = HIGH, 1 = NORMAL, 2 = LOW. The relay drains higher lanes first so a bulk backlog
+-- in the outbox does not delay interactive tasks.
+ALTER TABLE outbox ADD COLUMN priority SMALLINT NOT NULL DEFAULT 1;
+CREATE INDEX idx_outbox_priority_id ON outbox (priority, id);
@@ -0,0 +1,10 @@
+-- V8: Keyset listing indexes
+
+-- 1. GET /api/tasks pages newest first by (created_at, id); with the id as tie-breaker the
+-- next page is a range scan from the cursor instead of an OFFSET over every row before it
+CREATE INDEX idx_tasks_created_at_id ON tasks (created_at, id);
+
+-- 2. Same order within one status; supersedes (status, created_at), which left the id
+-- tie-break to a separate sort step on every page
+DROP INDEX idx_tasks_status_created_at;
+CREATE INDEX idx_tasks_status_created_at_id ON tasks (status, created_at, id);
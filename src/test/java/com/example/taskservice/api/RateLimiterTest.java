@@ -16,13 +16,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest(properties = {
     "spring.data.redis.repositories.enabled=false",
     "spring.cache.type=none",
-    "bucket4j.enabled=true",
-    "bucket4j.filters[0].cache-name=rate-limit-buckets",
-    "bucket4j.filters[0].url=/api/tasks",
-    "bucket4j.filters[0].rate-limits[0].cache-key=getRemoteAddr()",
-    "bucket4j.filters[0].rate-limits[0].bandwidths[0].capacity=5",
-    "bucket4j.filters[0].rate-limits[0].bandwidths[0].time=1",
-    "bucket4j.filters[0].rate-limits[0].bandwidths[0].unit=minutes"
+    "app.rate-limiting.enabled=true",
+    "app.rate-limiting.limits[0].path=/api/tasks",
+    "app.rate-limiting.limits[0].method=POST",
+    "app.rate-limiting.limits[0].burst-capacity=5",
+    "app.rate-limiting.limits[0].replenish-rate=0.0833"
 })
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
@@ -62,7 +60,7 @@ public class RateLimiterTest {
         
         // In this test environment, if Redis is not available, it might fail or fall back to local memory
         // depending on configuration. If it works, we expect 5 successes.
-        // If it doesn't work (no redis), it might still pass if bucket4j falls back to in-memory cache
+        // If it doesn't work (no redis), the limiter lets requests through rather than failing them,
         // but we'll at least see the counts in the log.
     }
 }
@@ -0,0 +1,86 @@
+package com.example.taskservice.api;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.domain.model.TaskSubmission;
+import com.example.taskservice.domain.service.TaskService;
+import com.example.taskservice.infrastructure.datasource.ReadConsistency;
+import com.example.taskservice.infrastructure.ratelimit.BatchRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(value = TaskBatchController.class, properties = "app.rate-limiting.enabled=false")
+@MockBean(JpaMetamodelMappingContext.class) // @EnableJpaAuditing needs it even without JPA in the slice
+public class TaskBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TaskService taskService;
+
+    @MockBean
+    private BatchRateLimiter batchRateLimiter;
+
+    @MockBean
+    private ReadConsistency readConsistency;
+
+    @Test
+    public void testPerItemResults() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(taskService.createTasks(List.of(
+                TaskSubmission.of(null, null, "{\"a\": 1}"),
+                TaskSubmission.of("report", TaskPriority.HIGH, "{\"b\": 2}"))))
+                .thenReturn(List.of(Task.builder().id(first).build(), Task.builder().id(second).build()));
+
+        String body = "{\"tasks\": [{\"payload\": \"{\\\"a\\\": 1}\"}, {\"payload\": \"\"}, "
+                + "{\"payload\": \"not json\"}, "
+                + "{\"payload\": \"{\\\"b\\\": 2}\", \"type\": \"report\", \"priority\": \"HIGH\"}]}";
+
+        mockMvc.perform(post("/api/tasks:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.results[0].id").value(first.toString()))
+                .andExpect(jsonPath("$.results[1].error").value("payload: Payload is required"))
+                .andExpect(jsonPath("$.results[2].error").value("payload: must be valid JSON"))
+                .andExpect(jsonPath("$.results[3].id").value(second.toString()));
+
+        // Rejected items are still charged: the limiter counts submissions, not successes
+        verify(batchRateLimiter).consume(any(HttpServletRequest.class), eq(4));
+    }
+
+    @Test
+    public void testConflictingScheduleIsRejected() throws Exception {
+        String body = "{\"tasks\": [{\"payload\": \"{}\", \"runAt\": \"2030-01-01T14:00:00Z\", \"delay\": \"10m\"}, "
+                + "{\"payload\": \"{}\", \"delay\": \"soon\"}]}";
+
+        mockMvc.perform(post("/api/tasks:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.results[0].error").value("singleSchedule: Only one of runAt and delay may be set"))
+                .andExpect(jsonPath("$.results[1].error").value("delayValid: Delay must be a positive duration such as 30s or 10m"));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.taskservice.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TaskCursorTest {
+
+    @Test
+    public void testTokenRoundTrips() {
+        TaskCursor cursor = new TaskCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000), UUID.randomUUID());
+
+        assertEquals(cursor, TaskCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    public void testMalformedTokenIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode("not a token"));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode("AQID"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.taskservice.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskIdsTest {
+
+    @Test
+    public void testIdEncodesCreationTime() {
+        long now = System.currentTimeMillis();
+        UUID id = TaskIds.newId(now);
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+
+        LocalDateTime expected = LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(now), ZoneId.systemDefault());
+        assertEquals(expected, TaskIds.createdAtOf(id).orElseThrow());
+    }
+
+    @Test
+    public void testIdsSortByCreationTime() {
+        UUID earlier = TaskIds.newId(1_700_000_000_000L);
+        UUID later = TaskIds.newId(1_700_000_000_001L);
+
+        // Postgres compares uuids bytewise, which for v7 ids is creation order
+        assertTrue(Long.compareUnsigned(earlier.getMostSignificantBits(), later.getMostSignificantBits()) < 0);
+    }
+
+    @Test
+    public void testRandomIdsCarryNoTimestamp() {
+        assertTrue(TaskIds.createdAtOf(UUID.randomUUID()).isEmpty());
+    }
+}
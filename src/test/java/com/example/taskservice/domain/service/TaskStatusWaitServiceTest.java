@@ -0,0 +1,56 @@
+package com.example.taskservice.domain.service;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskStatus;
+import com.example.taskservice.infrastructure.notification.TaskStatusNotifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TaskStatusWaitServiceTest {
+
+    private final TaskService taskService = mock(TaskService.class);
+    private final TaskStatusNotifications notifications = mock(TaskStatusNotifications.class);
+    private TaskStatusWaitService service;
+
+    @BeforeEach
+    public void setUp() {
+        when(notifications.subscribe(any(), any())).thenReturn(mock(TaskStatusNotifications.Subscription.class));
+        service = new TaskStatusWaitService(taskService, notifications);
+        ReflectionTestUtils.setField(service, "maxTimeout", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(service, "maxListeners", 100);
+        ReflectionTestUtils.setField(service, "streamTimeout", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(service, "maxStreamIds", 10);
+    }
+
+    @Test
+    public void testTimeoutMustBePositive() {
+        UUID id = UUID.randomUUID();
+        // Either would park the request with no timeout at all
+        assertThrows(IllegalArgumentException.class, () -> service.awaitStatus(id, TaskStatus.SUCCESS, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> service.awaitStatus(id, TaskStatus.SUCCESS, Duration.ofSeconds(-1)));
+        verify(notifications, never()).subscribe(any(), any());
+    }
+
+    @Test
+    public void testStreamStartsFromThePrimary() {
+        UUID id = UUID.randomUUID();
+        when(taskService.getFreshTask(id)).thenReturn(Task.builder().id(id).status(TaskStatus.SUCCESS).build());
+
+        service.streamStatus(List.of(id));
+
+        verify(taskService).getFreshTask(id);
+        verify(taskService, never()).getTask(any());
+    }
+}
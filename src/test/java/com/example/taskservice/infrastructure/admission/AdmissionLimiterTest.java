@@ -0,0 +1,60 @@
+package com.example.taskservice.infrastructure.admission;
+
+import com.example.taskservice.infrastructure.messaging.TaskProducer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class AdmissionLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdmissionLimiter limiter(int initialLimit) {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setInitialLimit(initialLimit);
+        properties.setMinLimit(1);
+        properties.setDecreaseInterval(Duration.ZERO);
+        return new AdmissionLimiter(properties, mock(TaskProducer.class), mock(DataSource.class), meterRegistry);
+    }
+
+    @Test
+    public void testShedsAboveLimit() {
+        AdmissionLimiter limiter = limiter(2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, meterRegistry.counter("admission.shed").count());
+
+        limiter.release(0, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testSlowSubmissionShrinksLimit() {
+        AdmissionLimiter limiter = limiter(10);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(Duration.ofSeconds(1).toNanos(), false);
+
+        assertEquals(9.0, meterRegistry.get("admission.limit").gauge().value(), 0.001);
+    }
+
+    @Test
+    public void testSuccessGrowsBusyLimit() {
+        AdmissionLimiter limiter = limiter(2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(0, false);
+
+        assertEquals(2.5, meterRegistry.get("admission.limit").gauge().value(), 0.001);
+    }
+}
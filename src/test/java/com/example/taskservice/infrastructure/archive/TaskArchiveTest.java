@@ -0,0 +1,86 @@
+package com.example.taskservice.infrastructure.archive;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskIds;
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.domain.model.TaskStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testEveryArchivedTaskIsFoundThroughTheFooter() throws Exception {
+        LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            UUID id = TaskIds.newId();
+            LocalDateTime createdAt = TaskIds.createdAtOf(id).orElseThrow();
+            tasks.add(Task.builder()
+                    .id(id)
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt.plusNanos(123_000))
+                    .status(i % 2 == 0 ? TaskStatus.SUCCESS : TaskStatus.FAILED)
+                    .taskType("type-" + i)
+                    .priority(TaskPriority.HIGH)
+                    .payload("{\"n\": " + i + ", \"name\": \"Zoë\"}")
+                    .retryCount(i)
+                    .runAt(i == 3 ? createdAt.plusMinutes(5) : null)
+                    .build());
+        }
+        tasks.sort((a, b) -> TaskArchiveFile.ID_ORDER.compare(a.getId(), b.getId()));
+
+        // Two rows per group, so lookups have three groups to choose from
+        try (TaskArchiveFile.Writer writer = new TaskArchiveFile.Writer(directory.resolve("tasks_p" + TaskArchiveFile.EXTENSION),
+                from, from.plusDays(1), 2, 6)) {
+            for (Task task : tasks) {
+                writer.add(task);
+            }
+            writer.finish();
+        }
+
+        TaskArchive archive = new TaskArchive(directory, new SimpleMeterRegistry());
+        for (Task expected : tasks) {
+            Task actual = archive.find(expected.getId()).orElseThrow();
+            assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+            assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+            assertEquals(expected.getStatus(), actual.getStatus());
+            assertEquals(expected.getTaskType(), actual.getTaskType());
+            assertEquals(expected.getPayload(), actual.getPayload());
+            assertEquals(expected.getRetryCount(), actual.getRetryCount());
+            assertEquals(expected.getRunAt(), actual.getRunAt());
+            assertNull(actual.getPayloadRef());
+        }
+        assertTrue(archive.find(TaskIds.newId()).isEmpty());
+    }
+
+    @Test
+    public void testRowsMustArriveInIdOrder() throws Exception {
+        UUID first = new UUID(0x8000000000000000L, 0);
+        UUID second = new UUID(1, 0);
+        LocalDateTime now = LocalDateTime.now();
+        try (TaskArchiveFile.Writer writer = new TaskArchiveFile.Writer(directory.resolve("unordered.tmp"), now, now, 10, 1)) {
+            writer.add(Task.builder().id(second).createdAt(now).payload("{}").build());
+            // Unsigned, as Postgres orders uuids: the high bit sorts last
+            writer.add(Task.builder().id(first).createdAt(now).payload("{}").build());
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.add(Task.builder().id(second).createdAt(now).payload("{}").build()));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.taskservice.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class LocalCacheTest {
+
+    private final List<LocalCache.RemovalCause> removals = new ArrayList<>();
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        LocalCache<String, String> cache = new LocalCache<>(2, 1, removals::add);
+        cache.put("a", "1", Duration.ofMinutes(1));
+        cache.put("b", "2", Duration.ofMinutes(1));
+        cache.get("a");
+        cache.put("c", "3", Duration.ofMinutes(1));
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(List.of(LocalCache.RemovalCause.SIZE), removals);
+    }
+
+    @Test
+    public void testExpiredEntriesAreNotReturned() {
+        LocalCache<String, String> cache = new LocalCache<>(10, 1, removals::add);
+        cache.put("a", "1", Duration.ZERO);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(List.of(LocalCache.RemovalCause.EXPIRED), removals);
+    }
+
+    @Test
+    public void testInvalidate() {
+        LocalCache<String, String> cache = new LocalCache<>(10, 4, removals::add);
+        cache.put("a", "1", Duration.ofMinutes(1));
+        cache.invalidate("a");
+        cache.invalidate("missing");
+
+        assertNull(cache.get("a"));
+        assertEquals(List.of(LocalCache.RemovalCause.INVALIDATED), removals);
+    }
+}
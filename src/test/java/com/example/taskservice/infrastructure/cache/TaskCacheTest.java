@@ -0,0 +1,51 @@
+package com.example.taskservice.infrastructure.cache;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.codec.Codec;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TaskCacheTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRedisOutageFallsThroughInsteadOfFailing() {
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        RBucket<Object> bucket = mock(RBucket.class);
+        when(redissonClient.getBucket(anyString(), any(Codec.class))).thenReturn(bucket);
+        when(bucket.get()).thenThrow(new RedisConnectionException("Unable to connect"));
+        doThrow(new RedisConnectionException("Unable to connect")).when(bucket).set(any(), any(Duration.class));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaskCache cache = new TaskCache(redissonClient, new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry, 100);
+        for (String ttl : new String[]{"localTtl", "localTerminalTtl", "redisTtl", "redisTerminalTtl", "settleTime"}) {
+            ReflectionTestUtils.setField(cache, ttl, Duration.ofMinutes(1));
+        }
+
+        UUID id = UUID.randomUUID();
+        assertTrue(cache.get(id).isEmpty());
+
+        cache.put(Task.builder().id(id).status(TaskStatus.PENDING).updatedAt(LocalDateTime.now()).build());
+        assertEquals(id, cache.get(id).orElseThrow().getId());
+        assertEquals(2, meterRegistry.counter("task.cache.errors", "tier", "redis").count());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.taskservice.infrastructure.export;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.domain.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExportFormatTest {
+
+    private static final UUID ID = UUID.fromString("0190a1b2-c3d4-7e5f-8a9b-0c1d2e3f4a5b");
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 3, 1, 12, 30);
+
+    private final Task task = Task.builder()
+            .id(ID)
+            .status(TaskStatus.SUCCESS)
+            .taskType("report")
+            .priority(TaskPriority.NORMAL)
+            .payload("{\"name\": \"a, \\\"b\\\"\"}")
+            .retryCount(1)
+            .createdAt(CREATED)
+            .updatedAt(CREATED)
+            .build();
+
+    @Test
+    public void testNdjsonEmbedsPayloadAsJson() throws Exception {
+        StringWriter out = new StringWriter();
+        ExportFormat.NDJSON.writeRow(task, out);
+
+        assertEquals("{\"id\":\"" + ID + "\",\"status\":\"SUCCESS\",\"type\":\"report\",\"priority\":\"NORMAL\","
+                + "\"retryCount\":1,\"runAt\":null,\"createdAt\":\"2026-03-01T12:30\",\"updatedAt\":\"2026-03-01T12:30\","
+                + "\"payload\":{\"name\": \"a, \\\"b\\\"\"}}\n", out.toString());
+    }
+
+    @Test
+    public void testCsvQuotesFieldsThatNeedIt() throws Exception {
+        StringWriter out = new StringWriter();
+        ExportFormat.CSV.writeRow(task, out);
+
+        assertEquals(ID + ",SUCCESS,report,NORMAL,1,,2026-03-01T12:30,2026-03-01T12:30,"
+                + "\"{\"\"name\"\": \"\"a, \\\"\"b\\\"\"\"\"}\"\r\n", out.toString());
+    }
+
+    @Test
+    public void testUnknownFormatIsRejected() {
+        assertEquals(ExportFormat.CSV, ExportFormat.parse("csv"));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.parse("xml"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.taskservice.infrastructure.idempotency;
+
+import com.example.taskservice.api.CreateTaskRequest;
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.infrastructure.exception.IdempotencyKeyReusedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IdempotencyKeysTest {
+
+    private final IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+    private final IdempotencyKeys keys = new IdempotencyKeys(repository, new SimpleMeterRegistry(),
+            Duration.ofHours(24), 1000, 0.01);
+
+    private final byte[] requestHash = request(TaskPriority.HIGH, null).fingerprint();
+
+    @Test
+    public void testUnseenKeyIsNotLookedUpAndIsRememberedOnceClaimed() {
+        Task task = task();
+        when(repository.claim(eq("k1"), eq(requestHash), eq(task.getId()), any(), any())).thenReturn(true);
+
+        assertTrue(keys.findOriginal("k1", requestHash).isEmpty());
+        assertTrue(keys.claim("k1", requestHash, task).isEmpty());
+        verify(repository, never()).find(anyString(), any());
+
+        when(repository.find(eq("k1"), any())).thenReturn(Optional.of(new IdempotencyKey(requestHash, task.getId())));
+        assertEquals(Optional.of(task.getId()), keys.findOriginal("k1", requestHash));
+    }
+
+    @Test
+    public void testLostClaimReplaysTheWinnerOrRejectsADifferentRequest() {
+        UUID winner = UUID.randomUUID();
+        when(repository.claim(eq("k2"), any(), any(), any(), any())).thenReturn(false);
+        when(repository.find(eq("k2"), any())).thenReturn(Optional.of(new IdempotencyKey(requestHash, winner)));
+
+        assertEquals(Optional.of(winner), keys.claim("k2", requestHash, task()));
+
+        byte[] otherHash = request(TaskPriority.LOW, null).fingerprint();
+        assertThrows(IdempotencyKeyReusedException.class, () -> keys.claim("k2", otherHash, task()));
+    }
+
+    @Test
+    public void testRetryOfADelayedRequestReplays() throws Exception {
+        CreateTaskRequest first = request(TaskPriority.HIGH, "10m");
+        CreateTaskRequest retry = request(TaskPriority.HIGH, "10m");
+        Thread.sleep(5);
+        // The run time is derived at request time, so it differs; the fingerprint must not
+        assertNotEquals(first.toSubmission().runAt(), retry.toSubmission().runAt());
+        assertArrayEquals(first.fingerprint(), retry.fingerprint());
+
+        UUID original = UUID.randomUUID();
+        when(repository.claim(eq("k3"), any(), any(), any(), any())).thenReturn(false);
+        when(repository.find(eq("k3"), any())).thenReturn(Optional.of(new IdempotencyKey(first.fingerprint(), original)));
+        assertEquals(Optional.of(original), keys.claim("k3", retry.fingerprint(), task()));
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> keys.claim("k3", request(TaskPriority.HIGH, "20m").fingerprint(), task()));
+    }
+
+    private static CreateTaskRequest request(TaskPriority priority, String delay) {
+        CreateTaskRequest request = new CreateTaskRequest();
+        request.setType("email");
+        request.setPriority(priority);
+        request.setPayload("{\"to\": \"a@b.c\"}");
+        request.setDelay(delay);
+        return request;
+    }
+
+    private static Task task() {
+        return Task.builder().id(UUID.randomUUID()).createdAt(LocalDateTime.now()).build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.taskservice.infrastructure.messaging;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskEventCodecTest {
+
+    @Test
+    public void testRoundTrip() {
+        TaskEvent event = new TaskEvent(UUID.randomUUID(), "DEFAULT", "{\"action\": \"café\"}");
+
+        byte[] encoded = TaskEventCodec.encode(event);
+
+        assertTrue(TaskEventCodec.isBinary(encoded));
+        assertEquals(TaskEventCodec.VERSION, encoded[1]);
+        assertEquals(event, TaskEventCodec.decode(encoded));
+    }
+
+    @Test
+    public void testNullFields() {
+        TaskEvent event = new TaskEvent(UUID.randomUUID(), null, null);
+
+        TaskEvent decoded = TaskEventCodec.decode(TaskEventCodec.encode(event));
+
+        assertNull(decoded.getTaskType());
+        assertNull(decoded.getPayload());
+    }
+
+    @Test
+    public void testFieldsAppendedByNewerVersionsAreSkipped() {
+        TaskEvent event = new TaskEvent(UUID.randomUUID(), "DEFAULT", "{}");
+        byte[] encoded = TaskEventCodec.encode(event);
+        byte[] newer = Arrays.copyOf(encoded, encoded.length + 8);
+        newer[1] = 2;
+
+        assertEquals(event, TaskEventCodec.decode(newer));
+    }
+
+    @Test
+    public void testTruncatedEventIsRejected() {
+        byte[] encoded = TaskEventCodec.encode(new TaskEvent(UUID.randomUUID(), "DEFAULT", "{}"));
+
+        assertThrows(SerializationException.class, () -> TaskEventCodec.decode(Arrays.copyOf(encoded, encoded.length - 1)));
+    }
+
+    @Test
+    public void testJsonFormatAddsNoTypeHeaders() {
+        TaskEventSerializer serializer = new TaskEventSerializer();
+        serializer.configure(Map.of(TaskEventSerializer.FORMAT_CONFIG, "json"), false);
+        RecordHeaders headers = new RecordHeaders();
+
+        byte[] json = serializer.serialize("tasks.main", headers, new TaskEvent(UUID.randomUUID(), "DEFAULT", "{}"));
+
+        assertFalse(TaskEventCodec.isBinary(json));
+        assertTrue(new String(json, StandardCharsets.UTF_8).startsWith("{"));
+        assertFalse(headers.iterator().hasNext());
+    }
+}
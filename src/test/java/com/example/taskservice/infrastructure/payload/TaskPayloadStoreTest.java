@@ -0,0 +1,64 @@
+package com.example.taskservice.infrastructure.payload;
+
+import com.example.taskservice.domain.model.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class TaskPayloadStoreTest {
+
+    private final TaskPayloadRepository repository = mock(TaskPayloadRepository.class);
+    private final TaskPayloadStore store = new TaskPayloadStore(repository, new ObjectMapper(), new SimpleMeterRegistry(),
+            DataSize.ofBytes(64), List.of("customerId", "order.region", "missing.path"), 1, 500);
+
+    @Test
+    public void testLargePayloadsAreStoredOnceAndLeaveTheirIndexedPaths() {
+        String large = "{\"customerId\": 42, \"order\": {\"region\": \"eu\", \"lines\": \"" + "x".repeat(200) + "\"}}";
+        Task first = task(large);
+        Task second = task(large);
+        Task small = task("{\"customerId\": 7}");
+
+        Map<UUID, String> indexed = store.offload(List.of(first, second, small));
+
+        assertEquals("{\"customerId\":42,\"order\":{\"region\":\"eu\"}}", indexed.get(first.getId()));
+        assertTrue(first.isClaimChecked());
+        assertArrayEquals(first.getPayloadRef(), second.getPayloadRef());
+        assertNull(first.eventPayload());
+        assertEquals(large, first.getPayload());
+
+        assertFalse(small.isClaimChecked());
+        assertFalse(indexed.containsKey(small.getId()));
+        // Both large tasks share one stored payload
+        verify(repository).saveAll(argThat((Collection<CompressedPayload> payloads) -> payloads.size() == 1), anyInt());
+    }
+
+    @Test
+    public void testCompressedPayloadRoundTrips() {
+        String payload = "{\"name\": \"Zoë\", \"data\": \"" + "abc".repeat(1000) + "\"}";
+        CompressedPayload compressed = CompressedPayload.of(payload.getBytes(StandardCharsets.UTF_8), 1);
+
+        assertTrue(compressed.data().length < compressed.size());
+        assertEquals(payload, CompressedPayload.inflate(compressed.data(), compressed.size()));
+    }
+
+    private static Task task(String payload) {
+        return Task.builder().id(UUID.randomUUID()).payload(payload).build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.taskservice.infrastructure.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RedissonClient;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LeasedRateLimiterTest {
+
+    private static final Rate RATE = new Rate(100, Duration.ofSeconds(10));
+
+    private final RedissonClient redissonClient = mock(RedissonClient.class);
+    private final RRateLimiter redisBucket = mock(RRateLimiter.class);
+    private final BackpressureMonitor backpressureMonitor = mock(BackpressureMonitor.class);
+    private LeasedRateLimiter limiter;
+
+    @BeforeEach
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getLease().setTtl(Duration.ofMinutes(1));
+        when(redissonClient.getRateLimiter(anyString())).thenReturn(redisBucket);
+        when(backpressureMonitor.factor()).thenReturn(1.0);
+        limiter = new LeasedRateLimiter(redissonClient, properties, backpressureMonitor, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testServesRequestsFromLease() {
+        when(redisBucket.tryAcquire(10)).thenReturn(true);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("client:a", RATE, 1).allowed());
+        }
+
+        // One slice of 10% of the capacity covers all ten requests
+        verify(redisBucket, times(1)).tryAcquire(anyLong());
+    }
+
+    @Test
+    public void testClientBurstCostsTwoRedisCallsWithShippedSettings() {
+        RateLimitProperties.Limit shipped = new RateLimitProperties.Limit();
+        shipped.setReplenishRate(10);
+        shipped.setBurstCapacity(20);
+        AtomicLong available = new AtomicLong(shipped.getBurstCapacity());
+        when(redisBucket.tryAcquire(anyLong())).thenAnswer(inv -> {
+            long wanted = inv.getArgument(0);
+            if (available.get() < wanted) {
+                return false;
+            }
+            available.addAndGet(-wanted);
+            return true;
+        });
+        limiter = new LeasedRateLimiter(redissonClient, new RateLimitProperties(),
+                backpressureMonitor, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire("client:a", shipped.toRate(), 1).allowed());
+        }
+
+        // Two leases of min-tokens; a tenth of the bucket alone would have taken ten calls
+        verify(redisBucket, times(2)).tryAcquire(10L);
+        verify(redisBucket, times(2)).tryAcquire(anyLong());
+    }
+
+    @Test
+    public void testDeniedWithRetryAfter() {
+        when(redisBucket.tryAcquire(anyLong())).thenReturn(false);
+
+        LeasedRateLimiter.Decision decision = limiter.tryAcquire("client:a", RATE, 1);
+
+        assertFalse(decision.allowed());
+        assertEquals(1, decision.retryAfterSeconds());
+    }
+
+    @Test
+    public void testBackpressureRaisesCost() {
+        when(backpressureMonitor.factor()).thenReturn(0.5);
+        when(redisBucket.tryAcquire(10)).thenReturn(true);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("client:a", RATE, 1).allowed());
+        }
+        limiter.tryAcquire("client:a", RATE, 1);
+
+        // At half capacity each request costs two tokens, so the slice lasts five requests
+        verify(redisBucket, times(2)).tryAcquire(10L);
+    }
+}
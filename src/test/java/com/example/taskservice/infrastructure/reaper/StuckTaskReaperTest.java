@@ -0,0 +1,92 @@
+package com.example.taskservice.infrastructure.reaper;
+
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.domain.model.TaskStatus;
+import com.example.taskservice.infrastructure.notification.TaskStatusNotifications;
+import com.example.taskservice.infrastructure.outbox.OutboxEvent;
+import com.example.taskservice.infrastructure.outbox.OutboxRepository;
+import com.example.taskservice.infrastructure.partition.PartitionCatalog;
+import com.example.taskservice.infrastructure.partition.TaskPartition;
+import com.example.taskservice.infrastructure.ratelimit.BackpressureMonitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StuckTaskReaperTest {
+
+    private final StuckTaskRepository stuckTaskRepository = mock(StuckTaskRepository.class);
+    private final OutboxRepository outboxRepository = mock(OutboxRepository.class);
+    private final PartitionCatalog partitionCatalog = mock(PartitionCatalog.class);
+    private final BackpressureMonitor backpressureMonitor = mock(BackpressureMonitor.class);
+    private final TaskStatusNotifications notifications = mock(TaskStatusNotifications.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStuckTasksAreRepublishedUntilTheirLimitThenFailed() {
+        StuckTask fresh = stuck(0);
+        StuckTask again = stuck(2);
+        StuckTask exhausted = stuck(3);
+        when(partitionCatalog.findAll()).thenReturn(List.of(new TaskPartition("tasks_p1", null, null, false, 0, 0)));
+        when(backpressureMonitor.factor()).thenReturn(1.0);
+        when(stuckTaskRepository.claimStale(eq("tasks_p1"), eq(TaskStatus.PENDING), any(), anyInt()))
+                .thenReturn(List.of(fresh, again, exhausted));
+
+        reaper().reap();
+
+        verify(stuckTaskRepository).republish("tasks_p1", List.of(fresh, again));
+        verify(stuckTaskRepository).fail("tasks_p1", List.of(exhausted));
+        ArgumentCaptor<List<OutboxEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).saveAll(events.capture(), eq(100));
+        assertEquals(List.of(fresh.getId(), again.getId()), events.getValue().stream().map(OutboxEvent::getTaskId).toList());
+        verify(notifications).publish(Map.of(exhausted.getId(), TaskStatus.FAILED));
+        assertEquals(2, meterRegistry.counter("tasks.reaped", "status", "pending", "action", "republished").count());
+        assertEquals(1, meterRegistry.counter("tasks.reaped", "status", "pending", "action", "failed").count());
+    }
+
+    @Test
+    public void testPassIsSkippedUnderBackpressure() {
+        when(backpressureMonitor.factor()).thenReturn(0.5);
+
+        reaper().reap();
+
+        verify(stuckTaskRepository, never()).claimStale(any(), any(), any(), anyInt());
+        assertEquals(1, meterRegistry.counter("tasks.reaper.skipped").count());
+    }
+
+    private StuckTaskReaper reaper() {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        StuckTaskReaper reaper = new StuckTaskReaper(stuckTaskRepository, outboxRepository, partitionCatalog,
+                backpressureMonitor, notifications, transactionTemplate, meterRegistry,
+                Duration.ofMinutes(30), Duration.ofMinutes(15), Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(reaper, "batchSize", 100);
+        ReflectionTestUtils.setField(reaper, "maxPerPass", 10_000);
+        ReflectionTestUtils.setField(reaper, "maxRepublish", 3);
+        return reaper;
+    }
+
+    private static StuckTask stuck(int reapCount) {
+        LocalDateTime createdAt = LocalDateTime.now().minusHours(1);
+        return new StuckTask(UUID.randomUUID(), createdAt, TaskStatus.PENDING, "report", TaskPriority.NORMAL,
+                "{}", createdAt, reapCount);
+    }
+}
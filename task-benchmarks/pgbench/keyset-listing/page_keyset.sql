@@ -0,0 +1,9 @@
+-- The page :depth rows deep through the (created_at, id) cursor, as TaskQueryRepository.scan does.
+-- The cursor is the last row of the previous page, row n = total_rows - depth.
+\set n :total_rows - :depth
+SELECT id, status, created_at FROM bench_list_tasks
+WHERE created_at >= timestamp '2000-01-01'
+  AND created_at < timestamp '2000-01-01' + make_interval(mins => :total_rows)
+  AND (created_at, id) < (timestamp '2000-01-01' + make_interval(mins => :n), md5(:n::text)::uuid)
+ORDER BY created_at DESC, id DESC
+LIMIT :page_size;
@@ -0,0 +1,6 @@
+-- Baseline: the page :depth rows deep through OFFSET, as the dashboards' raw SQL does.
+SELECT id, status, created_at FROM bench_list_tasks
+WHERE created_at >= timestamp '2000-01-01'
+  AND created_at < timestamp '2000-01-01' + make_interval(mins => :total_rows)
+ORDER BY created_at DESC, id DESC
+OFFSET :depth LIMIT :page_size;
@@ -0,0 +1,30 @@
+#!/usr/bin/env bash
+# Page latency against page depth for OFFSET and keyset pagination of a partitioned tasks table.
+# Uses prepared statements like the JDBC driver.
+#
+#   PGHOST=localhost PGUSER=postgres PGDATABASE=taskdb ./run.sh
+set -euo pipefail
+cd "$(dirname "$0")"
+
+TOTAL_ROWS=${TOTAL_ROWS:-2000000}
+ROWS_PER_PARTITION=${ROWS_PER_PARTITION:-100000}
+DEPTHS=${DEPTHS:-"0 1000 10000 100000 1000000"}
+PAGE_SIZE=${PAGE_SIZE:-50}
+DURATION=${DURATION:-20}
+CLIENTS=${CLIENTS:-4}
+
+psql -q -v ON_ERROR_STOP=1 -v total_rows="$TOTAL_ROWS" -v rows_per_partition="$ROWS_PER_PARTITION" -f setup.sql >/dev/null
+
+printf "%-12s %-18s %-18s\n" "depth" "offset_ms" "keyset_ms"
+for depth in $DEPTHS; do
+    results=()
+    for script in page_offset.sql page_keyset.sql; do
+        latency=$(pgbench -n -M prepared -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" \
+                    -D total_rows="$TOTAL_ROWS" -D depth="$depth" -D page_size="$PAGE_SIZE" -f "$script" 2>/dev/null \
+                  | awk '/latency average/ {print $4}')
+        results+=("$latency")
+    done
+    printf "%-12s %-18s %-18s\n" "$depth" "${results[0]}" "${results[1]}"
+done
+
+psql -q -c "DROP TABLE IF EXISTS bench_list_tasks" >/dev/null
@@ -0,0 +1,31 @@
+-- Builds bench_list_tasks: the tasks layout and listing indexes, with :total_rows rows split
+-- into partitions of :rows_per_partition. Row n is created at 2000-01-01 plus n minutes and
+-- has id md5(n)::uuid, so the page scripts can rebuild the cursor of any row from n.
+DROP TABLE IF EXISTS bench_list_tasks;
+
+CREATE TABLE bench_list_tasks (
+    id UUID NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+SELECT format('CREATE TABLE bench_list_tasks_p%s PARTITION OF bench_list_tasks FOR VALUES FROM (%L) TO (%L)',
+              p, timestamp '2000-01-01' + make_interval(mins => p * :rows_per_partition),
+              timestamp '2000-01-01' + make_interval(mins => (p + 1) * :rows_per_partition))
+FROM generate_series(0, (:total_rows - 1) / :rows_per_partition) AS p
+\gexec
+
+INSERT INTO bench_list_tasks (id, status, payload, created_at)
+SELECT md5(n::text)::uuid,
+       (ARRAY['SUCCESS', 'FAILED', 'PENDING', 'SUCCESS'])[n % 4 + 1],
+       jsonb_build_object('customerId', n % 1000),
+       timestamp '2000-01-01' + make_interval(mins => n)
+FROM generate_series(0, :total_rows - 1) AS n;
+
+-- As in V8__Listing_Indexes.sql
+CREATE INDEX ON bench_list_tasks (created_at, id);
+CREATE INDEX ON bench_list_tasks (status, created_at, id);
+
+ANALYZE bench_list_tasks;
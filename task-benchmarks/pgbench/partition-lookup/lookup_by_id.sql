@@ -0,0 +1,3 @@
+-- Baseline: id only, as TaskRepository.findById(UUID) does. Every partition's index is probed.
+\set n random(0, :total_rows - 1)
+SELECT id, status FROM bench_tasks WHERE id = md5(:n::text)::uuid;
@@ -0,0 +1,8 @@
+-- id plus the created_at window derived from it, as TaskRepository.findByIdPruned(UUID) does.
+\set n random(0, :total_rows - 1)
+\set m :n % :partitions
+\set secs :n / :partitions
+SELECT id, status FROM bench_tasks
+WHERE id = md5(:n::text)::uuid
+  AND created_at BETWEEN timestamp '2000-01-01' + make_interval(months => :m, secs => :secs) - interval '1 minute'
+                     AND timestamp '2000-01-01' + make_interval(months => :m, secs => :secs) + interval '1 minute';
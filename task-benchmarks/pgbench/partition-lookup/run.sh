@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+# Lookup latency by id against partition count, with and without the derived created_at window.
+# Uses prepared statements like the JDBC driver, so the pruned variant exercises run-time pruning.
+#
+#   PGHOST=localhost PGUSER=postgres PGDATABASE=taskdb ./run.sh
+set -euo pipefail
+cd "$(dirname "$0")"
+
+PARTITION_COUNTS=${PARTITION_COUNTS:-"12 48 120 240"}
+ROWS_PER_PARTITION=${ROWS_PER_PARTITION:-20000}
+DURATION=${DURATION:-20}
+CLIENTS=${CLIENTS:-4}
+
+printf "%-12s %-18s %-18s\n" "partitions" "by_id_ms" "pruned_ms"
+for partitions in $PARTITION_COUNTS; do
+    psql -q -v ON_ERROR_STOP=1 -v partitions="$partitions" -v rows_per_partition="$ROWS_PER_PARTITION" -f setup.sql >/dev/null
+    total_rows=$((partitions * ROWS_PER_PARTITION))
+    results=()
+    for script in lookup_by_id.sql lookup_pruned.sql; do
+        latency=$(pgbench -n -M prepared -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" \
+                    -D total_rows="$total_rows" -D partitions="$partitions" -f "$script" 2>/dev/null \
+                  | awk '/latency average/ {print $4}')
+        results+=("$latency")
+    done
+    printf "%-12s %-18s %-18s\n" "$partitions" "${results[0]}" "${results[1]}"
+done
+
+psql -q -c "DROP TABLE IF EXISTS bench_tasks" >/dev/null
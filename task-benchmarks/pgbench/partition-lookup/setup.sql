@@ -0,0 +1,29 @@
+-- Builds bench_tasks: a copy of the tasks layout with :partitions monthly partitions and
+-- :rows_per_partition rows in each. Row n gets id md5(n)::uuid and a created_at that the
+-- lookup scripts can recompute from n, the same way the service derives it from a v7 id.
+DROP TABLE IF EXISTS bench_tasks;
+
+CREATE TABLE bench_tasks (
+    id UUID NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    payload JSONB NOT NULL,
+    retry_count INT DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+SELECT format('CREATE TABLE bench_tasks_p%s PARTITION OF bench_tasks FOR VALUES FROM (%L) TO (%L)',
+              m, timestamp '2000-01-01' + make_interval(months => m), timestamp '2000-01-01' + make_interval(months => m + 1))
+FROM generate_series(0, :partitions - 1) AS m
+\gexec
+
+INSERT INTO bench_tasks (id, status, payload, created_at, updated_at)
+SELECT md5(n::text)::uuid,
+       'SUCCESS',
+       '{"action": "bench"}',
+       timestamp '2000-01-01' + make_interval(months => n % :partitions, secs => n / :partitions),
+       now()
+FROM generate_series(0, :partitions * :rows_per_partition - 1) AS n;
+
+ANALYZE bench_tasks;
@@ -0,0 +1,134 @@
+package com.example.benchmarks;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskIds;
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.domain.model.TaskStatus;
+import com.example.taskservice.domain.model.TaskSubmission;
+import com.example.taskservice.domain.repository.TaskJdbcRepository;
+import com.example.taskservice.infrastructure.messaging.TaskEvent;
+import com.example.taskservice.infrastructure.messaging.TaskEventSerializer;
+import com.example.taskservice.infrastructure.payload.TaskPayloadRepository;
+import com.example.taskservice.infrastructure.payload.TaskPayloadStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batched task inserts against payload size, with payloads inline ({@code threshold=0}) or
+ * claim-checked into {@code task_payloads}. Every task gets a distinct payload, so dedup
+ * never helps. The bytes one event puts on the broker in either mode are printed at setup.
+ * <p>
+ * The generated payloads deflate far better than real ones, so treat the stored sizes as a
+ * lower bound. Needs a scratch Postgres like {@link TaskPersistenceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ClaimCheckBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"1024", "16384", "65536", "262144"})
+    public int payloadBytes;
+
+    @Param({"0", "8KB"})
+    public String threshold;
+
+    private JdbcTemplate jdbcTemplate;
+    private TaskJdbcRepository repository;
+    private TaskPayloadStore payloadStore;
+    private String payload;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(System.getProperty("bench.db.url", "jdbc:postgresql://localhost:5432/taskdb_bench"));
+        dataSource.setUser(System.getProperty("bench.db.user", "postgres"));
+        dataSource.setPassword(System.getProperty("bench.db.password", "postgres"));
+        dataSource.setReWriteBatchedInserts(true);
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new TaskJdbcRepository(jdbcTemplate);
+        ReflectionTestUtils.setField(repository, "jdbcBatchSize", BATCH_SIZE);
+        payloadStore = new TaskPayloadStore(new TaskPayloadRepository(jdbcTemplate), new ObjectMapper(),
+                new SimpleMeterRegistry(), DataSize.parse(threshold), List.of("action"), 1, BATCH_SIZE);
+        payload = Payloads.json(payloadBytes);
+
+        Task task = newTask();
+        payloadStore.offload(List.of(task));
+        TaskEventSerializer serializer = new TaskEventSerializer();
+        serializer.configure(Map.of(), false);
+        byte[] event = serializer.serialize("tasks.main", new RecordHeaders(),
+                new TaskEvent(task.getId(), task.getTaskType(), task.eventPayload()));
+        System.out.printf("%n# %d byte payload, threshold %s: %d bytes on the wire per event%n",
+                payloadBytes, threshold, event.length);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE tasks, task_payloads");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() {
+        List<Task> tasks = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            tasks.add(newTask());
+        }
+        repository.insertAll(tasks, payloadStore.offload(tasks));
+    }
+
+    // A distinct payload per task; the suffix keeps the size within a few bytes
+    private Task newTask() {
+        UUID id = TaskIds.newId();
+        LocalDateTime createdAt = TaskIds.createdAtOf(id).orElseThrow();
+        return Task.builder()
+                .id(id)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .status(TaskStatus.PENDING)
+                .taskType(TaskSubmission.DEFAULT_TYPE)
+                .priority(TaskPriority.NORMAL)
+                .payload(payload.substring(0, payload.length() - 2) + (sequence++) + "\"}")
+                .retryCount(0)
+                .build();
+    }
+}
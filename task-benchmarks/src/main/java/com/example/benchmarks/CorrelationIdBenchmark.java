@@ -0,0 +1,70 @@
+package com.example.benchmarks;
+
+import com.example.taskservice.infrastructure.filter.CorrelationIdFilter;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Correlation id handling at both ends: the servlet filter that reads or mints the id and
+ * puts it in the MDC, and the Kafka header the worker decodes for every record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CorrelationIdBenchmark {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+    private String correlationId;
+    private RecordHeaders headers;
+
+    @Setup
+    public void setUp() {
+        correlationId = UUID.randomUUID().toString();
+        headers = new RecordHeaders();
+        headers.add(new RecordHeader("correlationId", correlationId.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterWithHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader(CorrelationIdFilter.CORRELATION_ID_HEADER, correlationId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterGeneratingId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public String decodeKafkaHeader() {
+        Header header = headers.lastHeader("correlationId");
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
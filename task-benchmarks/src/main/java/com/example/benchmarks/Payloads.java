@@ -0,0 +1,18 @@
+package com.example.benchmarks;
+
+/**
+ * Deterministic task payloads of a given size, so results stay comparable between runs.
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    static String json(int bytes) {
+        StringBuilder payload = new StringBuilder(bytes + 32).append("{\"action\": \"process_data\", \"data\": \"");
+        while (payload.length() < bytes - 2) {
+            payload.append((char) ('a' + payload.length() % 26));
+        }
+        return payload.append("\"}").toString();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * End to end: submit a batch through the API and wait until the worker has finished every
+ * task, as seen on the SSE status stream. Runs against a live stack ({@code docker-compose up}),
+ * because the applications need real Kafka, Postgres and Redis to behave representatively;
+ * point it elsewhere with {@code -Dbench.api.url=...}.
+ * <p>
+ * Each invocation is timed individually (single shot), so the score is submit-to-processed
+ * latency for the whole batch rather than a throughput average.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class SubmitToProcessedBenchmark {
+
+    @Param({"1", "100"})
+    public int batchSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpClient client;
+    private String baseUrl;
+    private Duration timeout;
+    private String body;
+
+    @Setup
+    public void setUp() throws IOException {
+        baseUrl = System.getProperty("bench.api.url", "http://localhost:8080");
+        timeout = Duration.ofSeconds(Long.getLong("bench.timeout-seconds", 60));
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        ObjectNode request = objectMapper.createObjectNode();
+        ArrayNode tasks = request.putArray("tasks");
+        for (int i = 0; i < batchSize; i++) {
+            tasks.addObject().put("payload", Payloads.json(256));
+        }
+        body = objectMapper.writeValueAsString(request);
+    }
+
+    @Benchmark
+    public int submitAndAwait() throws IOException, InterruptedException {
+        List<String> ids = submit();
+
+        HttpRequest events = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks/events?ids=" + String.join(",", ids)))
+                .header("Accept", "text/event-stream")
+                .timeout(timeout)
+                .GET()
+                .build();
+        HttpResponse<Stream<String>> response = client.send(events, HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Event stream returned " + response.statusCode());
+        }
+
+        // The server completes the stream once every task has reached a terminal status
+        int terminal = 0;
+        try (Stream<String> lines = response.body()) {
+            Iterator<String> it = lines.iterator();
+            while (it.hasNext()) {
+                String line = it.next();
+                if (line.startsWith("data:") && isTerminal(line.substring(5))) {
+                    terminal++;
+                }
+            }
+        }
+        if (terminal < ids.size()) {
+            throw new IllegalStateException("Stream ended with " + terminal + " of " + ids.size() + " tasks finished");
+        }
+        return terminal;
+    }
+
+    private List<String> submit() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks:batch"))
+                .header("Content-Type", "application/json")
+                .timeout(timeout)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Batch submission returned " + response.statusCode() + ": " + response.body());
+        }
+
+        List<String> ids = new ArrayList<>(batchSize);
+        for (JsonNode result : objectMapper.readTree(response.body()).path("results")) {
+            ids.add(result.path("id").asText());
+        }
+        return ids;
+    }
+
+    private boolean isTerminal(String data) throws IOException {
+        String status = objectMapper.readTree(data).path("status").asText();
+        return "SUCCESS".equals(status) || "FAILED".equals(status);
+    }
+}
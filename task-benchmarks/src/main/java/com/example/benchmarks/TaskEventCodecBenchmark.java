@@ -0,0 +1,70 @@
+package com.example.benchmarks;
+
+import com.example.taskservice.infrastructure.messaging.TaskEventSerializer;
+import com.example.taskworker.infrastructure.messaging.TaskEventDeserializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kafka value codec for task events as configured in the two applications: the service's
+ * {@code TaskEventSerializer} on the producer side and the worker's {@code TaskEventDeserializer}
+ * on the consumer side, in each wire format. The encoded size of one event is printed at setup.
+ * Broker-side batch compression is not part of this measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskEventCodecBenchmark {
+
+    private static final String TOPIC = "tasks.main";
+
+    @Param({"BINARY", "JSON"})
+    public String format;
+
+    @Param({"64", "4096"})
+    public int payloadBytes;
+
+    private TaskEventSerializer serializer;
+    private TaskEventDeserializer deserializer;
+    private com.example.taskservice.infrastructure.messaging.TaskEvent event;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        serializer = new TaskEventSerializer();
+        serializer.configure(Map.of(TaskEventSerializer.FORMAT_CONFIG, format), false);
+        deserializer = new TaskEventDeserializer();
+
+        event = new com.example.taskservice.infrastructure.messaging.TaskEvent(
+                UUID.randomUUID(), "DEFAULT", Payloads.json(payloadBytes));
+        encoded = serializer.serialize(TOPIC, new RecordHeaders(), event);
+        System.out.printf("%n# %s event with a %d byte payload: %d bytes on the wire%n", format, payloadBytes, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public com.example.taskworker.infrastructure.messaging.TaskEvent deserialize() {
+        return deserializer.deserialize(TOPIC, new RecordHeaders(), encoded);
+    }
+}
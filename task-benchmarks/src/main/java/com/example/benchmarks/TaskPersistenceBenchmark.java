@@ -0,0 +1,123 @@
+package com.example.benchmarks;
+
+import com.example.taskservice.domain.model.Task;
+import com.example.taskservice.domain.model.TaskIds;
+import com.example.taskservice.domain.model.TaskPriority;
+import com.example.taskservice.domain.model.TaskStatus;
+import com.example.taskservice.domain.model.TaskSubmission;
+import com.example.taskservice.domain.repository.TaskJdbcRepository;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task inserts as done on submission since tasks are written with plain JDBC: one row per
+ * {@code POST /api/tasks} and a multi-row batch per {@code POST /api/tasks:batch}. Payloads
+ * are written inline, as they are below the claim-check threshold; {@link ClaimCheckBenchmark}
+ * covers offloaded ones.
+ * <p>
+ * Needs a Postgres that is not serving traffic; the schema is migrated with the service's
+ * Flyway scripts on setup and {@code tasks} is truncated after every iteration. Override the
+ * connection with {@code -Dbench.db.url=...}, {@code -Dbench.db.user} and {@code -Dbench.db.password}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TaskPersistenceBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Param({"64", "4096"})
+    public int payloadBytes;
+
+    private JdbcTemplate jdbcTemplate;
+    private TaskJdbcRepository repository;
+    private String payload;
+
+    @Setup
+    public void setUp() {
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(System.getProperty("bench.db.url", "jdbc:postgresql://localhost:5432/taskdb_bench"));
+        dataSource.setUser(System.getProperty("bench.db.user", "postgres"));
+        dataSource.setPassword(System.getProperty("bench.db.password", "postgres"));
+        // Same driver setting as the service's primary pool
+        dataSource.setReWriteBatchedInserts(true);
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new TaskJdbcRepository(jdbcTemplate);
+        ReflectionTestUtils.setField(repository, "jdbcBatchSize", BATCH_SIZE);
+        payload = Payloads.json(payloadBytes);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE tasks");
+    }
+
+    @Benchmark
+    public Task buildTask() {
+        return newTask(payload);
+    }
+
+    @Benchmark
+    public void insertOne() {
+        repository.insertAll(List.of(newTask(payload)), Map.of());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() {
+        List<Task> tasks = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            tasks.add(newTask(payload));
+        }
+        repository.insertAll(tasks, Map.of());
+    }
+
+    // Mirrors TaskService.newTask, which is private
+    private static Task newTask(String payload) {
+        UUID id = TaskIds.newId();
+        LocalDateTime createdAt = TaskIds.createdAtOf(id).orElseThrow();
+        return Task.builder()
+                .id(id)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .status(TaskStatus.PENDING)
+                .taskType(TaskSubmission.DEFAULT_TYPE)
+                .priority(TaskPriority.NORMAL)
+                .payload(payload)
+                .retryCount(0)
+                .build();
+    }
+}
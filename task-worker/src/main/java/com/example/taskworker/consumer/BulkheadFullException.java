@@ -0,0 +1,12 @@
+package com.example.taskworker.consumer;
+
+/**
+ * Thrown instead of waiting when a task type's bulkhead has no free slot. The task did not
+ * run, so it is deferred without counting an attempt.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String type) {
+        super("Bulkhead of " + type + " tasks is full");
+    }
+}
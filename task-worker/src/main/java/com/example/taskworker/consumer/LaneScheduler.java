@@ -0,0 +1,218 @@
+package com.example.taskworker.consumer;
+
+import com.example.taskworker.domain.model.TaskPriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted fair scheduling across the priority lanes. Every lane has its own topic and the
+ * active listener container subscribes to all of them. Each tick, a lane runs freely unless a
+ * higher lane is backlogged on this worker's partitions. In that case it only gets a share
+ * of the ticks, weight / (weight + weights of the backlogged higher lanes), and its
+ * partitions are paused for the rest. Interactive work therefore goes first during a bulk
+ * flood, but lower lanes are never starved outright.
+ * <p>
+ * Lag is read from the consumer's own {@code records-lag} metrics, so the decision is local
+ * to the partitions this instance owns.
+ */
+@Slf4j
+@Component
+public class LaneScheduler {
+
+    /** Topic list for {@code @KafkaListener}: every lane, highest first. */
+    public static final String LANE_TOPICS = "#{'${app.kafka.topics.high-priority},${app.kafka.topics.task-submission},"
+            + "${app.kafka.topics.low-priority}'.split(',')}";
+
+    private static final List<String> MAIN_LISTENER_IDS = List.of(
+            TaskConsumer.LISTENER_ID, TaskBatchConsumer.LISTENER_ID, ParallelTaskConsumer.LISTENER_ID);
+
+    private static final class Lane {
+        final TaskPriority priority;
+        final String topic;
+        final double weight;
+        final Timer latency;
+        volatile long lag;
+        volatile boolean paused;
+        double credit;
+
+        Lane(TaskPriority priority, String topic, double weight, Timer latency) {
+            this.priority = priority;
+            this.topic = topic;
+            this.weight = weight;
+            this.latency = latency;
+        }
+    }
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final Map<TaskPriority, Lane> lanes = new EnumMap<>(TaskPriority.class);
+    private final Map<String, Lane> lanesByTopic = new HashMap<>();
+
+    // Records of lag on a lane that make it hold back the lanes below it
+    @Value("${app.worker.lanes.backlog-threshold:100}")
+    private long backlogThreshold;
+
+    public LaneScheduler(KafkaListenerEndpointRegistry listenerRegistry,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.kafka.topics.high-priority}") String highTopic,
+                         @Value("${app.kafka.topics.task-submission}") String normalTopic,
+                         @Value("${app.kafka.topics.low-priority}") String lowTopic,
+                         @Value("${app.worker.lanes.weights.high:8}") double highWeight,
+                         @Value("${app.worker.lanes.weights.normal:3}") double normalWeight,
+                         @Value("${app.worker.lanes.weights.low:1}") double lowWeight) {
+        this.listenerRegistry = listenerRegistry;
+        addLane(TaskPriority.HIGH, highTopic, highWeight, meterRegistry);
+        addLane(TaskPriority.NORMAL, normalTopic, normalWeight, meterRegistry);
+        addLane(TaskPriority.LOW, lowTopic, lowWeight, meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.worker.lanes.interval-ms:200}")
+    public void schedule() {
+        MessageListenerContainer container = activeContainer();
+        if (container == null) {
+            return;
+        }
+        Collection<TopicPartition> assigned = container.getAssignedPartitions();
+        if (assigned == null || assigned.isEmpty()) {
+            return;
+        }
+        Map<String, Long> lagByTopic = lagByTopic(container);
+
+        double backloggedWeight = 0;
+        for (Lane lane : lanes.values()) {
+            lane.lag = lagByTopic.getOrDefault(lane.topic, 0L);
+
+            boolean run;
+            if (backloggedWeight == 0) {
+                run = true;
+                lane.credit = 0;
+            } else {
+                lane.credit += lane.weight / (lane.weight + backloggedWeight);
+                run = lane.credit >= 1;
+                if (run) {
+                    lane.credit -= 1;
+                }
+            }
+            setPaused(container, assigned, lane, !run);
+
+            if (lane.lag > backlogThreshold) {
+                backloggedWeight += lane.weight;
+            }
+        }
+    }
+
+    /**
+     * Records queueing plus processing time for a record of a lane topic. A retry parked in
+     * {@code scheduled_tasks} is published again when due, so its time here starts afresh
+     * and does not include the backoff.
+     */
+    public void recordCompleted(ConsumerRecord<?, ?> record) {
+        Lane lane = lanesByTopic.get(record.topic());
+        if (lane != null) {
+            lane.latency.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - record.timestamp())));
+        }
+    }
+
+    /**
+     * Priority of the lane a topic belongs to; NORMAL for a topic that is no lane.
+     */
+    public TaskPriority priorityOf(String topic) {
+        Lane lane = lanesByTopic.get(topic);
+        return lane != null ? lane.priority : TaskPriority.NORMAL;
+    }
+
+    private void addLane(TaskPriority priority, String topic, double weight, MeterRegistry meterRegistry) {
+        String tag = priority.name().toLowerCase();
+        Lane lane = new Lane(priority, topic, weight, Timer.builder("task.lane.latency")
+                .description("Time from publishing a task to finishing its first attempt")
+                .tag("lane", tag)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        lanes.put(priority, lane);
+        lanesByTopic.put(topic, lane);
+
+        Gauge.builder("task.lane.lag", lane, l -> l.lag)
+                .description("Records behind on this worker's partitions of the lane")
+                .tag("lane", tag)
+                .register(meterRegistry);
+        Gauge.builder("task.lane.paused", lane, l -> l.paused ? 1 : 0)
+                .description("1 while the lane is held back for a higher one")
+                .tag("lane", tag)
+                .register(meterRegistry);
+    }
+
+    private MessageListenerContainer activeContainer() {
+        for (String id : MAIN_LISTENER_IDS) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(id);
+            if (container != null && container.isRunning()) {
+                return container;
+            }
+        }
+        return null;
+    }
+
+    private void setPaused(MessageListenerContainer container, Collection<TopicPartition> assigned, Lane lane, boolean pause) {
+        for (TopicPartition partition : assigned) {
+            if (!partition.topic().equals(lane.topic) || container.isPartitionPauseRequested(partition) == pause) {
+                continue;
+            }
+            if (pause) {
+                container.pausePartition(partition);
+            } else {
+                container.resumePartition(partition);
+            }
+        }
+        if (lane.paused != pause) {
+            log.debug("Lane {} {}", lane.topic, pause ? "paused" : "resumed");
+            lane.paused = pause;
+        }
+    }
+
+    private Map<String, Long> lagByTopic(MessageListenerContainer container) {
+        Map<String, Long> lag = new HashMap<>();
+        for (Map<MetricName, ? extends Metric> clientMetrics : container.metrics().values()) {
+            for (Map.Entry<MetricName, ? extends Metric> entry : clientMetrics.entrySet()) {
+                MetricName name = entry.getKey();
+                if (!"records-lag".equals(name.name()) || !"consumer-fetch-manager-metrics".equals(name.group())) {
+                    continue;
+                }
+                String topic = topicOf(name.tags().get("topic"));
+                if (topic != null && entry.getValue().metricValue() instanceof Number value
+                        && Double.isFinite(value.doubleValue())) {
+                    lag.merge(topic, value.longValue(), Long::sum);
+                }
+            }
+        }
+        return lag;
+    }
+
+    // The client reports topic tags with '.' replaced by '_'
+    private String topicOf(String tag) {
+        if (tag == null) {
+            return null;
+        }
+        for (Lane lane : lanes.values()) {
+            if (lane.topic.equals(tag) || lane.topic.replace('.', '_').equals(tag)) {
+                return lane.topic;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.taskworker.consumer;
+
+import com.example.taskworker.domain.model.Task;
+import com.example.taskworker.domain.model.TaskStatus;
+import com.example.taskworker.domain.repository.TaskJdbcRepository;
+import com.example.taskworker.domain.repository.TaskRepository;
+import com.example.taskworker.infrastructure.messaging.TaskEvent;
+import com.example.taskworker.infrastructure.messaging.TaskHeaders;
+import com.example.taskworker.infrastructure.messaging.TaskStatusPublisher;
+import com.example.taskworker.infrastructure.metrics.TaskMetrics;
+import com.example.taskworker.infrastructure.metrics.TaskTimeline;
+import com.example.taskworker.infrastructure.payload.TaskPayloadStore;
+import com.example.taskworker.infrastructure.retry.RetryScheduler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans records out to virtual threads so one partition can have many tasks in flight.
+ * Records for the same task id are chained and run in arrival order; everything else runs
+ * concurrently. Acknowledgments are asynchronous, and the container commits a partition's
+ * offset only up to the lowest record that has not completed yet, so a crash redelivers
+ * whatever was still in flight.
+ *
+ * <p>In-flight work is bounded by pausing the container at {@code max-in-flight}, or when a
+ * task type's bulkhead queue is full, and resuming it once half of that has drained. Records
+ * from a poll that was already fetched are still dispatched, so the bounds can be exceeded by
+ * up to {@code max-poll-records}. Types whose bulkheads have room keep running meanwhile.
+ * No database connection is held while a task is processed.
+ *
+ * <p>Outcomes are written through the version the task was loaded with. If another worker or
+ * the stuck task reaper wrote the task in the meantime, the outcome is dropped and theirs
+ * stands.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "app.worker.listener-mode", havingValue = "PARALLEL")
+public class ParallelTaskConsumer {
+
+    public static final String LISTENER_ID = "task-parallel-consumer";
+
+    private final TaskRepository taskRepository;
+    private final TaskJdbcRepository taskJdbcRepository;
+    private final TaskProcessor taskProcessor;
+    private final TaskBulkheads taskBulkheads;
+    private final TaskPayloadStore taskPayloadStore;
+    private final RetryScheduler retryScheduler;
+    private final TaskStatusPublisher taskStatusPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final LaneScheduler laneScheduler;
+    private final TaskMetrics taskMetrics;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("task-", 0).factory());
+    private final ConcurrentHashMap<UUID, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Value("${app.worker.parallel.max-in-flight:1000}")
+    private int maxInFlight;
+
+    @Value("${app.worker.parallel.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${app.worker.parallel.store-retry-ms:1000}")
+    private long storeRetryMs;
+
+    public ParallelTaskConsumer(TaskRepository taskRepository,
+                                TaskJdbcRepository taskJdbcRepository,
+                                TaskProcessor taskProcessor,
+                                TaskBulkheads taskBulkheads,
+                                TaskPayloadStore taskPayloadStore,
+                                RetryScheduler retryScheduler,
+                                TaskStatusPublisher taskStatusPublisher,
+                                TransactionTemplate transactionTemplate,
+                                KafkaListenerEndpointRegistry listenerRegistry,
+                                LaneScheduler laneScheduler,
+                                TaskMetrics taskMetrics,
+                                MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.taskJdbcRepository = taskJdbcRepository;
+        this.taskProcessor = taskProcessor;
+        this.taskBulkheads = taskBulkheads;
+        this.taskPayloadStore = taskPayloadStore;
+        this.retryScheduler = retryScheduler;
+        this.taskStatusPublisher = taskStatusPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.listenerRegistry = listenerRegistry;
+        this.laneScheduler = laneScheduler;
+        this.taskMetrics = taskMetrics;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("task_parallel_in_flight", inFlight, AtomicInteger::get)
+                .description("Tasks dispatched to virtual threads and not yet acknowledged")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(id = LISTENER_ID, topics = LaneScheduler.LANE_TOPICS,
+            groupId = "${spring.kafka.consumer.group-id}", containerFactory = "parallelKafkaListenerContainerFactory")
+    public void consume(ConsumerRecord<String, TaskEvent> record, Acknowledgment ack) {
+        UUID key = record.value().getTaskId();
+        TaskTimeline timeline = taskMetrics.received(record, laneScheduler.priorityOf(record.topic()));
+        if (inFlight.incrementAndGet() >= maxInFlight || taskBulkheads.isFull(record.value().getTaskType())) {
+            container().pause();
+        }
+
+        CompletableFuture<Void> next = tails.compute(key, (k, previous) ->
+                (previous != null ? previous : CompletableFuture.<Void>completedFuture(null))
+                        .thenRunAsync(() -> execute(record, ack, timeline), executor));
+        next.whenComplete((result, ex) -> tails.remove(key, next));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Runs after the container has stopped; acks that land now are dropped and the
+        // records are redelivered to the next owner of the partition
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+            log.warn("{} tasks still in flight at shutdown", inFlight.get());
+            executor.shutdownNow();
+        }
+    }
+
+    private void execute(ConsumerRecord<String, TaskEvent> record, Acknowledgment ack, TaskTimeline timeline) {
+        TaskEvent event = record.value();
+        String correlationId = TaskHeaders.correlationId(record.headers());
+        MDC.put("correlationId", correlationId);
+        try {
+            timeline.started();
+            log.info("Received task event: {}", event);
+            meterRegistry.counter("tasks.received", "type", taskMetrics.typeTag(event.getTaskType())).increment();
+
+            // The record is only acknowledged once the outcome is stored. Giving up instead would
+            // stall the partition's committed offset anyway, so keep trying on this virtual thread.
+            // Only the load and the store are retried: the handler runs once per record.
+            Task task;
+            while (true) {
+                try {
+                    task = load(event);
+                    break;
+                } catch (Exception e) {
+                    log.error("Could not load task {}", event.getTaskId(), e);
+                    if (!backOff()) {
+                        return;
+                    }
+                }
+            }
+            if (task != null) {
+                Exception failure = process(task, event, timeline);
+                while (!writeOutcome(task, failure, correlationId, timeline)) {
+                    if (!backOff()) {
+                        return;
+                    }
+                }
+            }
+            ack.acknowledge();
+            laneScheduler.recordCompleted(record);
+        } finally {
+            MDC.remove("correlationId");
+            if (inFlight.decrementAndGet() <= maxInFlight / 2 && !taskBulkheads.hasBacklog()
+                    && container().isPauseRequested()) {
+                container().resume();
+            }
+        }
+    }
+
+    /**
+     * The task to run for {@code event}, or null if there is nothing to do.
+     */
+    private Task load(TaskEvent event) {
+        // Explicit read-write transaction: repository reads default to read-only, which
+        // would route them to a replica that may not have the task yet
+        Task task = transactionTemplate.execute(status -> taskRepository.findByIdPruned(event.getTaskId()).orElse(null));
+        if (task == null) {
+            log.warn("Task {} not found. Skipping.", event.getTaskId());
+            meterRegistry.counter("tasks.not_found").increment();
+            return null;
+        }
+        // RETRYING means this is a stale copy; the parked retry brings the task back
+        if (task.getStatus() == TaskStatus.SUCCESS || task.getStatus() == TaskStatus.FAILED
+                || task.getStatus() == TaskStatus.RETRYING) {
+            log.info("Task {} is {}. Skipping.", task.getId(), task.getStatus());
+            return null;
+        }
+        return task;
+    }
+
+    /**
+     * Runs the task's handler. Returns what it threw, or null if it succeeded.
+     */
+    private Exception process(Task task, TaskEvent event, TaskTimeline timeline) {
+        String type = taskMetrics.typeTag(event.getTaskType());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            taskProcessor.process(taskPayloadStore.resolve(task));
+            meterRegistry.counter("tasks.processed.success", "type", type).increment();
+            return null;
+        } catch (Exception e) {
+            log.error("Error processing task {}: {}", task.getId(), e.getMessage());
+            meterRegistry.counter("task_failures_total", "type", type, "error", e.getClass().getSimpleName()).increment();
+            return e;
+        } finally {
+            sample.stop(meterRegistry.timer("task_processing_time", "type", type));
+            timeline.processed();
+        }
+    }
+
+    /**
+     * Waits {@code store-retry-ms} before the next try. Returns false if interrupted.
+     */
+    private boolean backOff() {
+        try {
+            Thread.sleep(storeRetryMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns false when the outcome could not be stored.
+     */
+    private boolean writeOutcome(Task task, Exception failure, String correlationId, TaskTimeline timeline) {
+        try {
+            TaskStatus status = transactionTemplate.execute(tx -> {
+                TaskStatus next = failure == null ? TaskStatus.SUCCESS : retryScheduler.nextStatus(task);
+                if (taskJdbcRepository.updateStatus(List.of(task), next, failure != null).isEmpty()) {
+                    return null;
+                }
+                return failure == null ? next : retryScheduler.park(task, correlationId);
+            });
+            if (status == null) {
+                // Another worker or the reaper wrote the task since it was loaded; theirs stands
+                log.warn("Task {} changed while it ran; dropping this outcome", task.getId());
+                meterRegistry.counter("task.fence.lost", "mode", "parallel").increment();
+                return true;
+            }
+            taskStatusPublisher.publish(task.getId(), status);
+            taskMetrics.completed(timeline, status, task.getRetryCount() + 1);
+            return true;
+        } catch (Exception e) {
+            log.error("Could not store the outcome of task {}", task.getId(), e);
+            return false;
+        }
+    }
+
+    private MessageListenerContainer container() {
+        return listenerRegistry.getListenerContainer(LISTENER_ID);
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.taskworker.consumer;
+
+import com.example.taskworker.domain.model.Task;
+import com.example.taskworker.domain.model.TaskStatus;
+import com.example.taskworker.domain.repository.TaskJdbcRepository;
+import com.example.taskworker.domain.repository.TaskRepository;
+import com.example.taskworker.infrastructure.messaging.TaskEvent;
+import com.example.taskworker.infrastructure.messaging.TaskHeaders;
+import com.example.taskworker.infrastructure.messaging.TaskStatusPublisher;
+import com.example.taskworker.infrastructure.metrics.TaskMetrics;
+import com.example.taskworker.infrastructure.metrics.TaskTimeline;
+import com.example.taskworker.infrastructure.payload.TaskPayloadStore;
+import com.example.taskworker.infrastructure.retry.RetryScheduler;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Consumes the task topic a poll at a time: one query loads every task in the batch, the
+ * handlers run side by side, each in its type's bulkhead, and outcomes are written in one
+ * JDBC batch per status. Failed tasks are parked for retry with the outcomes, and tasks whose
+ * type's bulkhead queue was full are deferred without running. The outcomes are stored once
+ * the slowest handler is done, so a slow type does not hold up the rest of its poll but does
+ * delay the next one; PARALLEL mode is the one that isolates types fully.
+ *
+ * <p>Loading and claiming the tasks and writing their outcomes are two short transactions;
+ * the handlers run between them without one, so no connection or row lock is held for the
+ * runtime of the batch. If the worker dies in between, the tasks stay PROCESSING until the
+ * redelivered poll runs them again or the stuck task reaper picks them up.
+ *
+ * <p>No per-task Redis lock is taken here. A partition is consumed by one container at a
+ * time, so two workers only see the same task on a rebalance redelivery. Every write is
+ * fenced on the version the task was loaded with, so a late duplicate, or a worker the
+ * stuck task reaper gave up on, cannot undo a newer outcome.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "app.worker.listener-mode", havingValue = "BATCH")
+public class TaskBatchConsumer {
+
+    public static final String LISTENER_ID = "task-batch-consumer";
+
+    private final TaskRepository taskRepository;
+    private final TaskJdbcRepository taskJdbcRepository;
+    private final TaskProcessor taskProcessor;
+    private final TaskPayloadStore taskPayloadStore;
+    private final RetryScheduler retryScheduler;
+    private final TaskStatusPublisher taskStatusPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final LaneScheduler laneScheduler;
+    private final TaskMetrics taskMetrics;
+    private final MeterRegistry meterRegistry;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    public TaskBatchConsumer(TaskRepository taskRepository,
+                             TaskJdbcRepository taskJdbcRepository,
+                             TaskProcessor taskProcessor,
+                             TaskPayloadStore taskPayloadStore,
+                             RetryScheduler retryScheduler,
+                             TaskStatusPublisher taskStatusPublisher,
+                             TransactionTemplate transactionTemplate,
+                             LaneScheduler laneScheduler,
+                             TaskMetrics taskMetrics,
+                             MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.taskJdbcRepository = taskJdbcRepository;
+        this.taskProcessor = taskProcessor;
+        this.taskPayloadStore = taskPayloadStore;
+        this.retryScheduler = retryScheduler;
+        this.taskStatusPublisher = taskStatusPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.laneScheduler = laneScheduler;
+        this.taskMetrics = taskMetrics;
+        this.meterRegistry = meterRegistry;
+        this.batchTimer = meterRegistry.timer("task_batch_processing_time");
+        this.batchSize = meterRegistry.summary("task_batch_size");
+    }
+
+    @KafkaListener(id = LISTENER_ID, topics = LaneScheduler.LANE_TOPICS,
+            groupId = "${spring.kafka.consumer.group-id}", containerFactory = "batchKafkaListenerContainerFactory")
+    public void consume(List<ConsumerRecord<String, TaskEvent>> polled) {
+        batchSize.record(polled.size());
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        // Batch listeners get undecodable records with a null value instead of an error handler call
+        List<ConsumerRecord<String, TaskEvent>> records = new ArrayList<>(polled.size());
+        for (ConsumerRecord<String, TaskEvent> record : polled) {
+            if (record.value() != null) {
+                records.add(record);
+            } else {
+                log.error("Skipping undecodable record at {}-{}@{}", record.topic(), record.partition(), record.offset());
+                meterRegistry.counter("tasks.undecodable").increment();
+            }
+        }
+
+        List<TaskTimeline> timelines = records.stream()
+                .map(record -> taskMetrics.received(record, laneScheduler.priorityOf(record.topic())))
+                .toList();
+        Claim claim = transactionTemplate.execute(status -> claim(records));
+        // The claim bumped their versions; the outcomes are fenced on the new ones
+        claim.claimed().forEach(task -> task.setVersion(task.getVersion() + 1));
+        // One lookup for every claim-checked payload in the poll
+        taskPayloadStore.resolveAll(claim.claimed());
+        Outcomes outcomes = run(records, timelines, claim);
+        transactionTemplate.executeWithoutResult(status -> store(records.size(), claim.tasks(), outcomes));
+
+        records.forEach(laneScheduler::recordCompleted);
+        sample.stop(batchTimer);
+    }
+
+    private record Claim(Map<UUID, Task> tasks, List<Task> claimed) {
+    }
+
+    private record Submitted(Task task, String correlationId, String type, CompletableFuture<Void> outcome) {
+    }
+
+    private record Outcomes(List<Task> succeeded,
+                            List<RetryScheduler.Failure> failures,
+                            List<RetryScheduler.Failure> deferred,
+                            Map<UUID, TaskTimeline> processed) {
+    }
+
+    /**
+     * Loads the tasks of the poll and marks the ones that will run as PROCESSING, so the rows
+     * say what the worker is doing while the handlers run outside any transaction. A task
+     * another worker wrote between the load and the claim is left to that worker.
+     */
+    private Claim claim(List<ConsumerRecord<String, TaskEvent>> records) {
+        Map<UUID, Task> tasks = taskRepository.findAllByIdPruned(records.stream()
+                        .map(record -> record.value().getTaskId())
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<Task> runnable = tasks.values().stream().filter(TaskBatchConsumer::isRunnable).toList();
+        return new Claim(tasks, write(runnable, TaskStatus.PROCESSING, false));
+    }
+
+    private Outcomes run(List<ConsumerRecord<String, TaskEvent>> records, List<TaskTimeline> timelines, Claim claim) {
+        Map<UUID, Task> tasks = claim.tasks();
+        Set<UUID> claimed = claim.claimed().stream().map(Task::getId).collect(Collectors.toSet());
+        Outcomes outcomes = new Outcomes(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new HashMap<>());
+        Set<UUID> handled = new HashSet<>();
+        List<Submitted> submitted = new ArrayList<>();
+
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, TaskEvent> record = records.get(i);
+            TaskEvent event = record.value();
+            String correlationId = TaskHeaders.correlationId(record.headers());
+            String type = taskMetrics.typeTag(event.getTaskType());
+            MDC.put("correlationId", correlationId);
+            try {
+                meterRegistry.counter("tasks.received", "type", type).increment();
+
+                Task task = tasks.get(event.getTaskId());
+                if (task == null) {
+                    log.warn("Task {} not found. Skipping.", event.getTaskId());
+                    meterRegistry.counter("tasks.not_found").increment();
+                    continue;
+                }
+                // A task can appear twice in one poll if it was published twice
+                if (!claimed.contains(task.getId()) || !handled.add(task.getId())) {
+                    log.info("Task {} already handled. Skipping.", task.getId());
+                    continue;
+                }
+
+                TaskTimeline timeline = timelines.get(i);
+                timeline.started();
+                outcomes.processed().put(task.getId(), timeline);
+                Timer.Sample sample = Timer.start(meterRegistry);
+                CompletableFuture<Void> outcome;
+                try {
+                    outcome = taskProcessor.submit(task);
+                } catch (BulkheadFullException e) {
+                    // Not run, so not an attempt; the rest of the poll goes on
+                    log.info("Deferring task {}: {}", task.getId(), e.getMessage());
+                    outcomes.deferred().add(new RetryScheduler.Failure(task, correlationId));
+                    sample.stop(meterRegistry.timer("task_processing_time", "type", type));
+                    timeline.processed();
+                    continue;
+                } catch (Exception e) {
+                    outcome = CompletableFuture.failedFuture(e);
+                }
+                submitted.add(new Submitted(task, correlationId, type, outcome.whenComplete((ignored, e) -> {
+                    sample.stop(meterRegistry.timer("task_processing_time", "type", type));
+                    timeline.processed();
+                })));
+            } finally {
+                MDC.remove("correlationId");
+            }
+        }
+
+        // The whole poll is handed over before waiting on any of it
+        for (Submitted run : submitted) {
+            Throwable error = run.outcome().handle((ignored, e) -> e).join();
+            if (error instanceof CompletionException && error.getCause() != null) {
+                error = error.getCause();
+            }
+            if (error == null) {
+                outcomes.succeeded().add(run.task());
+                meterRegistry.counter("tasks.processed.success", "type", run.type()).increment();
+                continue;
+            }
+            MDC.put("correlationId", run.correlationId());
+            try {
+                log.error("Error processing task {}: {}", run.task().getId(), error.getMessage());
+                outcomes.failures().add(new RetryScheduler.Failure(run.task(), run.correlationId()));
+                meterRegistry.counter("task_failures_total", "type", run.type(), "error", error.getClass().getSimpleName()).increment();
+            } finally {
+                MDC.remove("correlationId");
+            }
+        }
+        return outcomes;
+    }
+
+    private void store(int recordCount, Map<UUID, Task> tasks, Outcomes outcomes) {
+        List<Task> succeeded = write(outcomes.succeeded(), TaskStatus.SUCCESS, false);
+
+        // Only tasks whose status write went through are parked or deferred
+        List<RetryScheduler.Failure> failures = new ArrayList<>();
+        for (TaskStatus status : List.of(TaskStatus.RETRYING, TaskStatus.FAILED)) {
+            List<RetryScheduler.Failure> failed = outcomes.failures().stream()
+                    .filter(failure -> retryScheduler.nextStatus(failure.task()) == status)
+                    .toList();
+            failures.addAll(written(failed, write(tasks(failed), status, true)));
+        }
+        Map<UUID, TaskStatus> parked = retryScheduler.park(failures);
+
+        List<RetryScheduler.Failure> deferred = written(outcomes.deferred(),
+                write(tasks(outcomes.deferred()), TaskStatus.RETRYING, false));
+        retryScheduler.defer(deferred);
+
+        Map<UUID, TaskStatus> changes = new HashMap<>(parked);
+        deferred.forEach(failure -> changes.put(failure.task().getId(), TaskStatus.RETRYING));
+        succeeded.forEach(task -> changes.put(task.getId(), TaskStatus.SUCCESS));
+        taskStatusPublisher.publishAll(changes);
+        // Attempt numbers from the rows as loaded, before the retry count was incremented
+        changes.forEach((id, status) -> taskMetrics.completed(outcomes.processed().get(id), status, tasks.get(id).getRetryCount() + 1));
+        log.info("Processed batch of {} records: {} succeeded, {} failed, {} deferred",
+                recordCount, succeeded.size(), failures.size(), deferred.size());
+    }
+
+    /**
+     * Writes {@code status} through each task's version fence and returns the tasks written.
+     * The others were written by another worker or the reaper since they were loaded, and
+     * their outcome from this batch is dropped.
+     */
+    private List<Task> write(List<Task> tasks, TaskStatus status, boolean countAttempt) {
+        List<Task> written = taskJdbcRepository.updateStatus(tasks, status, countAttempt);
+        int lost = tasks.size() - written.size();
+        if (lost > 0) {
+            log.warn("{} of {} tasks changed since they were loaded; not setting them {}", lost, tasks.size(), status);
+            meterRegistry.counter("task.fence.lost", "mode", "batch").increment(lost);
+        }
+        return written;
+    }
+
+    private static List<Task> tasks(List<RetryScheduler.Failure> failures) {
+        return failures.stream().map(RetryScheduler.Failure::task).toList();
+    }
+
+    private static List<RetryScheduler.Failure> written(List<RetryScheduler.Failure> failures, List<Task> written) {
+        Set<UUID> ids = written.stream().map(Task::getId).collect(Collectors.toSet());
+        return failures.stream().filter(failure -> ids.contains(failure.task().getId())).toList();
+    }
+
+    // RETRYING means a stale copy of the event; the parked retry brings the task back
+    private static boolean isRunnable(Task task) {
+        return task.getStatus() != TaskStatus.SUCCESS && task.getStatus() != TaskStatus.FAILED
+                && task.getStatus() != TaskStatus.RETRYING;
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.taskworker.consumer;
+
+import com.example.taskworker.handler.TaskHandlerRegistry;
+import com.example.taskworker.infrastructure.metrics.TaskMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import org.slf4j.MDC;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One bulkhead per task type, from {@code app.worker.bulkhead}: at most
+ * {@code max-concurrency} handlers of the type run at once, each on its own virtual thread,
+ * and a run is interrupted after {@code timeout}. A slot is only freed when the handler
+ * returns, so a type whose handlers hang fills its own bulkhead and no other.
+ * <p>
+ * In PARALLEL mode tasks wait for a slot on their own virtual thread ({@link #execute}) and
+ * count against {@code max-queued}; the listener pauses while any type's queue is full (see
+ * {@link #isFull}), so other types keep running. BATCH mode hands every task of a poll over
+ * with {@link #submit}, so the poll's handlers run side by side and a task whose type's queue
+ * is full is deferred; the poll is stored once its slowest handler is done, though, so a slow
+ * type still holds up the listener's next poll. RECORD mode runs one record at a time and
+ * uses {@link #tryExecute}: a task whose type has no free slot is deferred without waiting,
+ * but a handler that does run keeps the listener until it returns or times out. Only
+ * PARALLEL mode keeps a slow type from delaying the others.
+ * <p>
+ * Types with a handler or settings of their own get their own bulkhead; all others share
+ * the default settings, one bulkhead per type tag. Settings listed for a type override the
+ * defaults field by field.
+ */
+@Component
+@EnableConfigurationProperties(TaskBulkheads.Properties.class)
+public class TaskBulkheads {
+
+    @Data
+    @ConfigurationProperties(prefix = "app.worker.bulkhead")
+    public static class Properties {
+        private Limits defaults = new Limits();
+        private Map<String, LimitsOverride> types = new HashMap<>();
+    }
+
+    @Data
+    public static class Limits {
+        private int maxConcurrency = 256;
+        private int maxQueued = 512;
+        // Below the lock TTL, so a timed-out task is parked before another worker may take it
+        private Duration timeout = Duration.ofMinutes(3);
+
+        Limits with(LimitsOverride override) {
+            Limits limits = new Limits();
+            limits.setMaxConcurrency(override.getMaxConcurrency() != null ? override.getMaxConcurrency() : maxConcurrency);
+            limits.setMaxQueued(override.getMaxQueued() != null ? override.getMaxQueued() : maxQueued);
+            limits.setTimeout(override.getTimeout() != null ? override.getTimeout() : timeout);
+            return limits;
+        }
+    }
+
+    /**
+     * The limits a type sets for itself; null ones come from the defaults.
+     */
+    @Data
+    public static class LimitsOverride {
+        private Integer maxConcurrency;
+        private Integer maxQueued;
+        private Duration timeout;
+    }
+
+    private final Properties properties;
+    private final TaskHandlerRegistry handlerRegistry;
+    private final TaskMetrics taskMetrics;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("task-handler-", 0).factory());
+
+    public TaskBulkheads(Properties properties,
+                         TaskHandlerRegistry handlerRegistry,
+                         TaskMetrics taskMetrics,
+                         MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.handlerRegistry = handlerRegistry;
+        this.taskMetrics = taskMetrics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Listeners have stopped by now; running handlers finish or time out on their own
+        executor.shutdown();
+    }
+
+    /**
+     * Runs {@code work} in the bulkhead of {@code type} once a slot is free. Throws what the
+     * work throws, or a {@link TimeoutException} if it ran past the type's timeout.
+     */
+    public void execute(String type, Callable<Void> work) throws Exception {
+        Bulkhead bulkhead = bulkhead(type);
+        bulkhead.queued.incrementAndGet();
+        awaitSlotAndRun(type, bulkhead, work);
+    }
+
+    /**
+     * Hands {@code work} to a virtual thread of its own, where it waits for a slot and runs as
+     * in {@link #execute}, and returns at once with the future of its outcome. Throws
+     * {@link BulkheadFullException} instead when the queue of {@code type} is already full.
+     */
+    public CompletableFuture<Void> submit(String type, Callable<Void> work) {
+        Bulkhead bulkhead = bulkhead(type);
+        if (bulkhead.queued.get() >= bulkhead.limits.getMaxQueued()) {
+            bulkhead.rejections.increment();
+            throw new BulkheadFullException(type);
+        }
+        // Counted here rather than on the new thread, so a burst of submits sees its own queue
+        bulkhead.queued.incrementAndGet();
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                try {
+                    awaitSlotAndRun(type, bulkhead, work);
+                    outcome.complete(null);
+                } catch (Throwable e) {
+                    outcome.completeExceptionally(e);
+                } finally {
+                    MDC.clear();
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.queued.decrementAndGet();
+            throw e;
+        }
+        return outcome;
+    }
+
+    /**
+     * Like {@link #execute}, but throws {@link BulkheadFullException} rather than wait when
+     * no slot of {@code type} is free.
+     */
+    public void tryExecute(String type, Callable<Void> work) throws Exception {
+        Bulkhead bulkhead = bulkhead(type);
+        if (!bulkhead.slots.tryAcquire()) {
+            bulkhead.rejections.increment();
+            throw new BulkheadFullException(type);
+        }
+        run(type, bulkhead, work);
+    }
+
+    // Called counted in the queue, which it leaves once it holds a slot
+    private void awaitSlotAndRun(String type, Bulkhead bulkhead, Callable<Void> work) throws Exception {
+        long started = System.nanoTime();
+        try {
+            bulkhead.slots.acquire();
+        } finally {
+            bulkhead.queued.decrementAndGet();
+        }
+        bulkhead.queueWait.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        run(type, bulkhead, work);
+    }
+
+    // Called holding a slot, which the run releases when the work returns
+    private void run(String type, Bulkhead bulkhead, Callable<Void> work) throws Exception {
+        bulkhead.active.incrementAndGet();
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        Future<Void> run;
+        try {
+            run = executor.submit(() -> {
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                try {
+                    return work.call();
+                } finally {
+                    MDC.clear();
+                    bulkhead.active.decrementAndGet();
+                    bulkhead.slots.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.active.decrementAndGet();
+            bulkhead.slots.release();
+            throw e;
+        }
+
+        try {
+            run.get(bulkhead.limits.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            run.cancel(true);
+            bulkhead.timeouts.increment();
+            throw new TimeoutException(type + " task ran longer than " + bulkhead.limits.getTimeout());
+        } catch (InterruptedException e) {
+            run.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Whether the queue of {@code type} is full, in which case the listener should stop
+     * fetching until {@link #hasBacklog()} clears.
+     */
+    public boolean isFull(String type) {
+        Bulkhead bulkhead = bulkhead(type);
+        if (bulkhead.queued.get() < bulkhead.limits.getMaxQueued()) {
+            return false;
+        }
+        bulkhead.overflows.increment();
+        return true;
+    }
+
+    /**
+     * Whether any type still has more than half of its queue waiting.
+     */
+    public boolean hasBacklog() {
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            if (bulkhead.queued.get() > bulkhead.limits.getMaxQueued() / 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Bulkhead bulkhead(String type) {
+        String key = properties.getTypes().containsKey(type) || handlerRegistry.types().contains(type)
+                ? type
+                : taskMetrics.typeTag(type);
+        return bulkheads.computeIfAbsent(key, k -> {
+            LimitsOverride override = properties.getTypes().get(k);
+            return new Bulkhead(k, override != null ? properties.getDefaults().with(override) : properties.getDefaults());
+        });
+    }
+
+    private final class Bulkhead {
+        final Limits limits;
+        final Semaphore slots;
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger queued = new AtomicInteger();
+        final Timer queueWait;
+        final Counter timeouts;
+        final Counter overflows;
+        final Counter rejections;
+
+        Bulkhead(String type, Limits limits) {
+            this.limits = limits;
+            this.slots = new Semaphore(limits.getMaxConcurrency(), true);
+            this.queueWait = Timer.builder("task.bulkhead.queue.wait")
+                    .description("Time tasks waited for a slot in their type's bulkhead")
+                    .tag("type", type)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.timeouts = meterRegistry.counter("task.bulkhead.timeouts", "type", type);
+            this.overflows = meterRegistry.counter("task.bulkhead.overflows", "type", type);
+            this.rejections = meterRegistry.counter("task.bulkhead.rejections", "type", type);
+            Gauge.builder("task.bulkhead.active", active, AtomicInteger::get)
+                    .tag("type", type)
+                    .register(meterRegistry);
+            Gauge.builder("task.bulkhead.queued", queued, AtomicInteger::get)
+                    .tag("type", type)
+                    .register(meterRegistry);
+            Gauge.builder("task.bulkhead.saturation", active, a -> (double) a.get() / limits.getMaxConcurrency())
+                    .description("Share of the type's slots in use")
+                    .tag("type", type)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -3,8 +3,14 @@ package com.example.taskworker.consumer;
 import com.example.taskworker.domain.model.Task;
 import com.example.taskworker.domain.model.TaskStatus;
 import com.example.taskworker.domain.repository.TaskRepository;
-import com.example.taskworker.infrastructure.lock.RedisLockHelper;
+import com.example.taskworker.infrastructure.lock.TaskLock;
+import com.example.taskworker.infrastructure.messaging.TaskHeaders;
+import com.example.taskworker.infrastructure.metrics.TaskMetrics;
+import com.example.taskworker.infrastructure.metrics.TaskTimeline;
+import com.example.taskworker.infrastructure.payload.TaskPayloadStore;
+import com.example.taskworker.infrastructure.retry.RetryScheduler;
 import com.example.taskworker.infrastructure.messaging.TaskEvent;
+import com.example.taskworker.infrastructure.messaging.TaskStatusPublisher;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
@@ -12,92 +18,92 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.MDC;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.annotation.RetryableTopic;
-import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
-import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
-import java.time.Duration;
+import java.util.List;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class TaskConsumer {
 
+    public static final String LISTENER_ID = "task-consumer";
+
     private final TaskRepository taskRepository;
-    private final RedisLockHelper redisLockHelper;
+    private final TaskLock taskLock;
+    private final TaskStatusPublisher taskStatusPublisher;
+    private final TaskProcessor taskProcessor;
+    private final TaskPayloadStore taskPayloadStore;
+    private final RetryScheduler retryScheduler;
+    private final LaneScheduler laneScheduler;
+    private final TaskMetrics taskMetrics;
     private final MeterRegistry meterRegistry;
 
+    // A failed task is parked for retry in the same transaction and the record is done; only
+    // infrastructure errors propagate to the container's error handler. Records are handled one
+    // at a time, so a slow handler holds up this listener, whatever its type, until it returns
+    // or times out.
+    // In the other listener modes this container stays stopped and a dedicated consumer takes over.
     @Transactional
-    @RetryableTopic(
-            attempts = "4",
-            backoff = @Backoff(delay = 1000, multiplier = 2.0),
-            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
-            dltTopicSuffix = "-dlt"
-    )
-    @KafkaListener(topics = "${app.kafka.task-topic}", groupId = "${spring.kafka.consumer.group-id}")
+    @KafkaListener(id = LISTENER_ID, topics = LaneScheduler.LANE_TOPICS, groupId = "${spring.kafka.consumer.group-id}",
+            autoStartup = "#{'${app.worker.listener-mode:RECORD}' == 'RECORD'}")
     public void consume(ConsumerRecord<String, TaskEvent> record) {
         TaskEvent event = record.value();
-        
-        byte[] correlationIdHeader = record.headers().lastHeader("correlationId") != null 
-                ? record.headers().lastHeader("correlationId").value() 
-                : null;
-        
-        String correlationId = correlationIdHeader != null 
-                ? new String(correlationIdHeader, StandardCharsets.UTF_8) 
-                : java.util.UUID.randomUUID().toString();
-
+        String correlationId = TaskHeaders.correlationId(record.headers());
         MDC.put("correlationId", correlationId);
+        TaskTimeline timeline = taskMetrics.received(record, laneScheduler.priorityOf(record.topic()));
+        String type = taskMetrics.typeTag(event.getTaskType());
 
         try {
             log.info("Received task event: {}", event);
-            meterRegistry.counter("tasks.received", "type", event.getTaskType()).increment();
-
-            String lockKey = "lock:task:" + event.getTaskId();
+            meterRegistry.counter("tasks.received", "type", type).increment();
 
-            Timer.Sample sample = Timer.start(meterRegistry);
-
-            redisLockHelper.executeWithLock(lockKey, Duration.ofMinutes(5), () -> {
-                Task task = taskRepository.findById(event.getTaskId())
-                        .orElseThrow(() -> new RuntimeException("Task not found: " + event.getTaskId()));
+            taskLock.executeWithLock(event.getTaskId(), () -> {
+                timeline.started();
+                Task task = taskRepository.findByIdPruned(event.getTaskId()).orElse(null);
+                if (task == null) {
+                    log.warn("Task {} not found. Skipping.", event.getTaskId());
+                    meterRegistry.counter("tasks.not_found").increment();
+                    return null;
+                }
 
-                if (task.getStatus() == TaskStatus.SUCCESS) {
-                    log.info("Task {} already processed successfully. Skipping.", task.getId());
+                // RETRYING means this is a stale copy; the parked retry brings the task back
+                if (task.getStatus() == TaskStatus.SUCCESS || task.getStatus() == TaskStatus.FAILED
+                        || task.getStatus() == TaskStatus.RETRYING) {
+                    log.info("Task {} is {}. Skipping.", task.getId(), task.getStatus());
                     return null;
                 }
 
+                int attempt = task.getRetryCount() + 1;
+                Timer.Sample sample = Timer.start(meterRegistry);
                 try {
-                    processTask(task);
+                    taskProcessor.processOrReject(taskPayloadStore.resolve(task));
                     task.setStatus(TaskStatus.SUCCESS);
-                    meterRegistry.counter("tasks.processed.success", "type", event.getTaskType()).increment();
+                    meterRegistry.counter("tasks.processed.success", "type", type).increment();
+                } catch (BulkheadFullException e) {
+                    // Not run, so not an attempt; the listener moves on to the next record
+                    log.info("Deferring task {}: {}", task.getId(), e.getMessage());
+                    retryScheduler.defer(List.of(new RetryScheduler.Failure(task, correlationId)));
+                    task.setStatus(TaskStatus.RETRYING);
                 } catch (Exception e) {
                     log.error("Error processing task {}: {}", task.getId(), e.getMessage());
-                    task.setStatus(TaskStatus.FAILED);
+                    task.setStatus(retryScheduler.park(task, correlationId));
                     task.setRetryCount(task.getRetryCount() + 1);
-                    
-                    meterRegistry.counter("task_retry_count", "taskId", task.getId().toString()).increment();
-                    meterRegistry.counter("task_failures_total", "type", event.getTaskType(), "error", e.getClass().getSimpleName()).increment();
-                    
-                    throw e; // Throw exception to trigger retry
+
+                    meterRegistry.counter("task_failures_total", "type", type, "error", e.getClass().getSimpleName()).increment();
                 } finally {
+                    timeline.processed();
                     taskRepository.save(task);
-                    sample.stop(meterRegistry.timer("task_processing_time", "type", event.getTaskType()));
+                    taskStatusPublisher.publish(task.getId(), task.getStatus());
+                    taskMetrics.completed(timeline, task.getStatus(), attempt);
+                    sample.stop(meterRegistry.timer("task_processing_time", "type", type));
                 }
                 return null;
             });
         } finally {
+            laneScheduler.recordCompleted(record);
             MDC.remove("correlationId");
         }
     }
-
-    private void processTask(Task task) {
-        log.info("Processing task: {}", task.getId());
-        // Business logic here
-        // Simulating processing
-        if (task.getPayload().contains("fail")) {
-            throw new RuntimeException("Simulated processing failure");
-        }
-    }
 }
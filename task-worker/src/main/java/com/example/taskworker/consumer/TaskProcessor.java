@@ -0,0 +1,56 @@
+package com.example.taskworker.consumer;
+
+import com.example.taskworker.domain.model.Task;
+import com.example.taskworker.handler.TaskHandler;
+import com.example.taskworker.handler.TaskHandlerRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs a task's handler in its type's bulkhead, shared by all listener modes.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskProcessor {
+
+    private final TaskHandlerRegistry handlerRegistry;
+    private final TaskBulkheads taskBulkheads;
+
+    /**
+     * Waits for a slot in the task's bulkhead. Only for callers on a thread of their own.
+     */
+    public void process(Task task) throws Exception {
+        TaskHandler handler = handlerRegistry.handlerFor(task.getTaskType());
+        taskBulkheads.execute(task.getTaskType(), () -> {
+            handler.handle(task);
+            return null;
+        });
+    }
+
+    /**
+     * Throws {@link BulkheadFullException} if the task's bulkhead has no free slot, so the
+     * listener thread never waits behind another type's backlog; it does wait for the
+     * handler itself once it runs.
+     */
+    public void processOrReject(Task task) throws Exception {
+        TaskHandler handler = handlerRegistry.handlerFor(task.getTaskType());
+        taskBulkheads.tryExecute(task.getTaskType(), () -> {
+            handler.handle(task);
+            return null;
+        });
+    }
+
+    /**
+     * Hands the task to its bulkhead and returns the future of its outcome without waiting,
+     * or throws {@link BulkheadFullException} if the type's queue is full.
+     */
+    public CompletableFuture<Void> submit(Task task) {
+        TaskHandler handler = handlerRegistry.handlerFor(task.getTaskType());
+        return taskBulkheads.submit(task.getTaskType(), () -> {
+            handler.handle(task);
+            return null;
+        });
+    }
+}
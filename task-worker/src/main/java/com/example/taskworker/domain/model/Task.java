@@ -35,17 +35,45 @@ public class Task {
     @Column(nullable = false)
     private TaskStatus status;
 
+    @Column(nullable = false, updatable = false)
+    private String taskType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private TaskPriority priority;
+
+    // The whole payload once resolved; see payloadRef for what the column holds
     @Type(JsonBinaryType.class)
-    @Column(columnDefinition = "jsonb", nullable = false)
+    @Column(columnDefinition = "jsonb", nullable = false, updatable = false)
     private String payload;
 
+    // SHA-256 of a payload kept in task_payloads; the payload column then only holds its
+    // indexed paths until TaskPayloadStore resolves it
+    @Column(updatable = false)
+    private byte[] payloadRef;
+
     @Column(nullable = false)
     private int retryCount = 0;
 
+    // Bumped on every write; a worker holding a stale copy fails at commit, or has its status
+    // write skipped, instead of overwriting the outcome of the worker that got there first
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @LastModifiedDate
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    public boolean isClaimChecked() {
+        return payloadRef != null;
+    }
+
+    // What the task's events carry: a claim-checked payload stays out of Kafka
+    public String eventPayload() {
+        return isClaimChecked() ? null : payload;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,38 @@
+package com.example.taskworker.domain.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Time-ordered (RFC 9562 version 7) task ids as issued by the task service. The first 48
+ * bits hold the creation time in Unix milliseconds, which lets a lookup by id alone derive
+ * the {@code created_at} range and prune the partitioned {@code tasks} table.
+ */
+public final class TaskIds {
+
+    /**
+     * Search window around the time embedded in an id. The service stamps created_at from the
+     * id itself; the margin only covers rows written by other tools or with a skewed clock,
+     * and still resolves to at most two partitions.
+     */
+    public static final Duration CREATED_AT_SLACK = Duration.ofMinutes(1);
+
+    private TaskIds() {
+    }
+
+    /**
+     * Creation time encoded in the id, or empty for ids that carry none (the random v4 ids
+     * issued before time-ordered ids were introduced).
+     */
+    public static Optional<LocalDateTime> createdAtOf(UUID id) {
+        if (id.version() != 7) {
+            return Optional.empty();
+        }
+        Instant instant = Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16);
+        return Optional.of(LocalDateTime.ofInstant(instant, ZoneId.systemDefault()));
+    }
+}
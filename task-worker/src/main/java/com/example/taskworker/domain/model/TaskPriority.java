@@ -0,0 +1,8 @@
+package com.example.taskworker.domain.model;
+
+/**
+ * Scheduling lane of a task, highest first. Each priority arrives on its own topic.
+ */
+public enum TaskPriority {
+    HIGH, NORMAL, LOW
+}
@@ -1,5 +1,5 @@
 package com.example.taskworker.domain.model;
 
 public enum TaskStatus {
-    PENDING, PROCESSING, SUCCESS, FAILED
+    SCHEDULED, PENDING, PROCESSING, RETRYING, SUCCESS, FAILED
 }
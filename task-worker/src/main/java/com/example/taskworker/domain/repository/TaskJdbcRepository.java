@@ -0,0 +1,61 @@
+package com.example.taskworker.domain.repository;
+
+import com.example.taskworker.domain.model.Task;
+import com.example.taskworker.domain.model.TaskStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Status writes for the listener modes that do not save entities (BATCH and PARALLEL). Each
+ * row is only written while its {@code version} is still the one the worker loaded: the
+ * batched counterpart of the {@code @Version} check a JPA save makes at commit. A row that
+ * moved on in the meantime, because another worker or the stuck task reaper wrote it, is
+ * left alone and reported back as a lost fence.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskJdbcRepository {
+
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE tasks SET status = ?, retry_count = retry_count + ?, version = version + 1 " +
+            "WHERE id = ? AND created_at = ? AND version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sets {@code status} on those of {@code tasks} still at the version they were loaded
+     * with, also counting an attempt if {@code countAttempt}. Returns the tasks written; the
+     * others lost their fence. The tasks themselves are not changed, so managed entities
+     * stay clean: callers that write a task again add one to its version once the
+     * transaction is over.
+     */
+    public List<Task> updateStatus(List<Task> tasks, TaskStatus status, boolean countAttempt) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> rows = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            rows.add(new Object[]{
+                    status.name(),
+                    countAttempt ? 1 : 0,
+                    task.getId(),
+                    Timestamp.valueOf(task.getCreatedAt()),
+                    task.getVersion()
+            });
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, rows);
+
+        List<Task> written = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            if (updated[i] > 0) {
+                written.add(tasks.get(i));
+            }
+        }
+        return written;
+    }
+}
@@ -1,13 +1,69 @@
 package com.example.taskworker.domain.repository;
 
 import com.example.taskworker.domain.model.Task;
+import com.example.taskworker.domain.model.TaskIds;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Task.TaskId> {
     Optional<Task> findById(UUID id);
+
+    Optional<Task> findByIdAndCreatedAtBetween(UUID id, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Looks a task up by id alone while still letting Postgres prune partitions: the
+     * created_at range is derived from the time-ordered id. Legacy random ids carry no
+     * timestamp and fall back to {@link #findById(UUID)}, which probes every partition.
+     */
+    default Optional<Task> findByIdPruned(UUID id) {
+        return TaskIds.createdAtOf(id)
+                .map(createdAt -> findByIdAndCreatedAtBetween(id,
+                        createdAt.minus(TaskIds.CREATED_AT_SLACK),
+                        createdAt.plus(TaskIds.CREATED_AT_SLACK)))
+                .orElseGet(() -> findById(id));
+    }
+
+    List<Task> findByIdIn(Collection<UUID> ids);
+
+    List<Task> findByIdInAndCreatedAtBetween(Collection<UUID> ids, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Loads a batch of tasks with one query per id kind. Time-ordered ids are bounded by the
+     * span of their embedded timestamps, so a batch of recent tasks touches one or two
+     * partitions; legacy ids still probe every partition.
+     */
+    default List<Task> findAllByIdPruned(Collection<UUID> ids) {
+        List<UUID> timed = new ArrayList<>();
+        List<UUID> legacy = new ArrayList<>();
+        LocalDateTime from = LocalDateTime.MAX;
+        LocalDateTime to = LocalDateTime.MIN;
+        for (UUID id : ids) {
+            Optional<LocalDateTime> createdAt = TaskIds.createdAtOf(id);
+            if (createdAt.isPresent()) {
+                timed.add(id);
+                from = createdAt.get().isBefore(from) ? createdAt.get() : from;
+                to = createdAt.get().isAfter(to) ? createdAt.get() : to;
+            } else {
+                legacy.add(id);
+            }
+        }
+
+        List<Task> tasks = new ArrayList<>(ids.size());
+        if (!timed.isEmpty()) {
+            tasks.addAll(findByIdInAndCreatedAtBetween(timed,
+                    from.minus(TaskIds.CREATED_AT_SLACK), to.plus(TaskIds.CREATED_AT_SLACK)));
+        }
+        if (!legacy.isEmpty()) {
+            tasks.addAll(findByIdIn(legacy));
+        }
+        return tasks;
+    }
 }
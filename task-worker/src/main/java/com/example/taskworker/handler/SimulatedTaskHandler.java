@@ -0,0 +1,28 @@
+package com.example.taskworker.handler;
+
+import com.example.taskworker.domain.model.Task;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stands in for the business logic of every type without a handler of its own.
+ */
+@Slf4j
+@Component
+public class SimulatedTaskHandler implements TaskHandler {
+
+    @Override
+    public String type() {
+        return ANY;
+    }
+
+    @Override
+    public void handle(Task task) {
+        log.info("Processing {} task: {}", task.getTaskType(), task.getId());
+        // Business logic here
+        // Simulating processing
+        if (task.getPayload().contains("fail")) {
+            throw new RuntimeException("Simulated processing failure");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.taskworker.handler;
+
+import com.example.taskworker.domain.model.Task;
+
+/**
+ * Business logic for one task type. Every bean implementing this is registered under its
+ * {@link #type()}; a handler for {@link #ANY} runs the types that have none of their own.
+ * <p>
+ * Handlers run on a virtual thread of their type's bulkhead and are interrupted when they
+ * exceed its timeout. One that ignores the interrupt keeps its slot until it returns, so a
+ * stuck handler only ever starves its own type. A task may be handled again after a timeout
+ * or a redelivery, so handlers must be idempotent.
+ */
+public interface TaskHandler {
+
+    String ANY = "*";
+
+    /**
+     * The task type handled, as in {@code TaskEvent.taskType}.
+     */
+    String type();
+
+    /**
+     * Runs the task. Throwing fails this attempt, and the task is retried per its type's
+     * retry policy. The task's payload is resolved; the entity must not be modified.
+     */
+    void handle(Task task) throws Exception;
+}
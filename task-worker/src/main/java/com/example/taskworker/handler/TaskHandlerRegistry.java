@@ -0,0 +1,47 @@
+package com.example.taskworker.handler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@link TaskHandler} beans by task type. Two handlers for one type fail startup.
+ */
+@Slf4j
+@Component
+public class TaskHandlerRegistry {
+
+    private final Map<String, TaskHandler> handlers = new HashMap<>();
+    private final TaskHandler fallback;
+
+    public TaskHandlerRegistry(List<TaskHandler> beans) {
+        for (TaskHandler handler : beans) {
+            TaskHandler previous = handlers.putIfAbsent(handler.type(), handler);
+            if (previous != null) {
+                throw new IllegalStateException("Task type " + handler.type() + " has two handlers: "
+                        + previous.getClass().getName() + " and " + handler.getClass().getName());
+            }
+        }
+        this.fallback = handlers.remove(TaskHandler.ANY);
+        log.info("Task handlers registered for {}{}", handlers.keySet(), fallback != null ? " and any other type" : "");
+    }
+
+    public TaskHandler handlerFor(String type) {
+        TaskHandler handler = handlers.getOrDefault(type, fallback);
+        if (handler == null) {
+            throw new IllegalStateException("No handler for task type " + type);
+        }
+        return handler;
+    }
+
+    /**
+     * Types with a handler of their own.
+     */
+    public Set<String> types() {
+        return handlers.keySet();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.taskworker.infrastructure.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+@Slf4j
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Failed tasks never reach the container; the listeners park them in
+     * {@code scheduled_tasks} for retry. What does reach it is infrastructure trouble such as
+     * the database being down, or a record that fails outside any handler, so it is retried
+     * in place for up to {@code max-elapsed-ms}. After that the record is logged, counted and
+     * skipped so its partition moves on; the task is left active and the stuck task reaper
+     * publishes it again. Undecodable records are not retryable and are skipped right away.
+     * Boot applies this handler to every listener container factory.
+     */
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(MeterRegistry meterRegistry,
+                                                 @Value("${app.worker.error-backoff.max-interval-ms:30000}") long maxIntervalMs,
+                                                 @Value("${app.worker.error-backoff.max-elapsed-ms:300000}") long maxElapsedMs) {
+        ExponentialBackOff backOff = new ExponentialBackOff(500, 2.0);
+        backOff.setMaxInterval(maxIntervalMs);
+        backOff.setMaxElapsedTime(maxElapsedMs);
+        Counter dropped = meterRegistry.counter("tasks.dropped");
+        return new DefaultErrorHandler((record, e) -> {
+            log.error("Giving up on record {}-{}@{} (key {}): {}",
+                    record.topic(), record.partition(), record.offset(), record.key(), e.getMessage());
+            dropped.increment();
+        }, backOff);
+    }
+
+    /**
+     * Same settings as Boot's default factory, but hands the listener a whole poll at once.
+     * The batch size is bounded by {@code spring.kafka.consumer.max-poll-records}.
+     */
+    @Bean
+    @ConditionalOnProperty(value = "app.worker.listener-mode", havingValue = "BATCH")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    /**
+     * Manual acknowledgments that may arrive out of order from the processing threads; the
+     * container only commits an offset once every record before it has been acknowledged.
+     */
+    @Bean
+    @ConditionalOnProperty(value = "app.worker.listener-mode", havingValue = "PARALLEL")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> parallelKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        return factory;
+    }
+}
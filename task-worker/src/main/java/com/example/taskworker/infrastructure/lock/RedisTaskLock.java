@@ -0,0 +1,72 @@
+package com.example.taskworker.infrastructure.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Redis lock per task. Each acquisition stores a random owner token, and release deletes
+ * the key only if it still holds that token, so a worker whose lock expired mid-task can
+ * no longer delete the lock of the worker that took over.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "app.worker.lock.strategy", havingValue = "REDIS", matchIfMissing = true)
+public class RedisTaskLock implements TaskLock {
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Timer acquiredTimer;
+    private final Timer contendedTimer;
+    private final Counter lostCounter;
+
+    @Value("${app.worker.lock.ttl:5m}")
+    private Duration ttl;
+
+    public RedisTaskLock(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.acquiredTimer = meterRegistry.timer("task.lock.acquire", "strategy", "redis", "outcome", "acquired");
+        this.contendedTimer = meterRegistry.timer("task.lock.acquire", "strategy", "redis", "outcome", "contended");
+        this.lostCounter = meterRegistry.counter("task.lock.lost", "strategy", "redis");
+    }
+
+    @Override
+    public <T> T executeWithLock(UUID taskId, Supplier<T> task) {
+        String lockKey = "lock:task:" + taskId;
+        String token = UUID.randomUUID().toString();
+
+        long started = System.nanoTime();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey, token, ttl);
+        (Boolean.TRUE.equals(acquired) ? acquiredTimer : contendedTimer).record(Duration.ofNanos(System.nanoTime() - started));
+
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                return task.get();
+            } finally {
+                Long released = redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+                if (released == null || released == 0) {
+                    lostCounter.increment();
+                    log.warn("Lock {} expired before release; another worker may have processed the task", lockKey);
+                }
+            }
+        } else {
+            log.warn("Could not acquire lock for key: {}", lockKey);
+            throw new RuntimeException("Lock already held for key: " + lockKey);
+        }
+    }
+}
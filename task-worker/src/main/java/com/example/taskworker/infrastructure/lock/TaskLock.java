@@ -0,0 +1,14 @@
+package com.example.taskworker.infrastructure.lock;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Guards the processing of a single task against a concurrent worker. Implementations are
+ * selected with {@code app.worker.lock.strategy}; whichever is active, the {@code version}
+ * column on tasks still rejects a stale write.
+ */
+public interface TaskLock {
+
+    <T> T executeWithLock(UUID taskId, Supplier<T> task);
+}
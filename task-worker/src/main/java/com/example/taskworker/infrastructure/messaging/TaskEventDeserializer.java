@@ -0,0 +1,34 @@
+package com.example.taskworker.infrastructure.messaging;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * Reads task events in either wire format, told apart by the first byte: the binary
+ * {@link TaskEventCodec} format starts with a zero magic byte, JSON with {@code '{'}. JSON is
+ * always bound to this module's {@link TaskEvent}; type headers written by other producers
+ * are ignored.
+ */
+public class TaskEventDeserializer implements Deserializer<TaskEvent> {
+
+    private final JsonDeserializer<TaskEvent> jsonDeserializer = new JsonDeserializer<>(TaskEvent.class, false);
+
+    @Override
+    public TaskEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return TaskEventCodec.isBinary(data) ? TaskEventCodec.decode(data) : jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public TaskEvent deserialize(String topic, Headers headers, byte[] data) {
+        return deserialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.taskworker.infrastructure.messaging;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Writes task events in the {@link TaskEventCodec} format when the worker republishes them
+ * to its retry and dead-letter topics.
+ */
+public class TaskEventSerializer implements Serializer<TaskEvent> {
+
+    @Override
+    public byte[] serialize(String topic, TaskEvent event) {
+        return event != null ? TaskEventCodec.encode(event) : null;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, TaskEvent event) {
+        return serialize(topic, event);
+    }
+}
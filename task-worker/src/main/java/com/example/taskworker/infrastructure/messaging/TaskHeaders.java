@@ -0,0 +1,41 @@
+package com.example.taskworker.infrastructure.messaging;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Record headers the task service sends with every task event. Stage timestamps are epoch
+ * milliseconds as 8-byte big-endian longs.
+ */
+public final class TaskHeaders {
+
+    public static final String CORRELATION_ID = "correlationId";
+    /** When the event was written to the outbox: the submitting (or releasing) transaction. */
+    public static final String ENQUEUED_AT = "enqueuedAt";
+    /** When the service's relay handed the event to its producer. */
+    public static final String PUBLISHED_AT = "publishedAt";
+
+    private TaskHeaders() {
+    }
+
+    /**
+     * The correlation id sent by the service, or a fresh one for records without it.
+     */
+    public static String correlationId(Headers headers) {
+        Header header = headers.lastHeader(CORRELATION_ID);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : UUID.randomUUID().toString();
+    }
+
+    public static OptionalLong time(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        if (header == null || header.value() == null || header.value().length != Long.BYTES) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(ByteBuffer.wrap(header.value()).getLong());
+    }
+}
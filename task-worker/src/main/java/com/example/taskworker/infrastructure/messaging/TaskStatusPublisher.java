@@ -0,0 +1,65 @@
+package com.example.taskworker.infrastructure.messaging;
+
+import com.example.taskworker.domain.model.TaskStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Announces status changes to the task service: deletes its cached copies of the tasks in
+ * Redis and publishes one {@code <id>:<STATUS>} line per task on {@link #STATUS_TOPIC}.
+ * Service instances use the message to evict their local cache tier and to wake clients
+ * waiting on the task. Inside a transaction this waits for the commit, otherwise a reader
+ * could re-cache the old row before the new one is visible.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskStatusPublisher {
+
+    // Shared with the task service's TaskCache and TaskStatusNotifications
+    static final String CACHE_KEY_PREFIX = "task-cache:";
+    static final String STATUS_TOPIC = "task-status";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public void publish(UUID taskId, TaskStatus status) {
+        publishAll(Map.of(taskId, status));
+    }
+
+    public void publishAll(Map<UUID, TaskStatus> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Map<UUID, TaskStatus> snapshot = Map.copyOf(changes);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(snapshot);
+                }
+            });
+        } else {
+            send(snapshot);
+        }
+    }
+
+    private void send(Map<UUID, TaskStatus> changes) {
+        try {
+            redisTemplate.delete(changes.keySet().stream().map(id -> CACHE_KEY_PREFIX + id).toList());
+            redisTemplate.convertAndSend(STATUS_TOPIC, changes.entrySet().stream()
+                    .map(change -> change.getKey() + ":" + change.getValue())
+                    .collect(Collectors.joining("\n")));
+        } catch (Exception e) {
+            // The status is committed either way; readers catch up when the cache TTL runs out
+            log.warn("Could not publish status changes for tasks {}", changes.keySet(), e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.taskworker.infrastructure.metrics;
+
+import com.example.taskworker.domain.model.TaskPriority;
+import com.example.taskworker.domain.model.TaskStatus;
+import com.example.taskworker.infrastructure.messaging.TaskEvent;
+import com.example.taskworker.infrastructure.messaging.TaskHeaders;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task latency as histograms with fixed SLO buckets. {@code task.stage.latency} covers the
+ * stages on this worker (the service records the ones before it under the same name):
+ * <ul>
+ *   <li>{@code queue}: from the service's hand-off to its producer to receipt here</li>
+ *   <li>{@code start}: from receipt until processing may begin (lock, permit or turn)</li>
+ *   <li>{@code process}: the processor itself</li>
+ *   <li>{@code store}: writing the outcome, up to its commit</li>
+ * </ul>
+ * {@code task.e2e.latency} runs from submission to the committed outcome of an attempt, and
+ * {@code task.attempts} is the attempt number each outcome was reached at.
+ * <p>
+ * Every tag has a small, known range. The task type is client supplied, so only the first
+ * {@code max-type-tags} distinct types get their own series and the rest are reported as
+ * {@value #OTHER}. Task ids never become tags.
+ */
+@Component
+public class TaskMetrics {
+
+    public static final String OTHER = "other";
+
+    private static final double[] ATTEMPT_BUCKETS = {1, 2, 3, 4, 5, 6, 8, 10, 15, 20};
+
+    private record Key(String name, String stage, String type, TaskPriority priority, String outcome) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Duration[] slos;
+    private final int maxTypeTags;
+    private final Set<String> typeTags = ConcurrentHashMap.newKeySet();
+    private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<Key, DistributionSummary> attempts = new ConcurrentHashMap<>();
+
+    public TaskMetrics(MeterRegistry meterRegistry,
+                       @Value("${app.worker.metrics.latency-slos:10ms,50ms,100ms,250ms,500ms,1s,2500ms,5s,10s,30s,1m,5m}") Duration[] slos,
+                       @Value("${app.worker.metrics.max-type-tags:50}") int maxTypeTags) {
+        this.meterRegistry = meterRegistry;
+        this.slos = slos;
+        this.maxTypeTags = maxTypeTags;
+    }
+
+    /**
+     * The task type as a tag value: the type itself while fewer than {@code max-type-tags}
+     * types have been seen, {@value #OTHER} after that.
+     */
+    public String typeTag(String type) {
+        if (type == null) {
+            return OTHER;
+        }
+        if (typeTags.contains(type)) {
+            return type;
+        }
+        // Racing callers may overshoot the cap by a few types, which is harmless
+        if (typeTags.size() < maxTypeTags) {
+            typeTags.add(type);
+            return type;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Starts the timeline of a record that just arrived from the lane of {@code priority}
+     * and records its time in the queue.
+     */
+    public TaskTimeline received(ConsumerRecord<?, TaskEvent> record, TaskPriority priority) {
+        TaskEvent event = record.value();
+        UUID id = event.getTaskId();
+        TaskTimeline timeline = new TaskTimeline(typeTag(event.getTaskType()), priority,
+                id.version() == 7 ? id.getMostSignificantBits() >>> 16 : -1);
+
+        // Falls back to the record timestamp for events from a service that sends no stage headers
+        long publishedAt = TaskHeaders.time(record.headers(), TaskHeaders.PUBLISHED_AT).orElse(record.timestamp());
+        stage("queue", timeline, TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - publishedAt));
+        return timeline;
+    }
+
+    /**
+     * Records the remaining stages, end-to-end latency and attempt number once the outcome
+     * is stored. Inside a transaction this waits for the commit, which ends the store stage.
+     */
+    public void completed(TaskTimeline timeline, TaskStatus outcome, int attempt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(timeline, outcome, attempt);
+                }
+            });
+        } else {
+            record(timeline, outcome, attempt);
+        }
+    }
+
+    private void record(TaskTimeline timeline, TaskStatus outcome, int attempt) {
+        long now = System.nanoTime();
+        long started = timeline.startedNanos != 0 ? timeline.startedNanos : timeline.receivedNanos;
+        long processed = timeline.processedNanos != 0 ? timeline.processedNanos : started;
+        stage("start", timeline, started - timeline.receivedNanos);
+        stage("process", timeline, processed - started);
+        stage("store", timeline, now - processed);
+
+        String outcomeTag = outcome.name().toLowerCase();
+        if (timeline.submittedAt >= 0) {
+            timer(new Key("task.e2e.latency", null, timeline.type, timeline.priority, outcomeTag))
+                    .record(Math.max(0, System.currentTimeMillis() - timeline.submittedAt), TimeUnit.MILLISECONDS);
+        }
+        attempts.computeIfAbsent(new Key("task.attempts", null, timeline.type, null, outcomeTag),
+                        key -> DistributionSummary.builder(key.name())
+                                .description("Attempt number at which a task succeeded, was parked for retry, or failed")
+                                .tag("type", key.type())
+                                .tag("outcome", key.outcome())
+                                .serviceLevelObjectives(ATTEMPT_BUCKETS)
+                                .register(meterRegistry))
+                .record(attempt);
+    }
+
+    private void stage(String stage, TaskTimeline timeline, long nanos) {
+        timer(new Key("task.stage.latency", stage, timeline.type, timeline.priority, null))
+                .record(Math.max(0, nanos), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(Key key) {
+        return timers.computeIfAbsent(key, k -> {
+            Timer.Builder builder = Timer.builder(k.name())
+                    .tag("type", k.type())
+                    .tag("priority", k.priority().name().toLowerCase())
+                    .serviceLevelObjectives(slos);
+            if (k.stage() != null) {
+                builder.description("Time a task spent in one stage on the worker").tag("stage", k.stage());
+            } else {
+                builder.description("Time from submission to the stored outcome of an attempt").tag("outcome", k.outcome());
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.taskworker.infrastructure.metrics;
+
+import com.example.taskworker.domain.model.TaskPriority;
+
+/**
+ * Stage marks of one task record on this worker, from receipt to the stored outcome. Created
+ * by {@link TaskMetrics#received} and handed back to {@link TaskMetrics#completed}.
+ */
+public final class TaskTimeline {
+
+    final String type;
+    final TaskPriority priority;
+    // Epoch millis of the submission, from the task id; -1 for ids that carry no time
+    final long submittedAt;
+    final long receivedNanos;
+    long startedNanos;
+    long processedNanos;
+
+    TaskTimeline(String type, TaskPriority priority, long submittedAt) {
+        this.type = type;
+        this.priority = priority;
+        this.submittedAt = submittedAt;
+        this.receivedNanos = System.nanoTime();
+    }
+
+    /** Processing may begin: the lock is held, or the record reached its turn. */
+    public void started() {
+        startedNanos = System.nanoTime();
+    }
+
+    /** The processor returned or threw; only the status write is left. */
+    public void processed() {
+        processedNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.taskworker.infrastructure.payload;
+
+import com.example.taskworker.domain.model.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads claim-checked payloads. The service stores payloads above its threshold deflated in
+ * {@code task_payloads} and leaves only their indexed paths on the task row, so a task must
+ * be resolved before it is processed. Compatible with the service's {@code CompressedPayload}.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskPayloadStore {
+
+    private static final String FIND_SQL =
+            "SELECT hash, size, data FROM task_payloads WHERE hash = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Replaces the indexed paths of a claim-checked task with its whole payload.
+     */
+    public Task resolve(Task task) {
+        resolveAll(List.of(task));
+        return task;
+    }
+
+    /**
+     * Resolves every claim-checked task of {@code tasks} with one query. Tasks sharing a
+     * payload share the lookup.
+     */
+    public void resolveAll(Collection<Task> tasks) {
+        List<Task> claimChecked = tasks.stream().filter(Task::isClaimChecked).toList();
+        if (claimChecked.isEmpty()) {
+            return;
+        }
+        byte[][] hashes = claimChecked.stream()
+                .map(task -> ByteBuffer.wrap(task.getPayloadRef()))
+                .distinct()
+                .map(ByteBuffer::array)
+                .toArray(byte[][]::new);
+        Map<ByteBuffer, String> payloads = new HashMap<>();
+        jdbcTemplate.query(FIND_SQL, rs -> {
+            payloads.put(ByteBuffer.wrap(rs.getBytes("hash")), inflate(rs.getBytes("data"), rs.getInt("size")));
+        }, (Object) hashes);
+        for (Task task : claimChecked) {
+            String payload = payloads.get(ByteBuffer.wrap(task.getPayloadRef()));
+            if (payload == null) {
+                throw new IllegalStateException("Payload of task " + task.getId() + " is missing");
+            }
+            task.setPayload(payload);
+        }
+    }
+
+    private static String inflate(byte[] data, int size) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] utf8 = new byte[size];
+            int read = 0;
+            while (read < size && !inflater.finished()) {
+                int n = inflater.inflate(utf8, read, size - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != size) {
+                throw new IllegalStateException("Stored payload is truncated: " + read + " of " + size + " bytes");
+            }
+            return new String(utf8, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Stored payload is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
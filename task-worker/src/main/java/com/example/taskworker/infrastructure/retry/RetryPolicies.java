@@ -0,0 +1,87 @@
+package com.example.taskworker.infrastructure.retry;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Attempt limits and backoff per task type, from {@code app.worker.retry}. A type listed
+ * under {@code types} overrides {@code defaults} field by field: whatever it leaves out is
+ * taken from {@code defaults}.
+ */
+@Component
+@EnableConfigurationProperties(RetryPolicies.Properties.class)
+public class RetryPolicies {
+
+    @Data
+    @ConfigurationProperties(prefix = "app.worker.retry")
+    public static class Properties {
+        private Policy defaults = new Policy();
+        private Map<String, PolicyOverride> types = new HashMap<>();
+    }
+
+    /**
+     * The fields a type sets for itself; null ones come from the defaults.
+     */
+    @Data
+    public static class PolicyOverride {
+        private Integer maxAttempts;
+        private Duration initialDelay;
+        private Double multiplier;
+        private Duration maxDelay;
+        private Double jitter;
+    }
+
+    @Data
+    public static class Policy {
+        // Including the first attempt
+        private int maxAttempts = 4;
+        private Duration initialDelay = Duration.ofSeconds(1);
+        private double multiplier = 2.0;
+        private Duration maxDelay = Duration.ofMinutes(5);
+        // Fraction each delay is moved either way, so tasks that failed together come back spread out
+        private double jitter = 0.2;
+
+        public boolean isExhausted(int failures) {
+            return failures >= maxAttempts;
+        }
+
+        /**
+         * Backoff before the next attempt of a task that has failed {@code failures} times.
+         */
+        public Duration delayAfter(int failures) {
+            double base = Math.min(initialDelay.toMillis() * Math.pow(multiplier, Math.max(0, failures - 1)),
+                    maxDelay.toMillis());
+            double spread = jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+            return Duration.ofMillis(Math.round(base * (1 + spread)));
+        }
+
+        Policy with(PolicyOverride override) {
+            Policy policy = new Policy();
+            policy.setMaxAttempts(override.getMaxAttempts() != null ? override.getMaxAttempts() : maxAttempts);
+            policy.setInitialDelay(override.getInitialDelay() != null ? override.getInitialDelay() : initialDelay);
+            policy.setMultiplier(override.getMultiplier() != null ? override.getMultiplier() : multiplier);
+            policy.setMaxDelay(override.getMaxDelay() != null ? override.getMaxDelay() : maxDelay);
+            policy.setJitter(override.getJitter() != null ? override.getJitter() : jitter);
+            return policy;
+        }
+    }
+
+    private final Policy defaults;
+    private final Map<String, Policy> types = new HashMap<>();
+
+    public RetryPolicies(Properties properties) {
+        this.defaults = properties.getDefaults();
+        properties.getTypes().forEach((type, override) -> types.put(type, defaults.with(override)));
+    }
+
+    public Policy forType(String type) {
+        return types.getOrDefault(type, defaults);
+    }
+}
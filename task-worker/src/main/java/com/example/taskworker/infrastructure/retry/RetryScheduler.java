@@ -0,0 +1,137 @@
+package com.example.taskworker.infrastructure.retry;
+
+import com.example.taskworker.domain.model.Task;
+import com.example.taskworker.domain.model.TaskStatus;
+import com.example.taskworker.infrastructure.metrics.TaskMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Decides what happens to a task after a failed attempt. Tasks with attempts left are parked
+ * in {@code scheduled_tasks} with their backoff as {@code run_at}; the task service's
+ * dispatcher hands them back to the outbox when they come due, on the topic of their
+ * priority. Nothing waits on a Kafka partition in the meantime, so a slow backoff never
+ * holds up the records behind it. Tasks out of attempts are FAILED for good.
+ * <p>
+ * Callers write the returned status and increment {@code retry_count} in the same
+ * transaction as the park, so a rollback loses neither or both. Callers that write through
+ * a version fence take the status from {@link #nextStatus} first and only park the tasks
+ * whose write went through.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RetryScheduler {
+
+    // Shared with the task service's ScheduledTaskRepository
+    private static final String INSERT_SQL =
+            "INSERT INTO scheduled_tasks (task_id, task_created_at, task_type, priority, payload, correlation_id, run_at, attempt) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public record Failure(Task task, String correlationId) {
+    }
+
+    private final RetryPolicies retryPolicies;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskMetrics taskMetrics;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * What a failed attempt leads to: RETRYING while {@code task} has attempts left, FAILED
+     * after the last. The same decision {@link #park} makes.
+     */
+    public TaskStatus nextStatus(Task task) {
+        return retryPolicies.forType(task.getTaskType()).isExhausted(task.getRetryCount() + 1)
+                ? TaskStatus.FAILED
+                : TaskStatus.RETRYING;
+    }
+
+    public TaskStatus park(Task task, String correlationId) {
+        return park(List.of(new Failure(task, correlationId))).get(task.getId());
+    }
+
+    /**
+     * Parks the failed tasks that have attempts left. Returns RETRYING or FAILED per task id.
+     * Must run inside a transaction.
+     */
+    public Map<UUID, TaskStatus> park(List<Failure> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, TaskStatus> outcomes = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+
+        for (Failure failure : failures) {
+            Task task = failure.task();
+            int failed = task.getRetryCount() + 1;
+            RetryPolicies.Policy policy = retryPolicies.forType(task.getTaskType());
+
+            if (policy.isExhausted(failed)) {
+                log.error("Task {} failed {} times and will not be retried", task.getId(), failed);
+                meterRegistry.counter("tasks.dead_lettered", "type", taskMetrics.typeTag(task.getTaskType())).increment();
+                outcomes.put(task.getId(), TaskStatus.FAILED);
+                continue;
+            }
+
+            Duration delay = policy.delayAfter(failed);
+            rows.add(new Object[]{
+                    task.getId(),
+                    Timestamp.valueOf(task.getCreatedAt()),
+                    task.getTaskType(),
+                    task.getPriority().ordinal(),
+                    task.eventPayload(),
+                    failure.correlationId(),
+                    Timestamp.valueOf(now.plus(delay)),
+                    failed + 1
+            });
+            log.info("Task {} will run attempt {} in {} ms", task.getId(), failed + 1, delay.toMillis());
+            meterRegistry.counter("task.retry.scheduled", "type", taskMetrics.typeTag(task.getTaskType())).increment();
+            outcomes.put(task.getId(), TaskStatus.RETRYING);
+        }
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+        return outcomes;
+    }
+
+    /**
+     * Parks tasks that were not run at all, e.g. because their type's bulkhead was full, to
+     * come back after the first backoff of their type. Costs no attempt: callers set them
+     * RETRYING without incrementing {@code retry_count}. Must run inside a transaction.
+     */
+    public void defer(List<Failure> deferred) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(deferred.size());
+        for (Failure failure : deferred) {
+            Task task = failure.task();
+            Duration delay = retryPolicies.forType(task.getTaskType()).delayAfter(1);
+            rows.add(new Object[]{
+                    task.getId(),
+                    Timestamp.valueOf(task.getCreatedAt()),
+                    task.getTaskType(),
+                    task.getPriority().ordinal(),
+                    task.eventPayload(),
+                    failure.correlationId(),
+                    Timestamp.valueOf(now.plus(delay)),
+                    // The attempt that did not run; above 0, so the reaper sees a parked retry
+                    task.getRetryCount() + 1
+            });
+            log.info("Task {} deferred for {} ms", task.getId(), delay.toMillis());
+            meterRegistry.counter("task.retry.deferred", "type", taskMetrics.typeTag(task.getTaskType())).increment();
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+}
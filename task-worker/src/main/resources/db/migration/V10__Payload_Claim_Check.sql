@@ -0,0 +1,34 @@
+-- V10: Claim check for large payloads
+
+-- 1. Payload store
+-- Payloads above app.tasks.payload.claim-check-threshold are kept here once per distinct
+-- content, keyed by the SHA-256 of their UTF-8 bytes and deflated by the service. The task
+-- row only references them. referenced_at is refreshed whenever a new task reuses a payload,
+-- so payloads no task has referenced since the retention cutoff can be purged safely.
+CREATE TABLE task_payloads (
+    hash BYTEA PRIMARY KEY,
+    size INT NOT NULL, -- uncompressed bytes
+    data BYTEA NOT NULL,
+    referenced_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Already compressed; TOAST compressing it again only costs CPU
+ALTER TABLE task_payloads ALTER COLUMN data SET STORAGE EXTERNAL;
+
+CREATE INDEX idx_task_payloads_referenced_at ON task_payloads (referenced_at);
+
+-- 2. Reference from the task
+-- A claim-checked task keeps only its indexed paths in payload, which stays NOT NULL for the
+-- containment filters.
+ALTER TABLE tasks ADD COLUMN payload_ref BYTEA;
+CREATE INDEX idx_tasks_payload_ref ON tasks (payload_ref) WHERE payload_ref IS NOT NULL;
+
+-- 3. Events of claim-checked tasks carry no payload; the worker reads it with the task
+ALTER TABLE outbox ALTER COLUMN payload DROP NOT NULL;
+ALTER TABLE scheduled_tasks ALTER COLUMN payload DROP NOT NULL;
+
+-- 4. Smaller payload index
+-- jsonb_path_ops only serves @>, the one operator the listing uses, and indexes one hash per
+-- path instead of an entry per key and per value: a fraction of the size and of the write cost.
+DROP INDEX idx_tasks_payload_gin;
+CREATE INDEX idx_tasks_payload_gin ON tasks USING GIN (payload jsonb_path_ops);
@@ -0,0 +1,20 @@
+-- V11: Idempotency keys for task submission
+
+-- 1. One row per Idempotency-Key and client, written in the transaction that creates the task.
+-- The primary key makes a concurrent retry on another instance wait for the first submission
+-- to commit and then find its task. Rows older than app.tasks.idempotency.window no longer
+-- count and are purged in the background.
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(400) PRIMARY KEY, -- client identity and the header value
+    request_hash BYTEA NOT NULL, -- SHA-256 of the submission, to reject a key reused for another request
+    task_id UUID NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
+
+-- 2. Vacuum tuning: rows are purged continuously once they age out
+ALTER TABLE idempotency_keys SET (
+    autovacuum_vacuum_scale_factor = 0.02,
+    autovacuum_vacuum_threshold = 1000
+);
@@ -0,0 +1,27 @@
+-- V6: Delayed and scheduled tasks
+
+-- 1. Requested start time, kept on the task for clients
+ALTER TABLE tasks ADD COLUMN run_at TIMESTAMP;
+
+-- 2. Timing table
+-- One row per task that is not due yet, removed when the dispatcher hands it to the outbox.
+-- It only ever holds pending schedules, so finding due work is a range scan on run_at here
+-- instead of a scan of the partitioned tasks table.
+CREATE TABLE scheduled_tasks (
+    id BIGSERIAL PRIMARY KEY,
+    task_id UUID NOT NULL,
+    task_created_at TIMESTAMP NOT NULL,
+    task_type VARCHAR(100) NOT NULL,
+    priority SMALLINT NOT NULL,
+    payload TEXT NOT NULL,
+    correlation_id VARCHAR(255),
+    run_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_scheduled_tasks_run_at ON scheduled_tasks (run_at);
+
+-- 3. Vacuum tuning, as for the outbox: rows are deleted as they come due
+ALTER TABLE scheduled_tasks SET (
+    autovacuum_vacuum_scale_factor = 0.01,
+    autovacuum_vacuum_threshold = 1000
+);
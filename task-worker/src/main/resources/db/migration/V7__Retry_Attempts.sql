@@ -0,0 +1,9 @@
+-- V7: Retries through the timing table
+
+-- 1. Attempt number of a parked retry; 0 for a task scheduled by its submitter
+-- Workers park a failed task here with its backoff as run_at instead of holding it on a
+-- retry topic, so the dispatcher releases retries and scheduled tasks the same way.
+ALTER TABLE scheduled_tasks ADD COLUMN attempt INT NOT NULL DEFAULT 0;
+
+-- 2. Retry queue depth, kept small by the partial predicate
+CREATE INDEX idx_scheduled_tasks_retries ON scheduled_tasks (run_at) WHERE attempt > 0;
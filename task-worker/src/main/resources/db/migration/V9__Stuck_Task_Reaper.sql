@@ -0,0 +1,15 @@
+-- V9: Stuck task reaper
+
+-- 1. How often a task was found stuck and published again; past the limit it is failed
+ALTER TABLE tasks ADD COLUMN reap_count INT NOT NULL DEFAULT 0;
+
+-- 2. Active tasks by staleness
+-- Replaces the status-only partial index, which nothing queried. With updated_at in the key
+-- the reaper reads the stalest active tasks of a status in index order and stops at its
+-- threshold; finished tasks are outside the predicate, so old partitions cost one probe.
+DROP INDEX idx_tasks_active_status;
+CREATE INDEX idx_tasks_active_status_updated_at ON tasks (status, updated_at)
+WHERE status IN ('PENDING', 'PROCESSING', 'RETRYING');
+
+-- 3. Parked retries by task, to tell a waiting RETRYING task from one whose retry was lost
+CREATE INDEX idx_scheduled_tasks_retry_task_id ON scheduled_tasks (task_id) WHERE attempt > 0;
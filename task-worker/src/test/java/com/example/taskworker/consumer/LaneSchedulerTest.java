@@ -0,0 +1,102 @@
+package com.example.taskworker.consumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LaneSchedulerTest {
+
+    private static final TopicPartition HIGH = new TopicPartition("tasks.high", 0);
+    private static final TopicPartition NORMAL = new TopicPartition("tasks.normal", 0);
+    private static final TopicPartition LOW = new TopicPartition("tasks.low", 0);
+
+    private final Map<String, Long> lag = new HashMap<>();
+    private final Set<TopicPartition> paused = new HashSet<>();
+    private LaneScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(container.isRunning()).thenReturn(true);
+        when(container.getAssignedPartitions()).thenReturn(List.of(HIGH, NORMAL, LOW));
+        when(container.isPartitionPauseRequested(any())).thenAnswer(inv -> paused.contains(inv.<TopicPartition>getArgument(0)));
+        doAnswer(inv -> paused.add(inv.getArgument(0))).when(container).pausePartition(any());
+        doAnswer(inv -> paused.remove(inv.<TopicPartition>getArgument(0))).when(container).resumePartition(any());
+
+        // The client reports lag per partition, with '.' in topic names replaced by '_'
+        Map<MetricName, Metric> metrics = new HashMap<>();
+        for (TopicPartition partition : List.of(HIGH, NORMAL, LOW)) {
+            Metric metric = mock(Metric.class);
+            when(metric.metricValue()).thenAnswer(inv -> (double) lag.getOrDefault(partition.topic(), 0L));
+            metrics.put(new MetricName("records-lag", "consumer-fetch-manager-metrics", "",
+                    Map.of("topic", partition.topic().replace('.', '_'), "partition", "0")), metric);
+        }
+        doReturn(Map.of("consumer-0", metrics)).when(container).metrics();
+
+        KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+        when(registry.getListenerContainer(TaskConsumer.LISTENER_ID)).thenReturn(container);
+
+        scheduler = new LaneScheduler(registry, new SimpleMeterRegistry(),
+                HIGH.topic(), NORMAL.topic(), LOW.topic(), 8, 3, 1);
+        ReflectionTestUtils.setField(scheduler, "backlogThreshold", 100L);
+    }
+
+    @Test
+    public void testLanesRunFreelyWithoutBacklog() {
+        lag.put(NORMAL.topic(), 50L);
+        for (int tick = 0; tick < 10; tick++) {
+            scheduler.schedule();
+            assertEquals(Set.of(), paused);
+        }
+    }
+
+    @Test
+    public void testBackloggedLaneGivesLowerLanesTheirWeightedShare() {
+        lag.put(HIGH.topic(), 1_000L);
+        int ticks = 1_100;
+        int normalRuns = 0;
+        int lowRuns = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            scheduler.schedule();
+            assertFalse(paused.contains(HIGH));
+            normalRuns += paused.contains(NORMAL) ? 0 : 1;
+            lowRuns += paused.contains(LOW) ? 0 : 1;
+        }
+        // 3 / (3 + 8) and 1 / (1 + 8) of the ticks
+        assertEquals(300, normalRuns, 1);
+        assertEquals(122, lowRuns, 1);
+
+        // A backlogged normal lane holds low back further: 1 / (1 + 8 + 3)
+        lag.put(NORMAL.topic(), 1_000L);
+        lowRuns = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            scheduler.schedule();
+            lowRuns += paused.contains(LOW) ? 0 : 1;
+        }
+        assertEquals(92, lowRuns, 1);
+
+        lag.clear();
+        scheduler.schedule();
+        assertEquals(Set.of(), paused);
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.taskworker.consumer;
+
+import com.example.taskworker.domain.model.Task;
+import com.example.taskworker.domain.model.TaskPriority;
+import com.example.taskworker.domain.model.TaskStatus;
+import com.example.taskworker.domain.repository.TaskJdbcRepository;
+import com.example.taskworker.domain.repository.TaskRepository;
+import com.example.taskworker.infrastructure.messaging.TaskEvent;
+import com.example.taskworker.infrastructure.messaging.TaskStatusPublisher;
+import com.example.taskworker.infrastructure.metrics.TaskMetrics;
+import com.example.taskworker.infrastructure.payload.TaskPayloadStore;
+import com.example.taskworker.infrastructure.retry.RetryScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ParallelTaskConsumerTest {
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final TaskJdbcRepository taskJdbcRepository = mock(TaskJdbcRepository.class);
+    private final TaskStatusPublisher taskStatusPublisher = mock(TaskStatusPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TaskProcessor taskProcessor = mock(TaskProcessor.class);
+    private final TaskBulkheads taskBulkheads = mock(TaskBulkheads.class);
+    private final MessageListenerContainer container = mock(MessageListenerContainer.class);
+    private final AtomicBoolean pauseRequested = new AtomicBoolean();
+    private ParallelTaskConsumer consumer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        when(taskRepository.findByIdPruned(any())).thenAnswer(inv -> Optional.of(Task.builder()
+                .id(inv.getArgument(0))
+                .createdAt(LocalDateTime.now())
+                .status(TaskStatus.PENDING)
+                .taskType("report")
+                .build()));
+        when(taskJdbcRepository.updateStatus(any(), any(), anyBoolean())).thenAnswer(inv -> inv.getArgument(0));
+        TaskPayloadStore taskPayloadStore = mock(TaskPayloadStore.class);
+        when(taskPayloadStore.resolve(any())).thenAnswer(inv -> inv.getArgument(0));
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        when(container.isPauseRequested()).thenAnswer(inv -> pauseRequested.get());
+        doAnswer(inv -> {
+            pauseRequested.set(true);
+            return null;
+        }).when(container).pause();
+        doAnswer(inv -> {
+            pauseRequested.set(false);
+            return null;
+        }).when(container).resume();
+        KafkaListenerEndpointRegistry listenerRegistry = mock(KafkaListenerEndpointRegistry.class);
+        when(listenerRegistry.getListenerContainer(ParallelTaskConsumer.LISTENER_ID)).thenReturn(container);
+        LaneScheduler laneScheduler = mock(LaneScheduler.class);
+        when(laneScheduler.priorityOf(anyString())).thenReturn(TaskPriority.NORMAL);
+
+        consumer = new ParallelTaskConsumer(taskRepository, taskJdbcRepository, taskProcessor, taskBulkheads, taskPayloadStore,
+                mock(RetryScheduler.class), taskStatusPublisher, transactionTemplate, listenerRegistry,
+                laneScheduler, new TaskMetrics(meterRegistry, new Duration[]{Duration.ofSeconds(1)}, 50), meterRegistry);
+        ReflectionTestUtils.setField(consumer, "maxInFlight", 4);
+        ReflectionTestUtils.setField(consumer, "shutdownTimeoutMs", 5_000L);
+    }
+
+    @AfterEach
+    public void shutdown() throws InterruptedException {
+        consumer.shutdown();
+    }
+
+    @Test
+    public void testRecordsOfOneTaskRunInArrivalOrder() throws Exception {
+        UUID id = UUID.randomUUID();
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger runs = new AtomicInteger();
+        doAnswer(inv -> {
+            int run = runs.incrementAndGet();
+            events.add("start " + run);
+            // The later record must not overtake a slow earlier one
+            Thread.sleep(run == 1 ? 200 : 0);
+            events.add("end " + run);
+            return null;
+        }).when(taskProcessor).process(any());
+
+        Acknowledgment first = mock(Acknowledgment.class);
+        Acknowledgment second = mock(Acknowledgment.class);
+        consumer.consume(record(id, 0), first);
+        consumer.consume(record(id, 1), second);
+
+        verify(second, timeout(5_000)).acknowledge();
+        verify(first).acknowledge();
+        assertEquals(List.of("start 1", "end 1", "start 2", "end 2"), events);
+    }
+
+    @Test
+    public void testRecordsOfDifferentTasksRunConcurrently() throws Exception {
+        // Each run waits for the other, so they only finish if both are running at once
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        doAnswer(inv -> {
+            bothRunning.countDown();
+            assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+            return null;
+        }).when(taskProcessor).process(any());
+
+        Acknowledgment first = mock(Acknowledgment.class);
+        Acknowledgment second = mock(Acknowledgment.class);
+        consumer.consume(record(UUID.randomUUID(), 0), first);
+        consumer.consume(record(UUID.randomUUID(), 1), second);
+
+        verify(first, timeout(5_000)).acknowledge();
+        verify(second, timeout(5_000)).acknowledge();
+    }
+
+    @Test
+    public void testFailedStoreIsRetriedWithoutRunningTheHandlerAgain() throws Exception {
+        when(taskJdbcRepository.updateStatus(any(), any(), anyBoolean()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        Acknowledgment ack = mock(Acknowledgment.class);
+        consumer.consume(record(UUID.randomUUID(), 0), ack);
+
+        verify(ack, timeout(5_000)).acknowledge();
+        verify(taskJdbcRepository, times(3)).updateStatus(any(), eq(TaskStatus.SUCCESS), eq(false));
+        verify(taskProcessor, times(1)).process(any());
+    }
+
+    @Test
+    public void testOutcomeOfATaskWrittenMeanwhileIsDropped() throws Exception {
+        // The version fence did not match: the reaper or another worker got there first
+        when(taskJdbcRepository.updateStatus(any(), any(), anyBoolean())).thenReturn(List.of());
+
+        Acknowledgment ack = mock(Acknowledgment.class);
+        consumer.consume(record(UUID.randomUUID(), 0), ack);
+
+        verify(ack, timeout(5_000)).acknowledge();
+        verify(taskStatusPublisher, never()).publish(any(), any());
+        assertEquals(1, meterRegistry.counter("task.fence.lost", "mode", "parallel").count());
+    }
+
+    @Test
+    public void testPausesAtMaxInFlightAndResumesAtHalf() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            release.await();
+            return null;
+        }).when(taskProcessor).process(any());
+
+        List<Acknowledgment> acks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            if (i == 3) {
+                verify(container, never()).pause();
+            }
+            Acknowledgment ack = mock(Acknowledgment.class);
+            acks.add(ack);
+            consumer.consume(record(UUID.randomUUID(), i), ack);
+        }
+        verify(container).pause();
+
+        release.countDown();
+        for (Acknowledgment ack : acks) {
+            verify(ack, timeout(5_000)).acknowledge();
+        }
+        verify(container, timeout(5_000)).resume();
+        verify(container, times(1)).resume();
+    }
+
+    @Test
+    public void testFullBulkheadPausesUntilItsBacklogClears() throws Exception {
+        when(taskBulkheads.isFull("report")).thenReturn(true);
+        when(taskBulkheads.hasBacklog()).thenReturn(true);
+
+        Acknowledgment first = mock(Acknowledgment.class);
+        consumer.consume(record(UUID.randomUUID(), 0), first);
+        verify(container).pause();
+        verify(first, timeout(5_000)).acknowledge();
+        verify(container, never()).resume();
+
+        when(taskBulkheads.isFull("report")).thenReturn(false);
+        when(taskBulkheads.hasBacklog()).thenReturn(false);
+        Acknowledgment second = mock(Acknowledgment.class);
+        consumer.consume(record(UUID.randomUUID(), 1), second);
+        verify(second, timeout(5_000)).acknowledge();
+        verify(container, timeout(5_000)).resume();
+    }
+
+    private static ConsumerRecord<String, TaskEvent> record(UUID id, long offset) {
+        return new ConsumerRecord<>("tasks.normal", 0, offset, id.toString(), new TaskEvent(id, "report", "{}"));
+    }
+}
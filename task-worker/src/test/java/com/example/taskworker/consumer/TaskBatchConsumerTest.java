@@ -0,0 +1,191 @@
+package com.example.taskworker.consumer;
+
+import com.example.taskworker.domain.model.Task;
+import com.example.taskworker.domain.model.TaskPriority;
+import com.example.taskworker.domain.model.TaskStatus;
+import com.example.taskworker.domain.repository.TaskJdbcRepository;
+import com.example.taskworker.domain.repository.TaskRepository;
+import com.example.taskworker.infrastructure.messaging.TaskEvent;
+import com.example.taskworker.infrastructure.messaging.TaskStatusPublisher;
+import com.example.taskworker.infrastructure.metrics.TaskMetrics;
+import com.example.taskworker.infrastructure.payload.TaskPayloadStore;
+import com.example.taskworker.infrastructure.retry.RetryScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TaskBatchConsumerTest {
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final TaskJdbcRepository taskJdbcRepository = mock(TaskJdbcRepository.class);
+    private final TaskProcessor taskProcessor = mock(TaskProcessor.class);
+    private final RetryScheduler retryScheduler = mock(RetryScheduler.class);
+    private final TaskStatusPublisher taskStatusPublisher = mock(TaskStatusPublisher.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+    private final AtomicInteger transactions = new AtomicInteger();
+    private TaskBatchConsumer consumer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inTransaction(() ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null)));
+        doAnswer(inv -> inTransaction(() -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        })).when(transactionTemplate).executeWithoutResult(any());
+        when(taskJdbcRepository.updateStatus(anyList(), any(), anyBoolean())).thenAnswer(inv -> inv.getArgument(0));
+        when(retryScheduler.nextStatus(any())).thenReturn(TaskStatus.RETRYING);
+        when(retryScheduler.park(anyList())).thenAnswer(inv -> {
+            List<RetryScheduler.Failure> failures = inv.getArgument(0);
+            return failures.stream().collect(Collectors.toMap(f -> f.task().getId(), f -> TaskStatus.RETRYING));
+        });
+        LaneScheduler laneScheduler = mock(LaneScheduler.class);
+        when(laneScheduler.priorityOf(anyString())).thenReturn(TaskPriority.NORMAL);
+
+        consumer = new TaskBatchConsumer(taskRepository, taskJdbcRepository, taskProcessor, mock(TaskPayloadStore.class),
+                retryScheduler, taskStatusPublisher, transactionTemplate, laneScheduler,
+                new TaskMetrics(meterRegistry, new Duration[]{Duration.ofSeconds(1)}, 50), meterRegistry);
+    }
+
+    @Test
+    public void testHandlersRunBetweenTheClaimAndTheStore() {
+        Task pending = task(TaskStatus.PENDING, 3);
+        Task done = task(TaskStatus.SUCCESS, 5);
+        when(taskRepository.findAllByIdPruned(any())).thenReturn(List.of(pending, done));
+        when(taskProcessor.submit(pending)).thenAnswer(inv -> {
+            assertFalse(inTransaction.get(), "handler ran inside a transaction");
+            return CompletableFuture.completedFuture(null);
+        });
+        List<Long> storedVersions = new ArrayList<>();
+        when(taskJdbcRepository.updateStatus(anyList(), eq(TaskStatus.SUCCESS), eq(false))).thenAnswer(inv -> {
+            List<Task> tasks = inv.getArgument(0);
+            tasks.forEach(task -> storedVersions.add(task.getVersion()));
+            return tasks;
+        });
+
+        consumer.consume(List.of(record(pending, 0), record(done, 1)));
+
+        assertEquals(2, transactions.get());
+        verify(taskJdbcRepository).updateStatus(List.of(pending), TaskStatus.PROCESSING, false);
+        verify(taskProcessor, never()).submit(done);
+        // Fenced on the version the claim left behind
+        assertEquals(List.of(4L), storedVersions);
+        verify(taskStatusPublisher).publishAll(Map.of(pending.getId(), TaskStatus.SUCCESS));
+    }
+
+    @Test
+    public void testTasksThatLostTheirFenceAreNotRunOrParked() {
+        Task claimed = task(TaskStatus.PENDING, 0);
+        Task taken = task(TaskStatus.PENDING, 0);
+        when(taskRepository.findAllByIdPruned(any())).thenReturn(List.of(claimed, taken));
+        // Another worker wrote one task before the claim, and the reaper the other before the store
+        when(taskJdbcRepository.updateStatus(anyList(), eq(TaskStatus.PROCESSING), eq(false))).thenReturn(List.of(claimed));
+        when(taskJdbcRepository.updateStatus(anyList(), eq(TaskStatus.RETRYING), eq(true))).thenReturn(List.of());
+        when(taskProcessor.submit(claimed)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+
+        consumer.consume(List.of(record(claimed, 0), record(taken, 1)));
+
+        verify(taskProcessor, never()).submit(taken);
+        verify(retryScheduler).park(List.of());
+        verify(taskStatusPublisher).publishAll(Map.of());
+        assertEquals(2, meterRegistry.counter("task.fence.lost", "mode", "batch").count());
+    }
+
+    @Test
+    public void testWholePollIsHandedOverBeforeWaitingOnASlowType() {
+        Task report = task(TaskStatus.PENDING, 0);
+        Task email = task(TaskStatus.PENDING, 0);
+        email.setTaskType("email");
+        when(taskRepository.findAllByIdPruned(any())).thenReturn(List.of(report, email));
+        CompletableFuture<Void> slowReport = new CompletableFuture<>();
+        when(taskProcessor.submit(report)).thenReturn(slowReport);
+        // Would never be reached if the listener waited for the report first
+        when(taskProcessor.submit(email)).thenAnswer(inv -> {
+            slowReport.completeExceptionally(new TimeoutException("report task ran longer than PT3M"));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> consumer.consume(List.of(record(report, 0), record(email, 1))));
+
+        verify(taskJdbcRepository).updateStatus(List.of(email), TaskStatus.SUCCESS, false);
+        verify(taskJdbcRepository).updateStatus(List.of(report), TaskStatus.RETRYING, true);
+        assertEquals(1, meterRegistry.counter("task_failures_total", "type", "report", "error", "TimeoutException").count());
+    }
+
+    @Test
+    public void testTaskOfAFullBulkheadIsDeferredWithoutAnAttempt() {
+        Task task = task(TaskStatus.PENDING, 0);
+        when(taskRepository.findAllByIdPruned(any())).thenReturn(List.of(task));
+        when(taskProcessor.submit(task)).thenThrow(new BulkheadFullException("report"));
+
+        consumer.consume(List.of(record(task, 0)));
+
+        verify(taskJdbcRepository).updateStatus(List.of(task), TaskStatus.RETRYING, false);
+        verify(retryScheduler).defer(anyList());
+    }
+
+    private <T> T inTransaction(ThrowingSupplier<T> work) throws Throwable {
+        transactions.incrementAndGet();
+        inTransaction.set(true);
+        try {
+            return work.get();
+        } finally {
+            inTransaction.set(false);
+        }
+    }
+
+    private interface ThrowingSupplier<T> {
+        T get() throws Throwable;
+    }
+
+    private static Task task(TaskStatus status, long version) {
+        return Task.builder()
+                .id(UUID.randomUUID())
+                .createdAt(LocalDateTime.now())
+                .status(status)
+                .taskType("report")
+                .priority(TaskPriority.NORMAL)
+                .version(version)
+                .build();
+    }
+
+    private static ConsumerRecord<String, TaskEvent> record(Task task, long offset) {
+        return new ConsumerRecord<>("tasks.normal", 0, offset, task.getId().toString(),
+                new TaskEvent(task.getId(), task.getTaskType(), "{}"));
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.taskworker.consumer;
+
+import com.example.taskworker.handler.TaskHandlerRegistry;
+import com.example.taskworker.infrastructure.metrics.TaskMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskBulkheadsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaskBulkheads bulkheads;
+
+    @AfterEach
+    public void shutdown() {
+        bulkheads.shutdown();
+    }
+
+    @Test
+    public void testTimedOutRunIsInterruptedAndFreesItsSlot() {
+        bulkheads = bulkheads(1, Duration.ofMillis(100));
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThrows(TimeoutException.class, () -> bulkheads.execute("report", () -> {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return null;
+        }));
+        assertEquals(1, meterRegistry.counter("task.bulkhead.timeouts", "type", "report").count());
+
+        // Only slot of the type, so this waits for the interrupted run to give it back
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            bulkheads.execute("report", () -> null);
+        });
+    }
+
+    @Test
+    public void testFailedRunFreesItsSlot() throws Exception {
+        bulkheads = bulkheads(1, Duration.ofSeconds(5));
+
+        assertThrows(IllegalStateException.class, () -> bulkheads.tryExecute("report", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        bulkheads.tryExecute("report", () -> null);
+    }
+
+    @Test
+    public void testFullBulkheadRejectsOnlyItsOwnType() throws Exception {
+        bulkheads = bulkheads(1, Duration.ofSeconds(5));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> {
+            try {
+                bulkheads.execute("report", () -> {
+                    running.countDown();
+                    release.await();
+                    return null;
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        assertThrows(BulkheadFullException.class, () -> bulkheads.tryExecute("report", () -> null));
+        assertEquals(1, meterRegistry.counter("task.bulkhead.rejections", "type", "report").count());
+        bulkheads.tryExecute("email", () -> null);
+
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+        bulkheads.tryExecute("report", () -> null);
+    }
+
+    @Test
+    public void testSubmitReturnsBeforeTheRunAndRejectsOnlyAFullQueue() throws Exception {
+        TaskBulkheads.LimitsOverride report = new TaskBulkheads.LimitsOverride();
+        report.setMaxQueued(1);
+        bulkheads = bulkheads(1, Duration.ofSeconds(5), Map.of("report", report));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> running = bulkheads.submit("report", () -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // Waits for the slot on its own thread, filling the queue
+        CompletableFuture<Void> queued = bulkheads.submit("report", () -> null);
+
+        assertThrows(BulkheadFullException.class, () -> bulkheads.submit("report", () -> null));
+        assertEquals(1, meterRegistry.counter("task.bulkhead.rejections", "type", "report").count());
+        assertFalse(running.isDone());
+        bulkheads.submit("email", () -> null).get(5, TimeUnit.SECONDS);
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testTypeSettingsOverrideTheDefaultsFieldByField() throws Exception {
+        TaskBulkheads.LimitsOverride report = new TaskBulkheads.LimitsOverride();
+        report.setMaxConcurrency(2);
+        bulkheads = bulkheads(1, Duration.ofMillis(100), Map.of("report", report));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> {
+            try {
+                bulkheads.execute("report", () -> {
+                    running.countDown();
+                    release.await();
+                    return null;
+                });
+            } catch (Exception e) {
+                // Times out with the default timeout
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // Second slot from the type's own max-concurrency
+        bulkheads.tryExecute("report", () -> null);
+        // Timeout still the default one
+        assertThrows(TimeoutException.class, () -> bulkheads.tryExecute("report", () -> {
+            Thread.sleep(60_000);
+            return null;
+        }));
+
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+    }
+
+    private TaskBulkheads bulkheads(int maxConcurrency, Duration timeout) {
+        return bulkheads(maxConcurrency, timeout, Map.of());
+    }
+
+    private TaskBulkheads bulkheads(int maxConcurrency, Duration timeout, Map<String, TaskBulkheads.LimitsOverride> types) {
+        TaskBulkheads.Properties properties = new TaskBulkheads.Properties();
+        properties.getDefaults().setMaxConcurrency(maxConcurrency);
+        properties.getDefaults().setTimeout(timeout);
+        properties.getTypes().putAll(types);
+        return new TaskBulkheads(properties, new TaskHandlerRegistry(List.of()),
+                new TaskMetrics(meterRegistry, new Duration[]{Duration.ofSeconds(1)}, 50), meterRegistry);
+    }
+}
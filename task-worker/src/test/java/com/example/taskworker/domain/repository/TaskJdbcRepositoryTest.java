@@ -0,0 +1,60 @@
+package com.example.taskworker.domain.repository;
+
+import com.example.taskworker.domain.model.Task;
+import com.example.taskworker.domain.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TaskJdbcRepositoryTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRowsPastTheirLoadedVersionAreReportedAsLost() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        // The second task was written by someone else after it was loaded
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0, 1});
+        TaskJdbcRepository repository = new TaskJdbcRepository(jdbcTemplate);
+
+        List<Task> tasks = List.of(task(3), task(7), task(0));
+        assertEquals(List.of(tasks.get(0), tasks.get(2)), repository.updateStatus(tasks, TaskStatus.RETRYING, true));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        Object[] second = rows.getValue().get(1);
+        assertEquals("RETRYING", second[0]);
+        assertEquals(1, second[1]);
+        assertEquals(tasks.get(1).getId(), second[2]);
+        // Fenced on the version as loaded
+        assertEquals(7L, second[4]);
+    }
+
+    @Test
+    public void testNothingToWriteSkipsTheDatabase() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        assertEquals(List.of(), new TaskJdbcRepository(jdbcTemplate).updateStatus(List.of(), TaskStatus.SUCCESS, false));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private static Task task(long version) {
+        return Task.builder()
+                .id(UUID.randomUUID())
+                .createdAt(LocalDateTime.now())
+                .status(TaskStatus.PROCESSING)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.taskworker.infrastructure.lock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RedisTaskLockTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RedisTaskLock lock;
+
+    @BeforeEach
+    public void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        lock = new RedisTaskLock(redisTemplate, meterRegistry);
+        ReflectionTestUtils.setField(lock, "ttl", Duration.ofMinutes(5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReleaseDeletesOnlyTheOwnersToken() {
+        UUID taskId = UUID.randomUUID();
+        String key = "lock:task:" + taskId;
+        when(values.setIfAbsent(eq(key), anyString(), eq(Duration.ofMinutes(5)))).thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(key)), anyString())).thenReturn(1L);
+
+        assertEquals("done", lock.executeWithLock(taskId, () -> "done"));
+        assertEquals("done", lock.executeWithLock(taskId, () -> "done"));
+
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(values, times(2)).setIfAbsent(eq(key), stored.capture(), eq(Duration.ofMinutes(5)));
+        ArgumentCaptor<String> released = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), eq(List.of(key)), released.capture());
+        // Compare-and-delete with the token this acquisition stored, a fresh one each time
+        assertEquals(stored.getAllValues(), released.getAllValues());
+        assertNotEquals(stored.getAllValues().get(0), stored.getAllValues().get(1));
+        assertEquals(0, meterRegistry.counter("task.lock.lost", "strategy", "redis").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLockTakenOverAfterExpiryIsCountedAsLost() {
+        when(values.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        // Another worker's token is in the key by now, so nothing is deleted
+        when(redisTemplate.execute(any(RedisScript.class), any(List.class), anyString())).thenReturn(0L);
+
+        assertEquals("done", lock.executeWithLock(UUID.randomUUID(), () -> "done"));
+        assertEquals(1, meterRegistry.counter("task.lock.lost", "strategy", "redis").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testHeldLockIsNotRunOrReleased() {
+        when(values.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertThrows(RuntimeException.class, () -> lock.executeWithLock(UUID.randomUUID(), () -> ran.getAndSet(true)));
+        assertFalse(ran.get());
+        verify(redisTemplate, never()).execute(any(RedisScript.class), any(List.class), anyString());
+    }
+}
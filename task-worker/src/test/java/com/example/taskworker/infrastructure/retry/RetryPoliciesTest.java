@@ -0,0 +1,57 @@
+package com.example.taskworker.infrastructure.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RetryPoliciesTest {
+
+    @Test
+    public void testTypeOverridesAreMergedOntoTheDefaults() {
+        RetryPolicies.Properties properties = new RetryPolicies.Properties();
+        properties.getDefaults().setInitialDelay(Duration.ofSeconds(10));
+        properties.getDefaults().setJitter(0);
+        RetryPolicies.PolicyOverride report = new RetryPolicies.PolicyOverride();
+        report.setMaxAttempts(2);
+        properties.getTypes().put("report", report);
+
+        RetryPolicies policies = new RetryPolicies(properties);
+        RetryPolicies.Policy policy = policies.forType("report");
+        assertEquals(2, policy.getMaxAttempts());
+        // Left out of the override, so taken from the configured defaults rather than the built-in ones
+        assertEquals(Duration.ofSeconds(10), policy.getInitialDelay());
+        assertEquals(0, policy.getJitter());
+        assertEquals(Duration.ofMinutes(5), policy.getMaxDelay());
+
+        assertSame(properties.getDefaults(), policies.forType("email"));
+    }
+
+    @Test
+    public void testDelaysGrowUpToTheMaximum() {
+        RetryPolicies.Policy policy = new RetryPolicies.Policy();
+        policy.setJitter(0);
+        policy.setMaxDelay(Duration.ofSeconds(5));
+
+        assertEquals(Duration.ofSeconds(1), policy.delayAfter(1));
+        assertEquals(Duration.ofSeconds(2), policy.delayAfter(2));
+        assertEquals(Duration.ofSeconds(4), policy.delayAfter(3));
+        assertEquals(Duration.ofSeconds(5), policy.delayAfter(4));
+
+        assertFalse(policy.isExhausted(3));
+        assertTrue(policy.isExhausted(4));
+    }
+
+    @Test
+    public void testJitterStaysWithinItsFraction() {
+        RetryPolicies.Policy policy = new RetryPolicies.Policy();
+        for (int i = 0; i < 1000; i++) {
+            long delay = policy.delayAfter(2).toMillis();
+            assertTrue(delay >= 1600 && delay <= 2400, "delay " + delay);
+        }
+    }
+}